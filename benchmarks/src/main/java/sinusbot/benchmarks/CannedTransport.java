@@ -0,0 +1,46 @@
+package sinusbot.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import sinusbot.SinusbotTransport;
+
+/**
+ * In-memory transport answering with fixed response bodies, so a benchmark only measures the client itself.
+ * Unknown requests are answered with an empty object.
+ */
+final class CannedTransport implements SinusbotTransport {
+	private static final byte[] EMPTY = "{}".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] LOGIN = "{\"token\":\"benchmark\",\"success\":true}".getBytes(StandardCharsets.UTF_8);
+
+	private final Map<String, byte[]> responses = new HashMap<>();
+	/** Sum of all request body lengths, keeps the encoded bodies from being optimized away */
+	long bodyBytes;
+
+	/**
+	 * Answers a request with a fixed body
+	 * @param method HTTP method
+	 * @param path Path below /api/v1, e.g. /bot/files
+	 * @param body Response body
+	 */
+	CannedTransport respond(String method, String path, byte[] body) {
+		responses.put(method + " " + path, body);
+		return this;
+	}
+
+	@Override
+	public InputStream send(String requestMethod, String url, String token, byte[] body) {
+		if (body != null)
+			bodyBytes += body.length;
+		String path = url.substring(url.indexOf("/api/v1") + 7);
+		int query = path.indexOf('?');
+		if (query >= 0)
+			path = path.substring(0, query);
+		if (path.equals("/bot/login"))
+			return new ByteArrayInputStream(LOGIN);
+		return new ByteArrayInputStream(responses.getOrDefault(requestMethod + " " + path, EMPTY));
+	}
+}
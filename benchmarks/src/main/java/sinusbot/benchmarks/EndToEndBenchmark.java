@@ -0,0 +1,87 @@
+package sinusbot.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sinusbot.HttpClientTransport;
+import sinusbot.SinusbotAPI;
+import sinusbot.stub.SinusbotStub;
+
+/**
+ * Whole calls through HttpClientTransport against a {@link SinusbotStub} in the same JVM, reported as throughput and latency distribution.
+ * The stub answers immediately, so the numbers are the overhead of client, transport and loopback.
+ * With compression the stub sends gzip compressed responses, which only pays off on links slower than loopback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+	private static final String INSTANCE = "6421eae5-6d3d-4a4a-9ad3-1d6c5f6c7a5e";
+
+	@Param({ "false", "true" })
+	public boolean compression;
+
+	private SinusbotStub stub;
+	private SinusbotAPI api;
+
+	@Setup
+	public void setup() throws IOException {
+		stub = new SinusbotStub()
+				.addInstance(INSTANCE, "benchmark")
+				.fixture("getStatus", new String(Payloads.status(), StandardCharsets.UTF_8))
+				.fixture("getFiles", new String(Payloads.files(1000), StandardCharsets.UTF_8))
+				.compression(compression)
+				.start();
+		api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "botId", new HttpClientTransport());
+	}
+
+	@TearDown
+	public void tearDown() {
+		stub.close();
+	}
+
+	/** Small request decoded into a record */
+	@Benchmark
+	public SinusbotAPI.InstanceStatus getStatusTyped() {
+		return api.getStatusTyped(INSTANCE);
+	}
+
+	/** Small POST with a JSON body */
+	@Benchmark
+	public JSONObject say() {
+		return api.say(INSTANCE, "Hello world", "en");
+	}
+
+	/** Large GET, about 350 KB for 1000 files */
+	@Benchmark
+	public List<SinusbotAPI.Track> getFilesTyped() {
+		return api.getFilesTyped();
+	}
+
+	/** Small request from 8 threads sharing the connection pool, identical reads in flight at the same time are sent once */
+	@Benchmark
+	@Threads(8)
+	public SinusbotAPI.InstanceStatus getStatusTypedConcurrent() {
+		return api.getStatusTyped(INSTANCE);
+	}
+}
@@ -0,0 +1,101 @@
+package sinusbot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sinusbot.MediaLibrary;
+import sinusbot.SinusbotAPI;
+
+/**
+ * Searches of a MediaLibrary with a large vocabulary, so short prefixes match thousands of tokens.
+ * Words are built from syllables and picked with a skew towards common ones, like the titles and artists of a real
+ * library. The target is well below a millisecond per search at 100k tracks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MediaLibraryBenchmark {
+	private static final String[] SYLLABLES = { "ka", "lo", "mi", "ne", "ra", "so", "tu", "vi", "da", "fe", "go", "hu", "ji", "be",
+			"ci", "pa", "qu", "wo", "xe", "yu", "ze", "an", "el", "in", "or", "um" };
+
+	@Param({ "10000", "100000" })
+	public int size;
+
+	private MediaLibrary library;
+	private String word;
+	private String other;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(size);
+		String[] vocabulary = new String[20000];
+		for (int i = 0; i < vocabulary.length; i++) {
+			StringBuilder sb = new StringBuilder();
+			for (int n = 2 + random.nextInt(3); n > 0; n--)
+				sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+			vocabulary[i] = sb.toString();
+		}
+		List<SinusbotAPI.Track> tracks = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String title = words(random, vocabulary, 3);
+			tracks.add(new SinusbotAPI.Track(new UUID(random.nextLong(), random.nextLong()).toString(), "", "", "audio/mpeg", title,
+					words(random, vocabulary, 2), null, null, words(random, vocabulary, 2), null, 1, 12, null, "Pop", null, "mp3",
+					180000, 320000, 2, 44100, 5000000));
+		}
+		library = new MediaLibrary(null);
+		library.apply(tracks);
+		word = vocabulary[0];
+		other = vocabulary[1];
+	}
+
+	private static String words(Random random, String[] vocabulary, int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			// Skewed towards the start of the vocabulary
+			sb.append(i == 0 ? "" : " ").append(vocabulary[random.nextInt(1 + random.nextInt(vocabulary.length))]);
+		}
+		return sb.toString();
+	}
+
+	/** Two character prefix, matches about one in 26 tokens */
+	@Benchmark
+	public MediaLibrary.SearchResult shortPrefix() {
+		return library.find("ka", 20);
+	}
+
+	/** Prefix of a few tokens */
+	@Benchmark
+	public MediaLibrary.SearchResult longPrefix() {
+		return library.find(word.substring(0, word.length() - 1), 20);
+	}
+
+	/** Common word followed by a short prefix, the prefix bit set filters the posting list of the word */
+	@Benchmark
+	public MediaLibrary.SearchResult wordAndPrefix() {
+		return library.find(word + " lo", 20);
+	}
+
+	/** Two complete words, the last one matches longer tokens as well */
+	@Benchmark
+	public MediaLibrary.SearchResult twoWords() {
+		return library.find(word + " " + other, 20);
+	}
+}
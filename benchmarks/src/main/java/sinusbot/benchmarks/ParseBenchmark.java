@@ -0,0 +1,77 @@
+package sinusbot.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sinusbot.SinusbotAPI;
+
+/**
+ * Decoding of getFiles, getChannels and getInstances responses of several sizes,
+ * as JSONArray and as typed records. The responses come from memory, no network is involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+	private static final String INSTANCE = "6421eae5-6d3d-4a4a-9ad3-1d6c5f6c7a5e";
+
+	@Param({ "10", "1000", "10000" })
+	public int size;
+
+	private SinusbotAPI api;
+
+	@Setup
+	public void setup() {
+		CannedTransport transport = new CannedTransport()
+				.respond("GET", "/bot/files", Payloads.files(size))
+				.respond("GET", "/bot/i/" + INSTANCE + "/channels", Payloads.channels(size))
+				.respond("GET", "/bot/instances", Payloads.instances(size));
+		api = new SinusbotAPI("127.0.0.1", 8087, "admin", "password", "botId", transport);
+	}
+
+	@Benchmark
+	public JSONArray getFiles() {
+		return api.getFiles();
+	}
+
+	@Benchmark
+	public List<SinusbotAPI.Track> getFilesTyped() {
+		return api.getFilesTyped();
+	}
+
+	@Benchmark
+	public JSONArray getChannels() {
+		return api.getChannels(INSTANCE);
+	}
+
+	@Benchmark
+	public List<SinusbotAPI.Channel> getChannelsTyped() {
+		return api.getChannelsTyped(INSTANCE);
+	}
+
+	@Benchmark
+	public JSONArray getInstances() {
+		return api.getInstances();
+	}
+
+	@Benchmark
+	public List<SinusbotAPI.Instance> getInstancesTyped() {
+		return api.getInstancesTyped();
+	}
+}
@@ -0,0 +1,166 @@
+package sinusbot.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.UUID;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Realistic response bodies for the benchmarks, shaped like the responses of a real Sinusbot.
+ * The same seed always produces the same payload so runs can be compared.
+ */
+final class Payloads {
+	private static final String[] WORDS = { "never", "gonna", "give", "you", "up", "let", "down", "run", "around", "and", "desert", "night", "city", "lights", "summer", "remix", "live", "radio", "edit", "acoustic" };
+
+	private Payloads() {
+	}
+
+	/**
+	 * Response of getFiles: folders and tracks, about one folder per 20 tracks
+	 * @param size Number of entries
+	 */
+	static byte[] files(int size) {
+		Random random = new Random(size);
+		JSONArray files = new JSONArray();
+		String parent = "";
+		for (int i = 0; i < size; i++) {
+			JSONObject file = new JSONObject();
+			file.put("uuid", uuid(random));
+			file.put("parent", parent);
+			if (i % 20 == 0) {
+				file.put("type", "folder");
+				file.put("title", words(random, 2));
+				parent = file.getString("uuid");
+			} else {
+				file.put("type", "");
+				file.put("mimeType", "audio/mpeg");
+				file.put("title", words(random, 3));
+				file.put("artist", words(random, 2));
+				file.put("album", words(random, 2));
+				file.put("albumArtist", "");
+				file.put("track", 1 + random.nextInt(12));
+				file.put("totalTracks", 12);
+				file.put("genre", "Pop");
+				file.put("codec", "mp3");
+				file.put("duration", 120000 + random.nextInt(180000));
+				file.put("bitrate", 320000);
+				file.put("channels", 2);
+				file.put("samplerate", 44100);
+				file.put("filesize", 2000000 + random.nextInt(10000000));
+			}
+			files.put(file);
+		}
+		return bytes(files);
+	}
+
+	/**
+	 * Response of getChannels: channels with a few clients each
+	 * @param size Number of channels
+	 */
+	static byte[] channels(int size) {
+		Random random = new Random(size);
+		JSONArray channels = new JSONArray();
+		for (int i = 0; i < size; i++) {
+			JSONObject channel = new JSONObject();
+			channel.put("id", i + 1);
+			channel.put("parent", i < 10 ? 0 : 1 + random.nextInt(10));
+			channel.put("name", words(random, 2));
+			channel.put("topic", words(random, 4));
+			channel.put("codec", 4);
+			channel.put("quality", 10);
+			channel.put("maxClients", -1);
+			channel.put("order", i);
+			channel.put("perm", true);
+			channel.put("sperm", false);
+			channel.put("default", i == 0);
+			channel.put("pw", random.nextInt(10) == 0);
+			channel.put("enc", 1);
+			JSONArray clients = new JSONArray();
+			for (int j = random.nextInt(4); j > 0; j--) {
+				JSONObject client = new JSONObject();
+				client.put("id", random.nextInt(100000));
+				client.put("uid", uuid(random));
+				client.put("nick", words(random, 1));
+				client.put("idle", random.nextInt(600000));
+				client.put("recording", false);
+				client.put("outputMuted", random.nextBoolean());
+				client.put("outputOnlyMuted", false);
+				client.put("inputMuted", random.nextBoolean());
+				client.put("away", false);
+				clients.put(client);
+			}
+			channel.put("clients", clients);
+			channels.put(channel);
+		}
+		return bytes(channels);
+	}
+
+	/**
+	 * Response of getInstances
+	 * @param size Number of instances
+	 */
+	static byte[] instances(int size) {
+		Random random = new Random(size);
+		JSONArray instances = new JSONArray();
+		for (int i = 0; i < size; i++) {
+			JSONObject instance = new JSONObject();
+			instance.put("uuid", uuid(random));
+			instance.put("nick", words(random, 1) + " bot");
+			instance.put("name", words(random, 2));
+			instance.put("running", random.nextBoolean());
+			instance.put("mainInstance", i == 0);
+			instance.put("licenseID", "");
+			instance.put("backend", "ts3");
+			instances.put(instance);
+		}
+		return bytes(instances);
+	}
+
+	/**
+	 * Response of getStatus for a playing instance
+	 */
+	static byte[] status() {
+		Random random = new Random(1);
+		JSONObject track = new JSONArray(new String(files(2), StandardCharsets.UTF_8)).getJSONObject(1);
+		JSONObject status = new JSONObject();
+		status.put("v", "1.0.0-beta.10");
+		status.put("currentTrack", track);
+		status.put("position", random.nextInt(120000));
+		status.put("running", true);
+		status.put("playing", true);
+		status.put("shuffle", false);
+		status.put("repeat", false);
+		status.put("volume", 50);
+		status.put("needsRestart", false);
+		status.put("playlist", "");
+		status.put("playlistTrack", -1);
+		status.put("queueLen", 0);
+		status.put("queueVersion", 0);
+		status.put("modes", 0);
+		status.put("downloaded", 0);
+		status.put("serverUID", uuid(random));
+		status.put("flags", 0);
+		status.put("muted", false);
+		return bytes(status);
+	}
+
+	private static String uuid(Random random) {
+		return new UUID(random.nextLong(), random.nextLong()).toString();
+	}
+
+	private static String words(Random random, int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0)
+				sb.append(' ');
+			sb.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return sb.toString();
+	}
+
+	private static byte[] bytes(Object json) {
+		return json.toString().getBytes(StandardCharsets.UTF_8);
+	}
+}
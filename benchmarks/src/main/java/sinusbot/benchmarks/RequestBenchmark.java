@@ -0,0 +1,80 @@
+package sinusbot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sinusbot.JsonWriter;
+import sinusbot.Metrics;
+import sinusbot.SinusbotAPI;
+
+/**
+ * Cost of a call on the client side: URL and JSON body construction, token handling and decoding of a small response.
+ * The transport answers from memory, so everything measured happens inside the client.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBenchmark {
+	private static final String INSTANCE = "6421eae5-6d3d-4a4a-9ad3-1d6c5f6c7a5e";
+	private static final String FILE = "0b5e1f6c-27d2-4b6d-a4a1-7d1c4e0c9f3b";
+
+	/** Recording metrics, compare both runs for their overhead */
+	@Param({ "false", "true" })
+	public boolean metrics;
+
+	private SinusbotAPI api;
+
+	@Setup
+	public void setup() {
+		CannedTransport transport = new CannedTransport()
+				.respond("POST", "/bot/i/" + INSTANCE + "/status", Payloads.status());
+		api = new SinusbotAPI("127.0.0.1", 8087, "admin", "password", "botId", transport);
+		if (metrics)
+			api.setMetrics(new Metrics());
+	}
+
+	/** Body encoding only */
+	@Benchmark
+	public byte[] encodeBody() {
+		return JsonWriter.object()
+				.field("title", "Never Gonna Give You Up")
+				.field("artist", "Rick \"Astley\"")
+				.field("album", "Whenever You Need Somebody")
+				.field("volume", 50)
+				.field("shuffle", Boolean.TRUE)
+				.toByteArray();
+	}
+
+	/** POST with a path parameter and a short body */
+	@Benchmark
+	public JSONObject say() {
+		return api.say(INSTANCE, "Hello \"world\", this is a test", "en");
+	}
+
+	/** PATCH with several body fields */
+	@Benchmark
+	public JSONObject updateFile() {
+		return api.updateFile(FILE, "Never Gonna Give You Up", "Rick Astley", "Whenever You Need Somebody", null);
+	}
+
+	/** Status request decoded into a record */
+	@Benchmark
+	public SinusbotAPI.InstanceStatus getStatusTyped() {
+		return api.getStatusTyped(INSTANCE);
+	}
+}
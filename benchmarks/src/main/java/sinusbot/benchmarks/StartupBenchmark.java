@@ -0,0 +1,83 @@
+package sinusbot.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sinusbot.HttpClientTransport;
+import sinusbot.SinusbotAPI;
+import sinusbot.stub.Latency;
+import sinusbot.stub.SinusbotStub;
+
+/**
+ * Cold start of a client in a fresh JVM, measured once per fork: creating the client and the first call including
+ * class loading, login and opening the connection. The latency parameter is added by the stub to every request,
+ * like a Sinusbot in another datacenter. The stub runs in the same JVM, so the classes it shares with the client,
+ * e.g. org.json, are loaded before the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+	private static final String INSTANCE = "6421eae5-6d3d-4a4a-9ad3-1d6c5f6c7a5e";
+
+	@Param({ "0", "20" })
+	public int latencyMillis;
+
+	private SinusbotStub stub;
+
+	@Setup
+	public void setup() throws IOException {
+		stub = new SinusbotStub()
+				.addInstance(INSTANCE, "benchmark")
+				.fixture("getStatus", new String(Payloads.status(), StandardCharsets.UTF_8))
+				.start();
+		stub.faults().latency(Latency.fixed(Duration.ofMillis(latencyMillis)));
+	}
+
+	@TearDown
+	public void tearDown() {
+		stub.close();
+	}
+
+	/** Constructor that logs in before it returns */
+	@Benchmark
+	public SinusbotAPI createEager() {
+		return new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "botId", new HttpClientTransport());
+	}
+
+	/** Client that logs in with its first call */
+	@Benchmark
+	public SinusbotAPI createLazy() {
+		return SinusbotAPI.lazy("127.0.0.1", stub.port(), "admin", "password", "botId", new HttpClientTransport());
+	}
+
+	/** Time to the first result with the logging in constructor */
+	@Benchmark
+	public SinusbotAPI.InstanceStatus firstCallEager() {
+		return new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "botId", new HttpClientTransport()).getStatusTyped(INSTANCE);
+	}
+
+	/** Time to the first result with a lazy client, the first call logs in */
+	@Benchmark
+	public SinusbotAPI.InstanceStatus firstCallLazy() {
+		return SinusbotAPI.lazy("127.0.0.1", stub.port(), "admin", "password", "botId", new HttpClientTransport()).getStatusTyped(INSTANCE);
+	}
+}
@@ -0,0 +1,280 @@
+package sinusbot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.json.JSONObject;
+
+/**
+ * Live audio WebStream of an instance, shared by any number of local consumers.
+ * A single thread copies the stream from the network into one ring buffer, every consumer reads
+ * from that buffer at its own position, so the audio is received once however many consumers there
+ * are. Consumers falling behind by more than the buffer size skip the overwritten audio instead of
+ * holding up the others.
+ */
+public class AudioStream implements Closeable {
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+	private static final int CHUNK_SIZE = 16 * 1024;
+
+	private final ReadableByteChannel source;
+	private final ByteBuffer ring;
+	private final int capacity;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition written = lock.newCondition();
+	private final List<Consumer> consumers = new ArrayList<>();
+	private final Thread reader;
+	private long writePosition;
+	private boolean ended;
+	private IOException failure;
+
+	/**
+	 * Requests a stream token and opens the audio stream of an instance with a 1 MiB buffer
+	 * @param api Connection to the sinusbot
+	 * @param instanceId uuid of the instance
+	 * @return The running stream, close it when it is no longer needed
+	 * @throws IOException If no token could be obtained or the stream could not be opened
+	 */
+	public static AudioStream open(SinusbotAPI api, String instanceId) throws IOException {
+		return open(api, instanceId, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Requests a stream token and opens the audio stream of an instance
+	 * @param api Connection to the sinusbot
+	 * @param instanceId uuid of the instance
+	 * @param bufferSize Size of the ring buffer in bytes, how far consumers may fall behind
+	 * @return The running stream, close it when it is no longer needed
+	 * @throws IOException If no token could be obtained or the stream could not be opened
+	 */
+	public static AudioStream open(SinusbotAPI api, String instanceId, int bufferSize) throws IOException {
+		JSONObject tokenObj = api.getStreamToken(instanceId);
+		if (tokenObj == null || !tokenObj.has("token"))
+			throw new IOException("Could not get a stream token for instance " + instanceId);
+		InputStream in = api.getStream(instanceId, tokenObj.getString("token"));
+		if (in == null)
+			throw new IOException("Could not open the stream of instance " + instanceId);
+		return new AudioStream(Channels.newChannel(in), bufferSize);
+	}
+
+	/**
+	 * Starts reading from a channel on a new daemon thread
+	 * @param source Channel delivering the audio, closed together with this stream
+	 * @param bufferSize Size of the ring buffer in bytes, at least twice the internal chunk size of 16 KiB
+	 */
+	public AudioStream(ReadableByteChannel source, int bufferSize) {
+		if (bufferSize < 2 * CHUNK_SIZE)
+			throw new IllegalArgumentException("bufferSize must be at least " + 2 * CHUNK_SIZE);
+		this.source = source;
+		this.ring = ByteBuffer.allocateDirect(bufferSize);
+		this.capacity = bufferSize;
+		this.reader = new Thread(this::pump, "sinusbot-audio-stream");
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	/**
+	 * Adds a consumer that reads the stream from now on
+	 * @return Channel of the new consumer, close it to stop consuming
+	 */
+	public Consumer subscribe() {
+		lock.lock();
+		try {
+			Consumer consumer = new Consumer(writePosition);
+			consumers.add(consumer);
+			return consumer;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return Number of bytes received from the network so far
+	 */
+	public long received() {
+		lock.lock();
+		try {
+			return writePosition;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stops reading from the network, consumers still receive the buffered audio and then reach the end of the stream.
+	 * Waits until the reading thread has finished its current read and closed the source, the source is not safe to
+	 * close while it is being read. Live audio arrives continuously, a stalled stream of a HttpClientTransport ends
+	 * with its read timeout.
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.lock();
+		try {
+			ended = true;
+			written.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		if (Thread.currentThread() == reader)
+			return;
+		try {
+			reader.join();
+		} catch (InterruptedException e) {
+			// The reading thread still closes the source when its read returns
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void pump() {
+		IOException error = null;
+		try {
+			while (true) {
+				int offset;
+				lock.lock();
+				try {
+					if (ended)
+						break;
+					offset = (int) (writePosition % capacity);
+					// The chunk about to be written overwrites the oldest data, move lagging consumers past it
+					long oldestKept = writePosition + CHUNK_SIZE - capacity;
+					for (Consumer consumer : consumers)
+						if (consumer.position < oldestKept) {
+							consumer.dropped += oldestKept - consumer.position;
+							consumer.position = oldestKept;
+						}
+				} finally {
+					lock.unlock();
+				}
+				// Read outside the lock, no consumer reads this region until writePosition has advanced
+				ByteBuffer target = ring.duplicate();
+				target.limit(Math.min(offset + CHUNK_SIZE, capacity)).position(offset);
+				int n = source.read(target);
+				if (n < 0)
+					break;
+				lock.lock();
+				try {
+					writePosition += n;
+					written.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+		} catch (ClosedChannelException e) {
+			// Closed by the owner of the channel
+		} catch (IOException e) {
+			error = e;
+		} finally {
+			try {
+				source.close();
+			} catch (IOException e) {
+				// Already ended
+			}
+			lock.lock();
+			try {
+				// A failure after close() is only the stream being torn down
+				if (!ended)
+					failure = error;
+				ended = true;
+				written.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Reads the shared stream at its own position
+	 */
+	public final class Consumer implements ReadableByteChannel {
+		private long position;
+		private long dropped;
+		private boolean open = true;
+
+		private Consumer(long position) {
+			this.position = position;
+		}
+
+		/**
+		 * Copies the next available audio into the buffer, waiting until audio is available
+		 * @return Number of bytes read, -1 at the end of the stream
+		 */
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			lock.lock();
+			try {
+				while (open && position == writePosition && !ended)
+					written.await();
+				if (!open)
+					throw new ClosedChannelException();
+				if (position == writePosition) {
+					if (failure != null)
+						throw new IOException("Audio stream failed", failure);
+					return -1;
+				}
+				int offset = (int) (position % capacity);
+				int n = (int) Math.min(Math.min(writePosition - position, capacity - offset), dst.remaining());
+				ByteBuffer src = ring.duplicate();
+				src.limit(offset + n).position(offset);
+				dst.put(src);
+				position += n;
+				return n;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ClosedChannelException();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * @return Blocking InputStream over this consumer
+		 */
+		public InputStream asInputStream() {
+			return Channels.newInputStream(this);
+		}
+
+		/**
+		 * @return Number of bytes skipped because this consumer fell behind by more than the buffer size
+		 */
+		public long dropped() {
+			lock.lock();
+			try {
+				return dropped;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public boolean isOpen() {
+			lock.lock();
+			try {
+				return open;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void close() {
+			lock.lock();
+			try {
+				if (open) {
+					open = false;
+					consumers.remove(this);
+					written.signalAll();
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+}
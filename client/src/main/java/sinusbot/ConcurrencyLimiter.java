@@ -0,0 +1,261 @@
+package sinusbot;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Adaptive limit of the concurrent requests sent to one sinusbot, see {@link SinusbotAPI#setLimiter(ConcurrencyLimiter)}.
+ * Share one limiter between all SinusbotAPI instances connected to the same host.
+ * <p>
+ * The limit is adjusted with AIMD: it grows by one per limit's worth of fast responses while it is
+ * in use and shrinks by a constant factor when a response takes much longer than the lowest latency
+ * seen recently for the same endpoint or times out. Each endpoint has its own baseline, so slow bulk reads do not
+ * count as congestion for fast playback control. Requests over the limit wait in a bounded queue with priority lanes,
+ * playback control is served before regular calls and those before bulk reads.
+ * A request is rejected right away when the queue is full and after waiting too long.
+ */
+public class ConcurrencyLimiter {
+	public enum Priority {
+		/** Playback control, e.g. pause, stop and playNext */
+		HIGH,
+		NORMAL,
+		/** Bulk reads like the file list and logs, uploads */
+		LOW
+	}
+
+	private static final double BACKOFF = 0.9;
+	private static final double TOLERANCE = 2.0;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final int maxQueued;
+	private final long maxWait;
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private final ArrayDeque<Waiter>[] lanes = new ArrayDeque[Priority.values().length];
+	private double limit;
+	private int inflight;
+	private int queued;
+	// Lowest recent latency per endpoint, in nanoseconds
+	private final Map<String, double[]> baselines = new HashMap<>();
+	private long lastDecrease = System.nanoTime();
+
+	/**
+	 * Creates a limiter starting at 8 concurrent requests, adapting between 1 and 64, with 256 queued requests waiting up to 10 seconds
+	 */
+	public ConcurrencyLimiter() {
+		this(8, 1, 64, 256, Duration.ofSeconds(10));
+	}
+
+	/**
+	 * @param initialLimit Concurrent requests allowed at first
+	 * @param minLimit Lowest the limit decreases to
+	 * @param maxLimit Highest the limit increases to
+	 * @param maxQueued Maximum number of requests waiting for the limit, further requests are rejected
+	 * @param maxWait Maximum time a request waits in the queue before it is rejected
+	 */
+	public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueued, Duration maxWait) {
+		if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit)
+			throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+		if (maxQueued < 0)
+			throw new IllegalArgumentException("maxQueued must not be negative");
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.maxQueued = maxQueued;
+		this.maxWait = maxWait.toNanos();
+		for (int i = 0; i < lanes.length; i++)
+			lanes[i] = new ArrayDeque<>();
+	}
+
+	/**
+	 * @param endpoint Name of the API function
+	 * @return Queue lane of the function
+	 */
+	public static Priority priority(String endpoint) {
+		return Endpoints.of(endpoint).priority();
+	}
+
+	/**
+	 * @return Current number of concurrent requests allowed
+	 */
+	public synchronized int limit() {
+		return (int) limit;
+	}
+
+	/**
+	 * @return Number of requests sent and not completed yet
+	 */
+	public synchronized int inflight() {
+		return inflight;
+	}
+
+	/**
+	 * @return Number of requests waiting for the limit
+	 */
+	public synchronized int queued() {
+		return queued;
+	}
+
+	/**
+	 * Sends a request once the limit allows it.
+	 * The latency is measured until the response headers have arrived, the slot is freed when the returned stream is closed.
+	 * @param endpoint Name of the API function, determines the priority
+	 * @param request Sends the request
+	 * @throws RejectedException If the queue is full or the request waited too long
+	 */
+	InputStream send(String endpoint, Request request) throws IOException {
+		Endpoints.Endpoint descriptor = Endpoints.of(endpoint);
+		if (descriptor.streaming())
+			return request.send();
+		acquire(descriptor.priority());
+		long start = System.nanoTime();
+		InputStream in;
+		try {
+			in = request.send();
+		} catch (IOException | RuntimeException e) {
+			if (e instanceof HttpTimeoutException || e instanceof SocketTimeoutException) {
+				release(endpoint, start, -1);
+			} else if (e instanceof InterruptedIOException || Thread.currentThread().isInterrupted()) {
+				// An interrupted request has been cancelled, e.g. the slower one of a hedged pair, and says nothing about the sinusbot
+				free();
+			} else {
+				release(endpoint, start, 0);
+			}
+			throw e;
+		}
+		long latency = Math.max(System.nanoTime() - start, 1);
+		return new FilterInputStream(in) {
+			private boolean released;
+
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					if (!released) {
+						released = true;
+						release(endpoint, start, latency);
+					}
+				}
+			}
+		};
+	}
+
+	private void acquire(Priority priority) throws IOException {
+		Waiter waiter;
+		synchronized (this) {
+			if (inflight < (int) limit && queued == 0) {
+				inflight++;
+				return;
+			}
+			if (queued >= maxQueued)
+				throw new RejectedException("Request rejected, " + queued + " requests are already waiting");
+			waiter = new Waiter(Thread.currentThread());
+			lanes[priority.ordinal()].addLast(waiter);
+			queued++;
+		}
+		long deadline = System.nanoTime() + maxWait;
+		while (!waiter.granted) {
+			long remaining = deadline - System.nanoTime();
+			boolean interrupted = Thread.interrupted();
+			if (remaining <= 0 || interrupted) {
+				synchronized (this) {
+					if (waiter.granted) {
+						// Granted just before the interrupt, the caller still has to see it
+						if (interrupted)
+							Thread.currentThread().interrupt();
+						return;
+					}
+					lanes[priority.ordinal()].remove(waiter);
+					queued--;
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for the concurrency limit");
+				}
+				throw new RejectedException("Request rejected after waiting " + Duration.ofNanos(maxWait).toMillis() + "ms");
+			}
+			LockSupport.parkNanos(this, remaining);
+		}
+	}
+
+	/**
+	 * @param endpoint Name of the API function, latencies are compared to the baseline of the function
+	 * @param latency Time until the response arrived, 0 if the request failed and negative if it timed out
+	 */
+	private synchronized void release(String endpoint, long start, long latency) {
+		if (latency != 0) {
+			double[] baseline = baselines.computeIfAbsent(endpoint, k -> new double[] { Double.MAX_VALUE });
+			if (latency > 0 && latency < baseline[0])
+				baseline[0] = latency;
+			else if (latency > 0)
+				baseline[0] += (latency - baseline[0]) / 256; // Let the baseline follow lasting changes slowly
+			if (latency < 0 || latency > baseline[0] * TOLERANCE) {
+				// Only decrease once for all requests that were sent before the previous decrease
+				if (start > lastDecrease) {
+					limit = Math.max(minLimit, limit * BACKOFF);
+					lastDecrease = System.nanoTime();
+				}
+			} else if (inflight >= (int) limit / 2) {
+				limit = Math.min(maxLimit, limit + 1 / limit);
+			}
+		}
+		free();
+	}
+
+	/**
+	 * Frees the slot of a request without taking its outcome into account and lets waiting requests take it
+	 */
+	private synchronized void free() {
+		inflight--;
+		while (inflight < (int) limit && queued > 0) {
+			for (ArrayDeque<Waiter> lane : lanes) {
+				Waiter waiter = lane.pollFirst();
+				if (waiter != null) {
+					queued--;
+					inflight++;
+					waiter.granted = true;
+					LockSupport.unpark(waiter.thread);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Request passed through the limiter
+	 */
+	@FunctionalInterface
+	interface Request {
+		InputStream send() throws IOException;
+	}
+
+	/**
+	 * Thrown if a request is not sent because too many requests are waiting
+	 */
+	public static class RejectedException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		public RejectedException(String message) {
+			super(message);
+		}
+	}
+
+	private static final class Waiter {
+		final Thread thread;
+		volatile boolean granted;
+
+		Waiter(Thread thread) {
+			this.thread = thread;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package sinusbot;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import sinusbot.ConcurrencyLimiter.Priority;
+
+/**
+ * Metadata of every API function, generated by parser.py from the API documentation.
+ * Caching, coalescing, retries, the concurrency limiter and metrics are driven by this table, so a regenerated client
+ * applies them to new endpoints as well.
+ */
+public final class Endpoints {
+	private static final Map<String, Endpoint> ENDPOINTS = Stream.of(
+			new Endpoint("avatarDelete", "DELETE", "/bot/i/:instanceId/avatar", false, true, false, List.of("getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("avatarUpload", "POST", "/bot/i/:instanceId/avatar", false, false, false, List.of("getStatus"), Shape.OBJECT, Priority.LOW),
+			new Endpoint("addUrl", "POST", "/bot/url", false, false, false, List.of("getFiles"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("createFolder", "POST", "/bot/folders", false, false, false, List.of("getFiles"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("deleteFile", "DELETE", "/bot/files/:id", false, true, false, List.of("getFiles", "getQueue"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getFiles", "GET", "/bot/files", true, true, true, List.of(), Shape.ARRAY, Priority.LOW),
+			new Endpoint("updateFile", "PATCH", "/bot/files/:id", false, true, false, List.of("getFiles", "getQueue"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("uploadFile", "POST", "/bot/upload", false, false, false, List.of("getFiles"), Shape.OBJECT, Priority.LOW),
+			new Endpoint("uploadInfo", "GET", "/bot/uploadInfo", true, true, true, List.of(), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("botInfo", "GET", "/bot/info", true, true, true, List.of(), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("login", "POST", "/bot/login", false, false, false, List.of(), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("createInstance", "POST", "/bot/instances", false, false, false, List.of("getInstances"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("deleteInstance", "DELETE", "/bot/instances", false, true, false, List.of("getInstances"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getInstances", "GET", "/bot/instances", true, true, true, List.of(), Shape.ARRAY, Priority.NORMAL),
+			new Endpoint("getSettings", "POST", "/bot/i/:instanceId/settings", false, false, false, List.of("getInstances", "getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getStatus", "POST", "/bot/i/:instanceId/status", true, true, true, List.of(), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("kill", "POST", "/bot/i/:instanceId/kill", false, false, false, List.of("getInstances", "getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("respawn", "POST", "/bot/i/:instanceId/respawn", false, false, false, List.of("getInstances", "getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("spawn", "POST", "/bot/i/:instanceId/spawn", false, false, false, List.of("getInstances", "getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getBotLog", "GET", "/bot/log", true, true, true, List.of(), Shape.ARRAY, Priority.LOW),
+			new Endpoint("getInstanceLog", "GET", "/bot/i/:instanceId/log", true, true, true, List.of(), Shape.ARRAY, Priority.LOW),
+			new Endpoint("decreaseVolume", "POST", "/bot/i/:instanceId/volume/down", false, false, false, List.of("getStatus"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("increaseVolume", "POST", "/bot/i/:instanceId/volume/up", false, false, false, List.of("getStatus"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("pause", "POST", "/bot/i/:instanceId/pause", false, false, false, List.of("getStatus"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("playById", "POST", "/bot/i/:instanceId/play/byId/:id", false, false, false, List.of("getQueue", "getStatus", "recentTracks"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("playByList", "POST", "/bot/i/:instanceId/play/byList/:playlistId/:index", false, false, false, List.of("getQueue", "getStatus", "recentTracks"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("playUrl", "POST", "/bot/i/:instanceId/playUrl", false, false, false, List.of("getQueue", "getStatus", "recentTracks"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("recentTracks", "GET", "/bot/i/:instanceId/recent", true, true, true, List.of(), Shape.OBJECT, Priority.LOW),
+			new Endpoint("say", "POST", "/bot/i/:instanceId/say", false, false, false, List.of("getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("seek", "POST", "/bot/i/:instanceId/seek/:val", false, true, false, List.of("getStatus"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("setMute", "POST", "/bot/i/:instanceId/mute/:val", false, true, false, List.of("getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("setVolume", "POST", "/bot/i/:instanceId/volume/set/:volume", false, true, false, List.of("getStatus"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("stop", "POST", "/bot/i/:instanceId/stop", false, true, false, List.of("getQueue", "getStatus"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("playNext", "POST", "/bot/i/:instanceId/playNext", false, false, false, List.of("getQueue", "getStatus", "recentTracks"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("playPrevious", "POST", "/bot/i/:instanceId/playPrevious", false, false, false, List.of("getQueue", "getStatus", "recentTracks"), Shape.OBJECT, Priority.HIGH),
+			new Endpoint("setRepeat", "POST", "/bot/i/:instanceId/repeat/:val", false, true, false, List.of("getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("setShuffle", "POST", "/bot/i/:instanceId/shuffle/:val", false, true, false, List.of("getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("appendQueue", "POST", "/bot/i/:instanceId/queue/append/:uuid", false, false, false, List.of("getQueue", "getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getQueue", "GET", "/bot/i/:instanceId/queue", true, true, true, List.of(), Shape.ARRAY, Priority.NORMAL),
+			new Endpoint("prependQueue", "POST", "/bot/i/:instanceId/queue/prepend/:uuid", false, false, false, List.of("getQueue", "getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("removeFromQueue", "DELETE", "/bot/i/:instanceId/queue/:queuePos", false, false, false, List.of("getQueue", "getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getRadioStations", "PATCH", "/bot/stations", true, true, true, List.of(), Shape.ARRAY, Priority.NORMAL),
+			new Endpoint("getScripts", "GET", "/bot/scripts", true, true, true, List.of(), Shape.ARRAY, Priority.NORMAL),
+			new Endpoint("saveSettings", "POST", "/bot/i/:instanceId/scriptSettings", false, false, false, List.of("getScripts", "getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getStream", "GET", "/bot/i/:instanceId/stream/:token", true, true, false, List.of(), Shape.RAW, Priority.NORMAL),
+			new Endpoint("getStreamToken", "POST", "/bot/i/:instanceId/streamToken", false, false, false, List.of("getStatus"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getChannels", "GET", "/bot/i/:instanceId/channels", true, true, true, List.of(), Shape.ARRAY, Priority.NORMAL),
+			new Endpoint("addJob", "POST", "/bot/jobs", false, false, false, List.of("getJobs"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("cancelJob", "DELETE", "/bot/jobs/:jobId", false, true, false, List.of("getJobs"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("clearJobs", "DELETE", "/bot/jobs", false, true, false, List.of("getJobs"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getJobs", "GET", "/bot/jobs", true, true, true, List.of(), Shape.ARRAY, Priority.NORMAL),
+			new Endpoint("createUser", "POST", "/bot/users", false, false, false, List.of("getUsers"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("deleteUser", "DELETE", "/bot/users/:userId", false, true, false, List.of("getUsers"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("getUsers", "GET", "/bot/users", true, true, true, List.of(), Shape.ARRAY, Priority.NORMAL),
+			new Endpoint("updateInstanceUserPrivileges", "PATCH", "/bot/i/:instanceId/users/:userId", false, true, false, List.of("getStatus", "getUsers"), Shape.OBJECT, Priority.NORMAL),
+			new Endpoint("updateUser", "PATCH", "/bot/users/:userId", false, true, false, List.of("getUsers"), Shape.OBJECT, Priority.NORMAL)
+	).collect(Collectors.toUnmodifiableMap(Endpoint::name, Function.identity()));
+
+	/**
+	 * Shape of the response body
+	 */
+	public enum Shape {
+		OBJECT,
+		ARRAY,
+		/** Not JSON, e.g. the audio stream */
+		RAW
+	}
+
+	/**
+	 * @param name Name of the API function, e.g. getFiles
+	 * @param method HTTP method
+	 * @param path Path template below the API url without the query, e.g. /bot/i/:instanceId/status
+	 * @param read True if the function only reads, identical concurrent calls are coalesced into one request
+	 * @param idempotent True if sending the request twice has the same effect as sending it once, it is repeated after a connection failure
+	 * @param cacheable True if responses may be cached by a {@link ResponseCache}
+	 * @param invalidates Cacheable functions whose responses become stale when this function is called
+	 * @param shape Shape of the response
+	 * @param priority Queue of the {@link ConcurrencyLimiter}
+	 */
+	public record Endpoint(String name, String method, String path, boolean read, boolean idempotent, boolean cacheable,
+			List<String> invalidates, Shape shape, Priority priority) {
+		/**
+		 * @return Method and path template, e.g. "GET /bot/i/:instanceId/status", metrics are recorded per template
+		 */
+		public String template() {
+			return method + " " + path;
+		}
+
+		/**
+		 * @return True for long-lived responses like the audio stream, they do not count against the concurrency limit
+		 */
+		public boolean streaming() {
+			return shape == Shape.RAW;
+		}
+	}
+
+	private Endpoints() {
+	}
+
+	/**
+	 * @param name Name of the API function, e.g. getFiles
+	 * @return Metadata of the function, a function not in the documentation is treated as a mutation with normal priority
+	 */
+	public static Endpoint of(String name) {
+		Endpoint endpoint = ENDPOINTS.get(name);
+		return endpoint != null ? endpoint : new Endpoint(name, "POST", name, false, false, false, List.of(), Shape.OBJECT, Priority.NORMAL);
+	}
+
+	/**
+	 * @return Metadata of all API functions
+	 */
+	public static Collection<Endpoint> all() {
+		return ENDPOINTS.values();
+	}
+}
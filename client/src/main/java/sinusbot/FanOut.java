@@ -0,0 +1,49 @@
+package sinusbot;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Bounded parallel loop over indices, used by companion classes like FleetMonitor and Uploader
+ */
+final class FanOut {
+	private FanOut() {
+	}
+
+	/**
+	 * Calls the task for every index from 0 to count - 1, at most parallelism at a time, and returns when all are done.
+	 * The calling thread takes indices as well, so only parallelism - 1 workers are handed to the executor.
+	 * @param count Number of indices
+	 * @param parallelism Maximum number of concurrent calls
+	 * @param executor Runs the additional workers
+	 * @param task Called once per index, from any of the workers
+	 * @throws RuntimeException The first exception thrown by the task, the other workers finish their indices first
+	 */
+	static void forEach(int count, int parallelism, Executor executor, IntConsumer task) {
+		AtomicInteger next = new AtomicInteger();
+		Runnable worker = () -> {
+			for (int i; (i = next.getAndIncrement()) < count;)
+				task.accept(i);
+		};
+		CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.max(Math.min(parallelism, count) - 1, 0)];
+		for (int i = 0; i < workers.length; i++)
+			workers[i] = CompletableFuture.runAsync(worker, executor);
+		RuntimeException failure = null;
+		try {
+			worker.run();
+		} catch (RuntimeException e) {
+			failure = e;
+		}
+		try {
+			CompletableFuture.allOf(workers).join();
+		} catch (CompletionException e) {
+			if (failure == null)
+				failure = e.getCause() instanceof RuntimeException r ? r : e;
+		}
+		if (failure != null)
+			throw failure;
+	}
+}
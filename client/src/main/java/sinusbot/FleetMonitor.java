@@ -0,0 +1,200 @@
+package sinusbot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Takes snapshots of the status of all instances of a sinusbot.
+ * The getStatus requests of a snapshot are sent in parallel, at most {@code parallelism} at a time,
+ * on the executor of the API (see {@link SinusbotAPI#setExecutor(java.util.concurrent.Executor)}).
+ * Registered listeners only receive the changes between two successive snapshots.
+ */
+public class FleetMonitor {
+	public enum ChangeType {
+		/** Instance has been created */
+		ADDED,
+		/** Instance has been deleted */
+		REMOVED,
+		/** Another track is loaded */
+		TRACK,
+		VOLUME,
+		/** Playback has started */
+		PLAYING,
+		/** Playback has stopped or paused */
+		STOPPED
+	}
+
+	/**
+	 * Receives the changes of each snapshot, called on the thread taking the snapshot
+	 */
+	@FunctionalInterface
+	public interface Listener {
+		/**
+		 * @param snapshot The new snapshot
+		 * @param changes Changes since the previous snapshot, never empty
+		 */
+		void onChanges(Snapshot snapshot, List<Change> changes);
+	}
+
+	private final SinusbotAPI api;
+	private final int parallelism;
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	// Last successfully loaded status of every instance, so failed requests do not show up as changes
+	private final Map<String, SinusbotAPI.InstanceStatus> known = new HashMap<>();
+	private volatile Snapshot last;
+
+	/**
+	 * @param api Connection to the sinusbot
+	 * @param parallelism Maximum number of concurrent getStatus requests
+	 */
+	public FleetMonitor(SinusbotAPI api, int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be positive");
+		this.api = api;
+		this.parallelism = parallelism;
+	}
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @return The most recent snapshot, null if none has been taken yet
+	 */
+	public Snapshot last() {
+		return last;
+	}
+
+	/**
+	 * Loads the instance list and the status of every instance, then notifies the listeners of the changes
+	 * @return The new snapshot, null if the instance list could not be loaded
+	 */
+	public synchronized Snapshot snapshot() {
+		List<SinusbotAPI.Instance> instances = api.getInstancesTyped();
+		if (instances == null)
+			return null;
+
+		SinusbotAPI.InstanceStatus[] statuses = new SinusbotAPI.InstanceStatus[instances.size()];
+		FanOut.forEach(statuses.length, parallelism, api.executor(), i -> statuses[i] = api.getStatusTyped(instances.get(i).uuid()));
+
+		Map<String, SinusbotAPI.Instance> byId = new LinkedHashMap<>();
+		Map<String, SinusbotAPI.InstanceStatus> statusById = new HashMap<>();
+		for (int i = 0; i < statuses.length; i++) {
+			byId.put(instances.get(i).uuid(), instances.get(i));
+			if (statuses[i] != null)
+				statusById.put(instances.get(i).uuid(), statuses[i]);
+		}
+		Snapshot snapshot = new Snapshot(System.currentTimeMillis(), byId, statusById);
+
+		List<Change> changes = diff(snapshot);
+		last = snapshot;
+		if (!changes.isEmpty()) {
+			List<Change> unmodifiable = Collections.unmodifiableList(changes);
+			for (Listener listener : listeners) {
+				try {
+					listener.onChanges(snapshot, unmodifiable);
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	private List<Change> diff(Snapshot snapshot) {
+		List<Change> changes = new ArrayList<>();
+		Snapshot previous = last;
+		if (previous != null) {
+			for (String id : previous.instances.keySet())
+				if (!snapshot.instances.containsKey(id))
+					changes.add(new Change(id, ChangeType.REMOVED, known.get(id), null));
+		}
+		known.keySet().retainAll(snapshot.instances.keySet());
+
+		for (String id : snapshot.instances.keySet()) {
+			SinusbotAPI.InstanceStatus after = snapshot.statuses.get(id);
+			if (previous != null && !previous.instances.containsKey(id))
+				changes.add(new Change(id, ChangeType.ADDED, null, after));
+			if (after == null)
+				continue;
+			SinusbotAPI.InstanceStatus before = known.put(id, after);
+			if (before == null)
+				continue;
+			if (!Objects.equals(trackKey(before.currentTrack()), trackKey(after.currentTrack())))
+				changes.add(new Change(id, ChangeType.TRACK, before, after));
+			if (before.volume() != after.volume())
+				changes.add(new Change(id, ChangeType.VOLUME, before, after));
+			if (before.playing() != after.playing())
+				changes.add(new Change(id, after.playing() ? ChangeType.PLAYING : ChangeType.STOPPED, before, after));
+		}
+		return changes;
+	}
+
+	/**
+	 * Identifies a track by uuid, tracks without one (e.g. streams) by url
+	 */
+	private static String trackKey(SinusbotAPI.CurrentTrack track) {
+		if (track == null)
+			return null;
+		return track.uuid() != null && !track.uuid().isEmpty() ? track.uuid() : track.url();
+	}
+
+	/**
+	 * Immutable state of all instances at one point in time
+	 */
+	public static final class Snapshot {
+		private final long timestamp;
+		private final Map<String, SinusbotAPI.Instance> instances;
+		private final Map<String, SinusbotAPI.InstanceStatus> statuses;
+
+		Snapshot(long timestamp, Map<String, SinusbotAPI.Instance> instances, Map<String, SinusbotAPI.InstanceStatus> statuses) {
+			this.timestamp = timestamp;
+			this.instances = Collections.unmodifiableMap(instances);
+			this.statuses = Collections.unmodifiableMap(statuses);
+		}
+
+		/**
+		 * @return Time the snapshot has been completed in milliseconds since the epoch
+		 */
+		public long timestamp() {
+			return timestamp;
+		}
+
+		/**
+		 * @return Instances by uuid, in the order of the instance list
+		 */
+		public Map<String, SinusbotAPI.Instance> instances() {
+			return instances;
+		}
+
+		/**
+		 * @param instanceId uuid of the instance
+		 * @return Status of the instance, null if unknown or its status could not be loaded
+		 */
+		public SinusbotAPI.InstanceStatus status(String instanceId) {
+			return statuses.get(instanceId);
+		}
+	}
+
+	/**
+	 * Change of one instance between two snapshots
+	 * @param before Last known status before the change, null for added instances
+	 * @param after Status after the change, null for removed instances
+	 */
+	public record Change(String instanceId, ChangeType type, SinusbotAPI.InstanceStatus before, SinusbotAPI.InstanceStatus after) {
+		@Override
+		public String toString() {
+			return instanceId + " " + type;
+		}
+	}
+}
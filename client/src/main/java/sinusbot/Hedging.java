@@ -0,0 +1,310 @@
+package sinusbot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in hedged requests for idempotent reads like getStatus and getQueue, see {@link SinusbotAPI#setHedging(Hedging)}.
+ * If a read has not been answered within a percentile of the recent latency of its endpoint, an identical request is
+ * sent. The first response is used and the other request is cancelled, which closes its connection.
+ * Every read adds a fraction of a hedge to a budget and every hedge takes a whole one, so hedges stay below that
+ * fraction of the reads even when the sinusbot slows down and most reads would qualify.
+ */
+public class Hedging {
+	// Latencies kept per endpoint, the delay is the percentile of these
+	private static final int WINDOW = 256;
+	private static final int MIN_SAMPLES = 32;
+	private static final int RECOMPUTE_EVERY = 16;
+	// Hedges that can be saved up while reads are fast
+	private static final double MAX_BUDGET = 10;
+
+	private final double percentile;
+	private final double ratio;
+	private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+	private double budget;
+
+	/**
+	 * @param percentile Percentile of the recent latency after which a read is hedged, e.g. 95
+	 * @param maxHedgeRatio Maximum hedges per read, e.g. 0.05 for at most 5% additional requests
+	 */
+	public Hedging(double percentile, double maxHedgeRatio) {
+		if (percentile <= 0 || percentile >= 100)
+			throw new IllegalArgumentException("percentile must be between 0 and 100");
+		if (maxHedgeRatio < 0 || maxHedgeRatio > 1)
+			throw new IllegalArgumentException("maxHedgeRatio must be between 0 and 1");
+		this.percentile = percentile;
+		this.ratio = maxHedgeRatio;
+	}
+
+	/**
+	 * @return Counters per hedged endpoint, sorted by endpoint name
+	 */
+	public Map<String, Stats> stats() {
+		return new TreeMap<>(stats);
+	}
+
+	/**
+	 * Sends a request, hedged if the endpoint is an idempotent read and enough latencies have been seen
+	 * @param endpoint Name of the API function
+	 * @param request Sends the request through the limiter and metrics, called a second time for the hedge
+	 * @param executor Runs the requests while the caller waits for the first response
+	 */
+	InputStream send(String endpoint, ConcurrencyLimiter.Request request, Executor executor) throws IOException {
+		if (!hedgeable(Endpoints.of(endpoint)))
+			return request.send();
+		Stats s = stats.computeIfAbsent(endpoint, k -> new Stats(percentile));
+		deposit();
+		long delay = s.delay;
+		if (delay <= 0) {
+			long start = System.nanoTime();
+			InputStream in = request.send();
+			s.record(System.nanoTime() - start);
+			return in;
+		}
+
+		Attempt primary = new Attempt(request, s);
+		executor.execute(primary);
+		try {
+			return primary.result.get(delay, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			// Hedge below
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		} catch (InterruptedException e) {
+			primary.cancel();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+		if (!withdraw()) {
+			s.denied.increment();
+			return await(primary);
+		}
+		s.hedged.increment();
+		Attempt hedge = new Attempt(request, s);
+		executor.execute(hedge);
+
+		// First successful response, or the last failure if both fail
+		CompletableFuture<Attempt> first = new CompletableFuture<>();
+		AtomicInteger failed = new AtomicInteger();
+		for (Attempt attempt : new Attempt[] { primary, hedge }) {
+			attempt.result.whenComplete((in, error) -> {
+				if (error == null)
+					first.complete(attempt);
+				else if (failed.incrementAndGet() == 2)
+					first.completeExceptionally(error);
+			});
+		}
+		Attempt winner;
+		try {
+			winner = first.get();
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		} catch (InterruptedException e) {
+			primary.cancel();
+			hedge.cancel();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+		if (winner == hedge) {
+			s.won.increment();
+			primary.cancel();
+		} else {
+			hedge.cancel();
+		}
+		return winner.result.join();
+	}
+
+	/**
+	 * @return True if calls of the function may be hedged
+	 */
+	static boolean hedgeable(Endpoints.Endpoint endpoint) {
+		return endpoint.read() && endpoint.idempotent() && !endpoint.streaming();
+	}
+
+	private static InputStream await(Attempt attempt) throws IOException {
+		try {
+			return attempt.result.get();
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		} catch (InterruptedException e) {
+			attempt.cancel();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+	}
+
+	private static IOException unwrap(ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof IOException io)
+			return io;
+		if (cause instanceof RuntimeException r)
+			throw r;
+		if (cause instanceof Error error)
+			throw error;
+		return new IOException(cause);
+	}
+
+	private synchronized void deposit() {
+		budget = Math.min(MAX_BUDGET, budget + ratio);
+	}
+
+	private synchronized boolean withdraw() {
+		if (budget < 1)
+			return false;
+		budget--;
+		return true;
+	}
+
+	/**
+	 * A request running on the executor, cancelling it interrupts the thread sending it.
+	 * A successful response records its latency. A request cancelled while it runs records the time it has run so far, a
+	 * lower bound of its latency, so the slow requests that lose to a hedge still move the delay up.
+	 */
+	private static final class Attempt implements Runnable {
+		final CompletableFuture<InputStream> result = new CompletableFuture<>();
+		private final ConcurrencyLimiter.Request request;
+		private final Stats stats;
+		private Thread thread;
+		private long start;
+		private boolean cancelled;
+
+		Attempt(ConcurrencyLimiter.Request request, Stats stats) {
+			this.request = request;
+			this.stats = stats;
+		}
+
+		@Override
+		public void run() {
+			synchronized (this) {
+				if (cancelled) {
+					result.cancel(false);
+					return;
+				}
+				thread = Thread.currentThread();
+				start = System.nanoTime();
+			}
+			InputStream in = null;
+			Exception error = null;
+			try {
+				in = request.send();
+			} catch (IOException | RuntimeException e) {
+				error = e;
+			}
+			boolean keep;
+			synchronized (this) {
+				thread = null;
+				keep = !cancelled;
+				// Clears an interrupt that arrived after the request completed, the thread goes back to the pool
+				Thread.interrupted();
+			}
+			if (error != null) {
+				result.completeExceptionally(error);
+			} else if (keep) {
+				stats.record(System.nanoTime() - start);
+				result.complete(in);
+			} else {
+				result.cancel(false);
+				closeQuietly(in);
+			}
+		}
+
+		void cancel() {
+			long running = -1;
+			synchronized (this) {
+				if (!cancelled && thread != null) {
+					running = System.nanoTime() - start;
+					thread.interrupt();
+				}
+				cancelled = true;
+			}
+			if (running >= 0)
+				stats.record(running);
+			// A response that arrived before the cancellation is not used by anyone
+			result.thenAccept(Hedging::closeQuietly);
+		}
+	}
+
+	private static void closeQuietly(InputStream in) {
+		try {
+			in.close();
+		} catch (IOException e) {
+			// The response is not used
+		}
+	}
+
+	/**
+	 * Recent latencies and hedge counters of an endpoint
+	 */
+	public static final class Stats {
+		private final LongAdder hedged = new LongAdder();
+		private final LongAdder won = new LongAdder();
+		private final LongAdder denied = new LongAdder();
+		private final long[] samples = new long[WINDOW];
+		private int filled;
+		private int next;
+		private int sinceUpdate;
+		private final double percentile;
+		private volatile long delay;
+
+		Stats(double percentile) {
+			this.percentile = percentile;
+		}
+
+		synchronized void record(long nanos) {
+			samples[next] = nanos;
+			next = (next + 1) % WINDOW;
+			filled = Math.min(filled + 1, WINDOW);
+			if (filled >= MIN_SAMPLES && ++sinceUpdate >= RECOMPUTE_EVERY) {
+				sinceUpdate = 0;
+				long[] sorted = Arrays.copyOf(samples, filled);
+				Arrays.sort(sorted);
+				delay = sorted[Math.max(0, (int) Math.ceil(filled * percentile / 100) - 1)];
+			}
+		}
+
+		/**
+		 * @return Reads a second request has been sent for
+		 */
+		public long hedged() {
+			return hedged.sum();
+		}
+
+		/**
+		 * @return Hedged reads answered first by the second request
+		 */
+		public long won() {
+			return won.sum();
+		}
+
+		/**
+		 * @return Reads that qualified for a hedge while the budget was used up
+		 */
+		public long denied() {
+			return denied.sum();
+		}
+
+		/**
+		 * @return Current time after which a read is hedged, 0 until enough latencies have been seen
+		 */
+		public double delayMillis() {
+			return delay / 1e6;
+		}
+
+		@Override
+		public String toString() {
+			return "hedged=" + hedged() + ", won=" + won() + ", denied=" + denied() + ", delay=" + delayMillis() + "ms";
+		}
+	}
+}
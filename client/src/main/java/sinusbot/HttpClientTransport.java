@@ -0,0 +1,673 @@
+package sinusbot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Default transport based on {@link HttpClient}.
+ * Connections are kept alive and reused between calls. The number of connections is bounded
+ * in total and per host by only letting as many requests run at once - further callers wait
+ * until a response stream has been closed.
+ * The idle keep-alive time of pooled connections is controlled by the JDK system property
+ * <code>jdk.httpclient.keepalive.timeout</code>.
+ * Responses may be gzip or deflate compressed, they are inflated while the caller reads them.
+ * The read timeout applies to the response headers and again to every read of the body, a body that stalls for longer
+ * fails with a {@link HttpTimeoutException}. Uploads have to finish within the read timeout plus the time needed to
+ * send the file at {@link #setMinUploadRate(long) a minimum rate}.
+ * The HttpClient is created with the first request, creating it loads a large part of java.net.http and starts its
+ * selector thread.
+ */
+public class HttpClientTransport implements SinusbotTransport {
+	public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+	public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+	public static final int DEFAULT_MAX_CONNECTIONS = 64;
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+	public static final long DEFAULT_MIN_UPLOAD_RATE = 64 * 1024;
+	private static final int PIPELINE_DEPTH = 32;
+
+	private volatile HttpClient client;
+	private final Duration connectTimeout;
+	private final Duration readTimeout;
+	private final int maxConnectionsPerHost;
+	private final Semaphore connections;
+	// Only hosts with requests running or waiting, removed with the last one
+	private final Map<String, Host> hostConnections = new ConcurrentHashMap<>();
+	private volatile boolean compression = true;
+	private volatile long minUploadRate = DEFAULT_MIN_UPLOAD_RATE;
+
+	public HttpClientTransport() {
+		this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+	}
+
+	/**
+	 * @param connectTimeout Timeout for establishing a connection
+	 * @param readTimeout Timeout until the response headers have to arrive, and for each read of the response body
+	 * @param maxConnections Maximum number of connections in use over all hosts
+	 * @param maxConnectionsPerHost Maximum number of connections in use per host
+	 */
+	public HttpClientTransport(Duration connectTimeout, Duration readTimeout, int maxConnections, int maxConnectionsPerHost) {
+		if (maxConnections < 1 || maxConnectionsPerHost < 1)
+			throw new IllegalArgumentException("Connection limits must be positive");
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+		this.maxConnectionsPerHost = maxConnectionsPerHost;
+		this.connections = new Semaphore(maxConnections, true);
+	}
+
+	/**
+	 * @param compression Whether to accept gzip and deflate compressed responses, enabled by default
+	 * @return This for chaining
+	 */
+	public HttpClientTransport setCompression(boolean compression) {
+		this.compression = compression;
+		return this;
+	}
+
+	/**
+	 * @param bytesPerSecond Slowest upload rate accepted, an upload has to finish within the read timeout plus the time
+	 * needed to send the file at this rate
+	 * @return This for chaining
+	 */
+	public HttpClientTransport setMinUploadRate(long bytesPerSecond) {
+		if (bytesPerSecond < 1)
+			throw new IllegalArgumentException("bytesPerSecond must be positive");
+		this.minUploadRate = bytesPerSecond;
+		return this;
+	}
+
+	@Override
+	public InputStream send(String requestMethod, String url, String token, byte[] body) throws IOException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+				.timeout(readTimeout)
+				.method(requestMethod, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+		if (body != null)
+			request.header("Content-Type", "application/json; charset=UTF-8");
+		return send(request, token);
+	}
+
+	/**
+	 * Streams the file from a FileChannel with a fixed Content-Length.
+	 * The timeout is the read timeout plus the time needed to send the file at the minimum upload rate.
+	 */
+	@Override
+	public InputStream send(String requestMethod, String url, String token, Path file, LongConsumer progress) throws IOException {
+		long size = Files.size(file);
+		HttpRequest.BodyPublisher content = HttpRequest.BodyPublishers.ofInputStream(() -> {
+			try {
+				return Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+				.timeout(readTimeout.plusMillis(size * 1000 / minUploadRate))
+				.method(requestMethod, HttpRequest.BodyPublishers.fromPublisher(progress == null ? content : new ProgressPublisher(content, progress), size))
+				.header("Content-Type", "application/octet-stream");
+		return send(request, token);
+	}
+
+	/**
+	 * Writes the requests to a connection of their own without waiting for the responses, at most
+	 * {@link #PIPELINE_DEPTH} requests are unanswered at a time. Requests left unanswered because the server closed the
+	 * connection with "Connection: close" are sent again on a new connection. If the connection breaks, the unanswered
+	 * requests fail, since the server may have processed them already.
+	 */
+	@Override
+	public List<Reply> sendPipelined(List<Call> calls, String token) {
+		if (calls.isEmpty())
+			return List.of();
+		URI uri = URI.create(calls.get(0).url());
+		for (Call call : calls) {
+			URI other = URI.create(call.url());
+			if (!"http".equals(other.getScheme()) || !uri.getHost().equals(other.getHost()) || uri.getPort() != other.getPort())
+				return SinusbotTransport.super.sendPipelined(calls, token);
+		}
+		List<Reply> replies = new ArrayList<>(calls.size());
+		Permit permit;
+		try {
+			permit = acquire(uri);
+		} catch (InterruptedIOException e) {
+			while (replies.size() < calls.size())
+				replies.add(new Reply(null, e));
+			return replies;
+		}
+		try {
+			while (replies.size() < calls.size())
+				pipeline(uri, calls, replies, token);
+		} finally {
+			permit.release();
+		}
+		return replies;
+	}
+
+	/**
+	 * Sends the calls that have no reply yet over a new connection, until all are answered or the server closes it
+	 */
+	private void pipeline(URI uri, List<Call> calls, List<Reply> replies, String token) {
+		String host = uri.getHost().startsWith("[") ? uri.getHost().substring(1, uri.getHost().length() - 1) : uri.getHost();
+		try (Socket socket = new Socket()) {
+			socket.setTcpNoDelay(true);
+			socket.connect(new InetSocketAddress(host, uri.getPort() < 0 ? 80 : uri.getPort()), (int) connectTimeout.toMillis());
+			socket.setSoTimeout((int) readTimeout.toMillis());
+			OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 16384);
+			InputStream in = new BufferedInputStream(socket.getInputStream(), 16384);
+			int sent = replies.size();
+			while (replies.size() < calls.size()) {
+				if (sent < calls.size() && sent - replies.size() < PIPELINE_DEPTH) {
+					while (sent < calls.size() && sent - replies.size() < PIPELINE_DEPTH)
+						writeRequest(out, calls.get(sent++), token);
+					out.flush();
+				}
+				RawResponse response = RawResponse.read(in);
+				if (response.status / 100 == 2)
+					replies.add(new Reply(response.body, null));
+				else
+					replies.add(new Reply(null, new SinusbotTransport.StatusException(response.status, calls.get(replies.size()).url())));
+				if (response.close)
+					return;
+			}
+		} catch (IOException e) {
+			while (replies.size() < calls.size())
+				replies.add(new Reply(null, e));
+		}
+	}
+
+	private static void writeRequest(OutputStream out, Call call, String token) throws IOException {
+		URI uri = URI.create(call.url());
+		StringBuilder head = new StringBuilder(256).append(call.requestMethod()).append(' ').append(uri.getRawPath());
+		if (uri.getRawQuery() != null)
+			head.append('?').append(uri.getRawQuery());
+		head.append(" HTTP/1.1\r\nHost: ").append(uri.getRawAuthority()).append("\r\n");
+		if (token != null)
+			head.append("Authorization: bearer ").append(token).append("\r\n");
+		if (call.body() != null)
+			head.append("Content-Type: application/json; charset=UTF-8\r\n");
+		head.append("Content-Length: ").append(call.body() == null ? 0 : call.body().length).append("\r\n\r\n");
+		out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+		if (call.body() != null)
+			out.write(call.body());
+	}
+
+	private InputStream send(HttpRequest.Builder request, String token) throws IOException {
+		if (token != null)
+			request.header("Authorization", "bearer " + token);
+		if (compression)
+			request.header("Accept-Encoding", "gzip, deflate");
+		HttpRequest built = request.build();
+		URI uri = built.uri();
+
+		Permit permit = acquire(uri);
+		try {
+			HttpResponse<InputStream> response = client().send(built, HttpResponse.BodyHandlers.ofInputStream());
+			InputStream in = new PermitInputStream(new IdleTimeoutInputStream(response.body(), readTimeout), permit);
+			if (response.statusCode() / 100 != 2) {
+				in.close();
+				throw new SinusbotTransport.StatusException(response.statusCode(), uri.toString());
+			}
+			String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+			try {
+				return decode(in, encoding.trim().toLowerCase(Locale.ROOT));
+			} catch (IOException | RuntimeException e) {
+				in.close();
+				throw e;
+			}
+		} catch (InterruptedException e) {
+			permit.release();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		} catch (IOException | RuntimeException e) {
+			permit.release();
+			throw e;
+		}
+	}
+
+	private HttpClient client() {
+		HttpClient c = client;
+		if (c != null)
+			return c;
+		synchronized (this) {
+			if (client == null)
+				client = HttpClient.newBuilder()
+						.version(HttpClient.Version.HTTP_1_1)
+						.connectTimeout(connectTimeout)
+						.followRedirects(HttpClient.Redirect.NEVER)
+						.build();
+			return client;
+		}
+	}
+
+	/**
+	 * Wraps the body in a decoder for the Content-Encoding, nothing is buffered beyond the decoder's input buffer
+	 */
+	private static InputStream decode(InputStream in, String encoding) throws IOException {
+		switch (encoding) {
+		case "identity":
+			return in;
+		case "gzip":
+		case "x-gzip": {
+			CountingInputStream wire = new CountingInputStream(in);
+			return new DecodedInputStream(new GZIPInputStream(wire, 8192), wire, null);
+		}
+		case "deflate": {
+			// Should be zlib wrapped, but some servers send raw deflate data
+			CountingInputStream wire = new CountingInputStream(in);
+			PushbackInputStream header = new PushbackInputStream(wire, 2);
+			byte[] b = header.readNBytes(2);
+			header.unread(b);
+			boolean zlib = b.length == 2 && (b[0] & 0x0f) == 8 && ((b[0] & 0xff) << 8 | (b[1] & 0xff)) % 31 == 0;
+			Inflater inflater = new Inflater(!zlib);
+			return new DecodedInputStream(new InflaterInputStream(header, inflater, 8192), wire, inflater);
+		}
+		default:
+			throw new IOException("Unsupported Content-Encoding: " + encoding);
+		}
+	}
+
+	/**
+	 * Waits for a connection to the host of the uri, and for one of the connections over all hosts
+	 */
+	private Permit acquire(URI uri) throws InterruptedIOException {
+		String key = uri.getHost() + ":" + uri.getPort();
+		Host host = hostConnections.compute(key, (k, h) -> {
+			if (h == null)
+				h = new Host(maxConnectionsPerHost);
+			h.users++;
+			return h;
+		});
+		try {
+			host.connections.acquire();
+			try {
+				connections.acquire();
+			} catch (InterruptedException e) {
+				host.connections.release();
+				throw e;
+			}
+		} catch (InterruptedException e) {
+			leave(key);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+		return new Permit(key, host);
+	}
+
+	private void leave(String key) {
+		hostConnections.computeIfPresent(key, (k, h) -> --h.users == 0 ? null : h);
+	}
+
+	/**
+	 * Connections of a host, users counts the requests holding or waiting for one and is only changed inside compute
+	 */
+	private static final class Host {
+		final Semaphore connections;
+		int users;
+
+		Host(int maxConnections) {
+			this.connections = new Semaphore(maxConnections, true);
+		}
+	}
+
+	private final class Permit {
+		private final String key;
+		private final Host host;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		Permit(String key, Host host) {
+			this.key = key;
+			this.host = host;
+		}
+
+		void release() {
+			if (released.compareAndSet(false, true)) {
+				connections.release();
+				host.connections.release();
+				leave(key);
+			}
+		}
+	}
+
+	/**
+	 * Counts the bytes of a request body while they are handed to the connection
+	 */
+	private static final class ProgressPublisher implements Flow.Publisher<ByteBuffer> {
+		private final Flow.Publisher<ByteBuffer> publisher;
+		private final LongConsumer progress;
+
+		ProgressPublisher(Flow.Publisher<ByteBuffer> publisher, LongConsumer progress) {
+			this.publisher = publisher;
+			this.progress = progress;
+		}
+
+		@Override
+		public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+			publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+				private long sent;
+
+				@Override
+				public void onSubscribe(Flow.Subscription subscription) {
+					subscriber.onSubscribe(subscription);
+				}
+
+				@Override
+				public void onNext(ByteBuffer item) {
+					int n = item.remaining();
+					subscriber.onNext(item);
+					sent += n;
+					progress.accept(sent);
+				}
+
+				@Override
+				public void onError(Throwable throwable) {
+					subscriber.onError(throwable);
+				}
+
+				@Override
+				public void onComplete() {
+					subscriber.onComplete();
+				}
+			});
+		}
+	}
+
+	/**
+	 * HTTP/1.1 response read off a pipelined connection
+	 */
+	private static final class RawResponse {
+		int status;
+		byte[] body;
+		boolean close;
+
+		static RawResponse read(InputStream in) throws IOException {
+			RawResponse response = new RawResponse();
+			long length;
+			boolean chunked;
+			do {
+				String statusLine = readLine(in);
+				String[] parts = statusLine.split(" ", 3);
+				if (parts.length < 2 || !parts[0].startsWith("HTTP/"))
+					throw new IOException("Invalid status line: " + statusLine);
+				response.status = Integer.parseInt(parts[1]);
+				response.close = parts[0].equals("HTTP/1.0");
+				length = -1;
+				chunked = false;
+				for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+					int colon = line.indexOf(':');
+					if (colon < 0)
+						continue;
+					String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+					String value = line.substring(colon + 1).trim().toLowerCase(Locale.ROOT);
+					if (name.equals("content-length"))
+						length = Long.parseLong(value);
+					else if (name.equals("transfer-encoding"))
+						chunked = value.contains("chunked");
+					else if (name.equals("connection"))
+						response.close = value.contains("close") || (response.close && !value.contains("keep-alive"));
+				}
+			} while (response.status / 100 == 1); // skip 100 Continue
+			if (response.status == 204 || response.status == 304) {
+				response.body = new byte[0];
+			} else if (chunked) {
+				ByteArrayOutputStream body = new ByteArrayOutputStream();
+				for (long size = chunkSize(readLine(in)); size > 0; size = chunkSize(readLine(in))) {
+					body.write(readFully(in, size));
+					readLine(in);
+				}
+				while (!readLine(in).isEmpty())
+					; // trailers
+				response.body = body.toByteArray();
+			} else if (length >= 0) {
+				response.body = readFully(in, length);
+			} else {
+				response.body = in.readAllBytes();
+				response.close = true;
+			}
+			return response;
+		}
+
+		private static long chunkSize(String line) throws IOException {
+			int ext = line.indexOf(';');
+			try {
+				return Long.parseLong((ext < 0 ? line : line.substring(0, ext)).trim(), 16);
+			} catch (NumberFormatException e) {
+				throw new IOException("Invalid chunk size: " + line);
+			}
+		}
+
+		private static byte[] readFully(InputStream in, long length) throws IOException {
+			byte[] data = in.readNBytes((int) length);
+			if (data.length < length)
+				throw new EOFException("Connection closed within a response body");
+			return data;
+		}
+
+		private static String readLine(InputStream in) throws IOException {
+			StringBuilder line = new StringBuilder();
+			int c;
+			while ((c = in.read()) != '\n') {
+				if (c < 0)
+					throw new EOFException("Connection closed before the response was complete");
+				if (c != '\r')
+					line.append((char) c);
+			}
+			return line.toString();
+		}
+	}
+
+	/**
+	 * Counts the compressed bytes read off the connection
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+		private long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0)
+				count++;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = in.read(b, off, len);
+			if (n > 0)
+				count += n;
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+
+	/**
+	 * Inflated response body, closing it closes the connection stream below so the rest of the body is drained
+	 */
+	private static final class DecodedInputStream extends FilterInputStream implements SinusbotTransport.CompressedBody {
+		private final CountingInputStream wire;
+		private final Inflater inflater;
+
+		DecodedInputStream(InputStream in, CountingInputStream wire, Inflater inflater) {
+			super(in);
+			this.wire = wire;
+			this.inflater = inflater;
+		}
+
+		@Override
+		public long wireBytes() {
+			return wire.count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				in.close();
+			} finally {
+				if (inflater != null)
+					inflater.end();
+			}
+		}
+	}
+
+	/**
+	 * Fails a read of the response body that does not return within the timeout. A shared watchdog closes the stream
+	 * below, which wakes up the blocked read.
+	 */
+	private static final class IdleTimeoutInputStream extends FilterInputStream {
+		private final long timeout;
+		private volatile long readSince;
+		private volatile boolean timedOut;
+
+		IdleTimeoutInputStream(InputStream in, Duration timeout) {
+			super(in);
+			this.timeout = timeout.toNanos();
+		}
+
+		@Override
+		public int read() throws IOException {
+			begin();
+			try {
+				return in.read();
+			} catch (IOException e) {
+				throw timedOut(e);
+			} finally {
+				Watchdog.READING.remove(this);
+			}
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			begin();
+			try {
+				return in.read(b, off, len);
+			} catch (IOException e) {
+				throw timedOut(e);
+			} finally {
+				Watchdog.READING.remove(this);
+			}
+		}
+
+		private void begin() {
+			readSince = System.nanoTime();
+			Watchdog.READING.add(this);
+		}
+
+		private IOException timedOut(IOException e) {
+			if (!timedOut)
+				return e;
+			HttpTimeoutException timeout = new HttpTimeoutException("No response data for " + this.timeout / 1000000 + " ms");
+			timeout.initCause(e);
+			return timeout;
+		}
+
+		/**
+		 * Checks the blocked reads a few times per second
+		 */
+		private static final class Watchdog {
+			static final Set<IdleTimeoutInputStream> READING = ConcurrentHashMap.newKeySet();
+			private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "sinusbot-read-timeout");
+				t.setDaemon(true);
+				return t;
+			});
+
+			static {
+				SCHEDULER.scheduleWithFixedDelay(Watchdog::check, 250, 250, TimeUnit.MILLISECONDS);
+			}
+
+			private static void check() {
+				long now = System.nanoTime();
+				for (IdleTimeoutInputStream stream : READING) {
+					if (now - stream.readSince > stream.timeout) {
+						stream.timedOut = true;
+						READING.remove(stream);
+						try {
+							stream.in.close();
+						} catch (IOException | RuntimeException e) {
+							// The blocked read fails either way
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Drains the remaining body on close so that the connection goes back into the pool.
+	 * Bodies with more than {@link #MAX_DRAIN} bytes left, like the audio stream, are aborted instead.
+	 */
+	private static final class PermitInputStream extends FilterInputStream {
+		private static final long MAX_DRAIN = 64 * 1024;
+
+		private final Permit permit;
+
+		PermitInputStream(InputStream in, Permit permit) {
+			super(in);
+			this.permit = permit;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				byte[] skip = new byte[8192];
+				long drained = 0;
+				int n;
+				try {
+					while (drained < MAX_DRAIN && (n = in.read(skip)) >= 0)
+						drained += n;
+				} catch (IOException e) {
+					// Broken or timed out, the connection is not reused
+				}
+				in.close();
+			} finally {
+				permit.release();
+			}
+		}
+	}
+}
@@ -0,0 +1,505 @@
+package sinusbot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Minimal pull parser that reads JSON tokens straight off a character stream.
+ * Used by the generated record decoders so that responses do not have to be
+ * materialized as a String and an org.json object tree first.
+ * Values are read leniently: numbers may be sent as strings and vice versa,
+ * null reads as null, 0 or false for the respective type.
+ */
+public class JsonReader implements Closeable {
+	public enum Token {
+		BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+	}
+
+	/**
+	 * Reads one value from a JsonReader
+	 * @param <T> Type of the decoded value
+	 */
+	@FunctionalInterface
+	public interface Decoder<T> {
+		T read(JsonReader reader) throws IOException;
+	}
+
+	private static final int EMPTY_DOCUMENT = 0;
+	private static final int NONEMPTY_DOCUMENT = 1;
+	private static final int EMPTY_ARRAY = 2;
+	private static final int NONEMPTY_ARRAY = 3;
+	private static final int EMPTY_OBJECT = 4;
+	private static final int DANGLING_NAME = 5;
+	private static final int NONEMPTY_OBJECT = 6;
+
+	private final Reader in;
+	private final char[] buf = new char[8192];
+	private int pos;
+	private int limit;
+	private long consumed;
+	private final StringBuilder sb = new StringBuilder();
+
+	private int[] stack = new int[32];
+	private int depth = 1;
+	private Token peeked;
+
+	public JsonReader(Reader in) {
+		this.in = in;
+		stack[0] = EMPTY_DOCUMENT;
+	}
+
+	/**
+	 * @return Type of the next token without consuming it
+	 */
+	public Token peek() throws IOException {
+		if (peeked != null)
+			return peeked;
+
+		int scope = stack[depth - 1];
+		int c;
+		switch (scope) {
+		case EMPTY_ARRAY:
+			stack[depth - 1] = NONEMPTY_ARRAY;
+			c = nextNonWhitespace(true);
+			if (c == ']')
+				return peeked = Token.END_ARRAY;
+			break;
+		case NONEMPTY_ARRAY:
+			c = nextNonWhitespace(true);
+			if (c == ']')
+				return peeked = Token.END_ARRAY;
+			if (c != ',')
+				throw syntaxError("Expected ',' or ']'");
+			c = nextNonWhitespace(true);
+			break;
+		case EMPTY_OBJECT:
+		case NONEMPTY_OBJECT:
+			stack[depth - 1] = DANGLING_NAME;
+			c = nextNonWhitespace(true);
+			if (c == '}')
+				return peeked = Token.END_OBJECT;
+			if (scope == NONEMPTY_OBJECT) {
+				if (c != ',')
+					throw syntaxError("Expected ',' or '}'");
+				c = nextNonWhitespace(true);
+			}
+			if (c != '"')
+				throw syntaxError("Expected a name");
+			return peeked = Token.NAME;
+		case DANGLING_NAME:
+			stack[depth - 1] = NONEMPTY_OBJECT;
+			if (nextNonWhitespace(true) != ':')
+				throw syntaxError("Expected ':'");
+			c = nextNonWhitespace(true);
+			break;
+		case EMPTY_DOCUMENT:
+			stack[depth - 1] = NONEMPTY_DOCUMENT;
+			c = nextNonWhitespace(true);
+			break;
+		default:
+			if (nextNonWhitespace(false) == -1)
+				return peeked = Token.END_DOCUMENT;
+			throw syntaxError("Unexpected data after the document");
+		}
+
+		switch (c) {
+		case '{':
+			return peeked = Token.BEGIN_OBJECT;
+		case '[':
+			return peeked = Token.BEGIN_ARRAY;
+		case '"':
+			return peeked = Token.STRING;
+		case 't':
+		case 'f':
+			pos--;
+			return peeked = Token.BOOLEAN;
+		case 'n':
+			pos--;
+			return peeked = Token.NULL;
+		default:
+			if (c == '-' || (c >= '0' && c <= '9')) {
+				pos--;
+				return peeked = Token.NUMBER;
+			}
+			throw syntaxError("Unexpected character '" + (char) c + "'");
+		}
+	}
+
+	public void beginObject() throws IOException {
+		expect(Token.BEGIN_OBJECT);
+		push(EMPTY_OBJECT);
+	}
+
+	public void endObject() throws IOException {
+		expect(Token.END_OBJECT);
+		depth--;
+	}
+
+	public void beginArray() throws IOException {
+		expect(Token.BEGIN_ARRAY);
+		push(EMPTY_ARRAY);
+	}
+
+	public void endArray() throws IOException {
+		expect(Token.END_ARRAY);
+		depth--;
+	}
+
+	/**
+	 * @return True if the current object or array has another element
+	 */
+	public boolean hasNext() throws IOException {
+		Token p = peek();
+		return p != Token.END_OBJECT && p != Token.END_ARRAY && p != Token.END_DOCUMENT;
+	}
+
+	public String nextName() throws IOException {
+		expect(Token.NAME);
+		return readString();
+	}
+
+	/**
+	 * Consumes the next value if it is null
+	 * @return True if a null value has been consumed
+	 */
+	public boolean skipNull() throws IOException {
+		if (peek() != Token.NULL)
+			return false;
+		readLiteral();
+		peeked = null;
+		return true;
+	}
+
+	/**
+	 * @return The next string, number or boolean as text, null for a JSON null
+	 */
+	public String nextString() throws IOException {
+		Token p = peek();
+		peeked = null;
+		switch (p) {
+		case STRING:
+			return readString();
+		case NUMBER:
+		case BOOLEAN:
+			return readLiteral();
+		case NULL:
+			readLiteral();
+			return null;
+		default:
+			peeked = p;
+			throw syntaxError("Expected a string but was " + p);
+		}
+	}
+
+	/**
+	 * @return The next number, fractions are truncated
+	 */
+	public long nextLong() throws IOException {
+		String s = nextNumberText();
+		if (s == null || s.isEmpty())
+			return 0;
+		try {
+			return Long.parseLong(s);
+		} catch (NumberFormatException e) {
+			return (long) parseDouble(s);
+		}
+	}
+
+	public double nextDouble() throws IOException {
+		String s = nextNumberText();
+		if (s == null || s.isEmpty())
+			return 0;
+		return parseDouble(s);
+	}
+
+	/**
+	 * @return The next boolean, numbers are true if not zero
+	 */
+	public boolean nextBoolean() throws IOException {
+		Token p = peek();
+		if (p == Token.NUMBER)
+			return nextDouble() != 0;
+		String s = nextString();
+		return s != null && s.equals("true");
+	}
+
+	/**
+	 * Skips the next value including all nested values
+	 */
+	public void skipValue() throws IOException {
+		int count = 0;
+		do {
+			Token p = peek();
+			peeked = null;
+			switch (p) {
+			case BEGIN_OBJECT:
+				push(EMPTY_OBJECT);
+				count++;
+				break;
+			case BEGIN_ARRAY:
+				push(EMPTY_ARRAY);
+				count++;
+				break;
+			case END_OBJECT:
+			case END_ARRAY:
+				depth--;
+				count--;
+				break;
+			case NAME:
+			case STRING:
+				skipString();
+				break;
+			case END_DOCUMENT:
+				peeked = p;
+				throw syntaxError("Unexpected end of document");
+			default:
+				readLiteral();
+			}
+		} while (count > 0);
+	}
+
+	/**
+	 * Reads the next value into unmodifiable collections, for record components without a generated record.
+	 * Records are shared between callers, e.g. by coalesced requests and the response cache, so their values must not
+	 * change after decoding.
+	 * @return Unmodifiable Map or List, String, Number, Boolean or JSONObject.NULL
+	 */
+	public Object nextUnmodifiableValue() throws IOException {
+		switch (peek()) {
+		case BEGIN_OBJECT:
+			Map<String, Object> obj = new LinkedHashMap<>();
+			beginObject();
+			while (hasNext())
+				obj.put(nextName(), nextUnmodifiableValue());
+			endObject();
+			return Collections.unmodifiableMap(obj);
+		case BEGIN_ARRAY:
+			List<Object> arr = new ArrayList<>();
+			beginArray();
+			while (hasNext())
+				arr.add(nextUnmodifiableValue());
+			endArray();
+			return Collections.unmodifiableList(arr);
+		default:
+			return nextValue();
+		}
+	}
+
+	/**
+	 * Reads the next value into the org.json representation, for values without a generated record
+	 * @return JSONObject, JSONArray, String, Number, Boolean or JSONObject.NULL
+	 */
+	public Object nextValue() throws IOException {
+		switch (peek()) {
+		case BEGIN_OBJECT:
+			JSONObject obj = new JSONObject();
+			beginObject();
+			while (hasNext())
+				obj.put(nextName(), nextValue());
+			endObject();
+			return obj;
+		case BEGIN_ARRAY:
+			JSONArray arr = new JSONArray();
+			beginArray();
+			while (hasNext())
+				arr.put(nextValue());
+			endArray();
+			return arr;
+		case STRING:
+			return nextString();
+		case BOOLEAN:
+			return nextBoolean();
+		case NULL:
+			skipNull();
+			return JSONObject.NULL;
+		case NUMBER:
+			String s = nextString();
+			try {
+				long l = Long.parseLong(s);
+				if (l == (int) l)
+					return (int) l;
+				return l;
+			} catch (NumberFormatException e) {
+				return parseDouble(s);
+			}
+		default:
+			throw syntaxError("Expected a value but was " + peek());
+		}
+	}
+
+	/**
+	 * Reads a JSON array, decoding every element with the given decoder
+	 * @return The decoded elements as an unmodifiable list, null for a JSON null
+	 */
+	public <T> List<T> readList(Decoder<T> decoder) throws IOException {
+		if (skipNull())
+			return null;
+		List<T> list = new ArrayList<>();
+		beginArray();
+		while (hasNext())
+			list.add(decoder.read(this));
+		endArray();
+		return Collections.unmodifiableList(list);
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private String nextNumberText() throws IOException {
+		Token p = peek();
+		if (p == Token.BOOLEAN)
+			throw syntaxError("Expected a number but was " + p);
+		String s = nextString();
+		return s == null ? null : s.trim();
+	}
+
+	private double parseDouble(String s) throws IOException {
+		try {
+			return Double.parseDouble(s);
+		} catch (NumberFormatException e) {
+			throw syntaxError("Expected a number but was \"" + s + "\"");
+		}
+	}
+
+	private void expect(Token token) throws IOException {
+		Token p = peek();
+		if (p != token)
+			throw syntaxError("Expected " + token + " but was " + p);
+		peeked = null;
+	}
+
+	private void push(int scope) {
+		if (depth == stack.length)
+			stack = Arrays.copyOf(stack, depth * 2);
+		stack[depth++] = scope;
+	}
+
+	private boolean fill() throws IOException {
+		consumed += limit;
+		pos = 0;
+		limit = 0;
+		int n = in.read(buf, 0, buf.length);
+		if (n <= 0)
+			return false;
+		limit = n;
+		return true;
+	}
+
+	private int nextNonWhitespace(boolean required) throws IOException {
+		while (true) {
+			if (pos == limit && !fill()) {
+				if (required)
+					throw syntaxError("Unexpected end of input");
+				return -1;
+			}
+			char c = buf[pos++];
+			if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+				return c;
+		}
+	}
+
+	/**
+	 * Reads the remainder of a string whose opening quote has already been consumed
+	 */
+	private String readString() throws IOException {
+		sb.setLength(0);
+		while (true) {
+			int start = pos;
+			while (pos < limit) {
+				char c = buf[pos++];
+				if (c == '"') {
+					if (sb.length() == 0)
+						return new String(buf, start, pos - start - 1);
+					sb.append(buf, start, pos - start - 1);
+					return sb.toString();
+				} else if (c == '\\') {
+					sb.append(buf, start, pos - start - 1);
+					sb.append(readEscape());
+					start = pos;
+				}
+			}
+			sb.append(buf, start, pos - start);
+			if (!fill())
+				throw syntaxError("Unterminated string");
+		}
+	}
+
+	private void skipString() throws IOException {
+		while (true) {
+			while (pos < limit) {
+				char c = buf[pos++];
+				if (c == '"')
+					return;
+				else if (c == '\\')
+					readEscape();
+			}
+			if (!fill())
+				throw syntaxError("Unterminated string");
+		}
+	}
+
+	private char readEscape() throws IOException {
+		char c = nextChar();
+		switch (c) {
+		case 'b':
+			return '\b';
+		case 'f':
+			return '\f';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 't':
+			return '\t';
+		case 'u':
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				int digit = Character.digit(nextChar(), 16);
+				if (digit < 0)
+					throw syntaxError("Invalid unicode escape");
+				value = (value << 4) | digit;
+			}
+			return (char) value;
+		default:
+			return c;
+		}
+	}
+
+	private char nextChar() throws IOException {
+		if (pos == limit && !fill())
+			throw syntaxError("Unexpected end of input");
+		return buf[pos++];
+	}
+
+	private String readLiteral() throws IOException {
+		sb.setLength(0);
+		while (true) {
+			if (pos == limit && !fill())
+				break;
+			char c = buf[pos];
+			if (c == ',' || c == '}' || c == ']' || c == ':' || c == ' ' || c == '\n' || c == '\r' || c == '\t')
+				break;
+			sb.append(c);
+			pos++;
+		}
+		if (sb.length() == 0)
+			throw syntaxError("Expected a value");
+		return sb.toString();
+	}
+
+	private IOException syntaxError(String message) {
+		return new IOException(message + " at character " + (consumed + pos));
+	}
+}
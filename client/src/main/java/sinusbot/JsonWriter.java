@@ -0,0 +1,282 @@
+package sinusbot;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Encodes the JSON request bodies of the generated API functions directly into UTF-8 bytes.
+ * Each thread reuses its own buffer, only the finished body is copied out.
+ * Fields with a null value are left out, numbers and booleans are written as native JSON values.
+ */
+public class JsonWriter {
+	private static final ThreadLocal<JsonWriter> WRITERS = ThreadLocal.withInitial(JsonWriter::new);
+	private static final byte[] HEX = "0123456789abcdef".getBytes();
+	private static final int MAX_RETAINED = 64 * 1024;
+
+	private byte[] buf = new byte[256];
+	private int count;
+	private boolean first;
+
+	private JsonWriter() {
+	}
+
+	/**
+	 * Starts a new JSON object in the buffer of the current thread.
+	 * The object has to be finished with {@link #toByteArray()} before the next one is started.
+	 * @return Writer of the current thread
+	 */
+	public static JsonWriter object() {
+		JsonWriter writer = WRITERS.get();
+		if (writer.buf.length > MAX_RETAINED)
+			writer.buf = new byte[256];
+		writer.count = 0;
+		writer.first = true;
+		writer.write('{');
+		return writer;
+	}
+
+	public JsonWriter field(String name, String value) {
+		if (value != null) {
+			name(name);
+			string(value);
+		}
+		return this;
+	}
+
+	public JsonWriter field(String name, Number value) {
+		if (value != null) {
+			name(name);
+			number(value);
+		}
+		return this;
+	}
+
+	public JsonWriter field(String name, Boolean value) {
+		if (value != null) {
+			name(name);
+			bool(value);
+		}
+		return this;
+	}
+
+	public JsonWriter field(String name, Object[] value) {
+		if (value != null) {
+			name(name);
+			value(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Closes the object
+	 * @return Encoded object
+	 */
+	public byte[] toByteArray() {
+		write('}');
+		return Arrays.copyOf(buf, count);
+	}
+
+	private void name(String name) {
+		if (!first)
+			write(',');
+		first = false;
+		string(name);
+		write(':');
+	}
+
+	private void value(Object value) {
+		if (value == null || value == JSONObject.NULL) {
+			ascii("null");
+		} else if (value instanceof String) {
+			string((String) value);
+		} else if (value instanceof Number) {
+			number((Number) value);
+		} else if (value instanceof Boolean) {
+			bool((Boolean) value);
+		} else if (value instanceof Object[]) {
+			write('[');
+			Object[] array = (Object[]) value;
+			for (int i = 0; i < array.length; i++) {
+				if (i > 0)
+					write(',');
+				value(array[i]);
+			}
+			write(']');
+		} else if (value instanceof Collection) {
+			value(((Collection<?>) value).toArray());
+		} else if (value instanceof Map) {
+			write('{');
+			boolean firstEntry = true;
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				if (!firstEntry)
+					write(',');
+				firstEntry = false;
+				string(String.valueOf(entry.getKey()));
+				write(':');
+				value(entry.getValue());
+			}
+			write('}');
+		} else if (value instanceof JSONObject || value instanceof JSONArray) {
+			raw(value.toString());
+		} else {
+			string(value.toString());
+		}
+	}
+
+	private void bool(boolean value) {
+		ascii(value ? "true" : "false");
+	}
+
+	private void number(Number value) {
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			integer(value.longValue());
+		} else if (value instanceof Double || value instanceof Float) {
+			double d = value.doubleValue();
+			if (Double.isNaN(d) || Double.isInfinite(d))
+				ascii("null");
+			else if (d == (long) d)
+				integer((long) d);
+			else
+				ascii(Double.toString(d));
+		} else {
+			ascii(value.toString());
+		}
+	}
+
+	private void integer(long value) {
+		if (value == Long.MIN_VALUE) {
+			ascii(Long.toString(value));
+			return;
+		}
+		ensure(20);
+		if (value < 0) {
+			buf[count++] = '-';
+			value = -value;
+		}
+		int start = count;
+		do {
+			buf[count++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+		for (int i = start, j = count - 1; i < j; i++, j--) {
+			byte b = buf[i];
+			buf[i] = buf[j];
+			buf[j] = b;
+		}
+	}
+
+	private void string(String s) {
+		ensure(s.length() + 2);
+		buf[count++] = '"';
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+				if (count == buf.length)
+					ensure(1);
+				buf[count++] = (byte) c;
+			} else {
+				encode(s, i, c);
+				if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1)))
+					i++;
+			}
+		}
+		write('"');
+	}
+
+	/**
+	 * Writes already encoded JSON
+	 */
+	private void raw(String json) {
+		for (int i = 0; i < json.length(); i++) {
+			char c = json.charAt(i);
+			if (c < 0x80) {
+				write(c);
+			} else {
+				encode(json, i, c);
+				if (Character.isHighSurrogate(c) && i + 1 < json.length() && Character.isLowSurrogate(json.charAt(i + 1)))
+					i++;
+			}
+		}
+	}
+
+	private void encode(String s, int i, char c) {
+		ensure(6);
+		switch (c) {
+		case '"':
+			buf[count++] = '\\';
+			buf[count++] = '"';
+			return;
+		case '\\':
+			buf[count++] = '\\';
+			buf[count++] = '\\';
+			return;
+		case '\n':
+			buf[count++] = '\\';
+			buf[count++] = 'n';
+			return;
+		case '\r':
+			buf[count++] = '\\';
+			buf[count++] = 'r';
+			return;
+		case '\t':
+			buf[count++] = '\\';
+			buf[count++] = 't';
+			return;
+		case '\b':
+			buf[count++] = '\\';
+			buf[count++] = 'b';
+			return;
+		case '\f':
+			buf[count++] = '\\';
+			buf[count++] = 'f';
+			return;
+		}
+		if (c < 0x20) {
+			buf[count++] = '\\';
+			buf[count++] = 'u';
+			buf[count++] = '0';
+			buf[count++] = '0';
+			buf[count++] = HEX[c >> 4];
+			buf[count++] = HEX[c & 0xf];
+		} else if (c < 0x800) {
+			buf[count++] = (byte) (0xc0 | (c >> 6));
+			buf[count++] = (byte) (0x80 | (c & 0x3f));
+		} else if (Character.isSurrogate(c)) {
+			int cp = Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))
+					? Character.toCodePoint(c, s.charAt(i + 1)) : '?';
+			if (cp == '?') {
+				buf[count++] = '?';
+			} else {
+				buf[count++] = (byte) (0xf0 | (cp >> 18));
+				buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+				buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+				buf[count++] = (byte) (0x80 | (cp & 0x3f));
+			}
+		} else {
+			buf[count++] = (byte) (0xe0 | (c >> 12));
+			buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+			buf[count++] = (byte) (0x80 | (c & 0x3f));
+		}
+	}
+
+	private void ascii(String s) {
+		ensure(s.length());
+		for (int i = 0; i < s.length(); i++)
+			buf[count++] = (byte) s.charAt(i);
+	}
+
+	private void write(char c) {
+		if (count == buf.length)
+			ensure(1);
+		buf[count++] = (byte) c;
+	}
+
+	private void ensure(int n) {
+		if (count + n > buf.length)
+			buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + n));
+	}
+}
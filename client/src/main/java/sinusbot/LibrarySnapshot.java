@@ -0,0 +1,238 @@
+package sinusbot;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary copy of a file list, memory-mapped when opened so tracks are decoded on access without parsing JSON.
+ * Only the fields needed to find and play a track are kept: uuid, parent, type, title, artist, album, duration,
+ * filesize and thumbnail, the other fields of the returned tracks are null or 0.
+ * <p>
+ * Layout, big endian: magic "SBLS", version, CRC32 of everything after the header, creation time in milliseconds,
+ * number of tracks, an int offset per track into the data, then the tracks. Strings are a varint of the UTF-8 length
+ * plus one (0 for null) followed by the bytes, numbers are varints. A file of another version is not opened.
+ */
+public final class LibrarySnapshot {
+	public static final int VERSION = 1;
+	private static final int MAGIC = 0x53424c53; // "SBLS"
+	private static final int HEADER = 4 + 4 + 8 + 8 + 4;
+
+	private final ByteBuffer buffer;
+	private final long created;
+	private final int size;
+	private final int data;
+
+	private LibrarySnapshot(ByteBuffer buffer, long created, int size) {
+		this.buffer = buffer;
+		this.created = created;
+		this.size = size;
+		this.data = HEADER + 4 * size;
+	}
+
+	/**
+	 * Writes the tracks to a temporary file next to the target and moves it into place, readers never see a partial file
+	 * @param file Snapshot file to write
+	 * @param tracks Tracks to keep, null entries and tracks without uuid are left out
+	 */
+	public static void write(Path file, Collection<SinusbotAPI.Track> tracks) throws IOException {
+		ByteArrayOutputStream records = new ByteArrayOutputStream(tracks.size() * 96);
+		int[] offsets = new int[tracks.size()];
+		int count = 0;
+		for (SinusbotAPI.Track track : tracks) {
+			if (track == null || track.uuid() == null)
+				continue;
+			offsets[count++] = records.size();
+			writeString(records, track.uuid());
+			writeString(records, track.parent());
+			writeString(records, track.type());
+			writeString(records, track.title());
+			writeString(records, track.artist());
+			writeString(records, track.album());
+			writeString(records, track.thumbnail());
+			writeVarint(records, track.duration());
+			writeVarint(records, track.filesize());
+		}
+		CRC32 crc = new CRC32();
+		ByteBuffer index = ByteBuffer.allocate(4 * count);
+		for (int i = 0; i < count; i++)
+			index.putInt(offsets[i]);
+		crc.update(index.array());
+		byte[] body = records.toByteArray();
+		crc.update(body);
+
+		Path dir = file.toAbsolutePath().getParent();
+		Files.createDirectories(dir);
+		Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 65536))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(crc.getValue());
+				out.writeLong(System.currentTimeMillis());
+				out.writeInt(count);
+				out.write(index.array());
+				out.write(body);
+			}
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Maps a snapshot file into memory and checks its version and checksum
+	 * @param file Snapshot file written by {@link #write(Path, Collection)}
+	 * @return The snapshot
+	 * @throws IOException If the file cannot be read, has another version or is damaged
+	 */
+	public static LibrarySnapshot open(Path file) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER || channel.size() > Integer.MAX_VALUE)
+				throw new IOException("Not a library snapshot: " + file);
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.getInt(0) != MAGIC)
+			throw new IOException("Not a library snapshot: " + file);
+		if (buffer.getInt(4) != VERSION)
+			throw new IOException("Library snapshot " + file + " has version " + buffer.getInt(4) + ", expected " + VERSION);
+		int size = buffer.getInt(24);
+		if (size < 0 || HEADER + 4L * size > buffer.capacity())
+			throw new IOException("Damaged library snapshot: " + file);
+		CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate().position(HEADER));
+		if (crc.getValue() != buffer.getLong(8))
+			throw new IOException("Damaged library snapshot: " + file);
+		return new LibrarySnapshot(buffer, buffer.getLong(16), size);
+	}
+
+	/**
+	 * @return Time the snapshot was written, in milliseconds since the epoch
+	 */
+	public long created() {
+		return created;
+	}
+
+	/**
+	 * @return Number of tracks and folders
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Decodes a track from the mapped file
+	 * @param index Index between 0 and {@link #size()} - 1
+	 * @return The track with the fields kept by the snapshot
+	 */
+	public SinusbotAPI.Track get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(index);
+		ByteBuffer in = buffer.duplicate();
+		in.position(data + buffer.getInt(HEADER + 4 * index));
+		try {
+			String uuid = readString(in);
+			String parent = readString(in);
+			String type = readString(in);
+			String title = readString(in);
+			String artist = readString(in);
+			String album = readString(in);
+			String thumbnail = readString(in);
+			long duration = readVarint(in);
+			long filesize = readVarint(in);
+			return new SinusbotAPI.Track(uuid, parent, type, null, title, artist, null, null, album, null, 0, 0, null, null, thumbnail,
+					null, duration, 0, 0, 0, filesize);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			// The checksum matched, so only a bug in the writer gets here
+			throw new IllegalStateException("Damaged library snapshot record " + index, e);
+		}
+	}
+
+	/**
+	 * @return All tracks, decoded from the mapped file each time an element is accessed
+	 */
+	public List<SinusbotAPI.Track> tracks() {
+		return new Tracks();
+	}
+
+	/**
+	 * @param track A complete track, e.g. as returned by getFilesTyped
+	 * @return The track with only the fields a snapshot keeps, equal to the track read back from a snapshot
+	 */
+	static SinusbotAPI.Track keptFields(SinusbotAPI.Track track) {
+		return new SinusbotAPI.Track(track.uuid(), track.parent(), track.type(), null, track.title(), track.artist(), null, null,
+				track.album(), null, 0, 0, null, null, track.thumbnail(), null, track.duration(), 0, 0, 0, track.filesize());
+	}
+
+	private static void writeString(OutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.write(0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarint(out, bytes.length + 1L);
+		out.write(bytes);
+	}
+
+	private static void writeVarint(OutputStream out, long value) throws IOException {
+		while ((value & ~0x7fL) != 0) {
+			out.write((int) (value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static String readString(ByteBuffer in) {
+		int length = (int) readVarint(in);
+		if (length == 0)
+			return null;
+		byte[] bytes = new byte[length - 1];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static long readVarint(ByteBuffer in) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = in.get();
+			value |= (long) (b & 0x7f) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new IllegalArgumentException("Varint too long");
+	}
+
+	private final class Tracks extends AbstractList<SinusbotAPI.Track> implements RandomAccess {
+		@Override
+		public SinusbotAPI.Track get(int index) {
+			return LibrarySnapshot.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
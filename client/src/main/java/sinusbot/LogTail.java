@@ -0,0 +1,222 @@
+package sinusbot;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows the bot log and the logs of instances, passing only new entries to the listeners.
+ * The API always returns a complete log, so a cursor per log remembers the newest time seen and
+ * how often each entry with exactly that time has been seen already. Older entries are skipped
+ * by comparing their time only. All logs are requested together in one poll.
+ */
+public class LogTail implements Closeable {
+	/** Source name of the bot log */
+	public static final String BOT = "bot";
+
+	/**
+	 * Receives new entries, called on the polling thread
+	 */
+	@FunctionalInterface
+	public interface Listener {
+		/**
+		 * @param entries New entries of one poll, sorted by time
+		 */
+		void onEntries(List<Entry> entries);
+	}
+
+	/**
+	 * @param source {@link #BOT} or the uuid of the instance
+	 */
+	public record Entry(String source, SinusbotAPI.LogEntry entry) {
+	}
+
+	private final SinusbotAPI api;
+	private final boolean allInstances;
+	private final Set<String> instances = ConcurrentHashMap.newKeySet();
+	private final Map<String, Cursor> cursors = new HashMap<>();
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private final Entry[] recent;
+	private int recentStart;
+	private int recentSize;
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * @param api Connection to the sinusbot
+	 * @param allInstances True to follow every instance of the bot, false to only follow those added with {@link #follow(String)}
+	 * @param capacity Number of recent entries kept for {@link #recent()}
+	 */
+	public LogTail(SinusbotAPI api, boolean allInstances, int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("capacity must be positive");
+		this.api = api;
+		this.allInstances = allInstances;
+		this.recent = new Entry[capacity];
+	}
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Starts following the log of an instance
+	 * @param instanceId uuid of the instance
+	 */
+	public void follow(String instanceId) {
+		instances.add(instanceId);
+	}
+
+	public void unfollow(String instanceId) {
+		instances.remove(instanceId);
+	}
+
+	/**
+	 * Polls all logs periodically on a daemon thread until {@link #close()} is called
+	 * @param intervalMillis Time between two polls in milliseconds
+	 */
+	public synchronized void start(long intervalMillis) {
+		if (scheduler != null)
+			return;
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "sinusbot-log-tail");
+			t.setDaemon(true);
+			return t;
+		});
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				poll();
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+		}, 0, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops polling
+	 */
+	@Override
+	public synchronized void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Requests all logs in parallel and passes their new entries to the listeners.
+	 * Logs that could not be loaded keep their position and are read again on the next poll.
+	 * @return New entries
+	 */
+	public List<Entry> poll() {
+		List<String> sources = new ArrayList<>();
+		sources.add(BOT);
+		// Without the instance list it is unknown which instances are gone, their cursors are kept
+		boolean complete = true;
+		if (allInstances) {
+			List<SinusbotAPI.Instance> list = api.getInstancesTyped();
+			if (list != null)
+				for (SinusbotAPI.Instance instance : list)
+					sources.add(instance.uuid());
+			else
+				complete = false;
+		}
+		for (String instanceId : instances)
+			if (!sources.contains(instanceId))
+				sources.add(instanceId);
+
+		Map<String, CompletableFuture<List<SinusbotAPI.LogEntry>>> logs = new LinkedHashMap<>();
+		for (String source : sources)
+			logs.put(source, CompletableFuture.supplyAsync(
+					() -> BOT.equals(source) ? api.getBotLogTyped() : api.getInstanceLogTyped(source), api.executor()));
+
+		List<Entry> entries = new ArrayList<>();
+		synchronized (this) {
+			for (Map.Entry<String, CompletableFuture<List<SinusbotAPI.LogEntry>>> log : logs.entrySet()) {
+				List<SinusbotAPI.LogEntry> list = log.getValue().join();
+				if (list != null)
+					cursors.computeIfAbsent(log.getKey(), k -> new Cursor()).advance(log.getKey(), list, entries);
+			}
+			if (complete)
+				cursors.keySet().retainAll(sources);
+			entries.sort(Comparator.comparingLong(e -> e.entry().time()));
+			for (Entry entry : entries) {
+				recent[(recentStart + recentSize) % recent.length] = entry;
+				if (recentSize < recent.length)
+					recentSize++;
+				else
+					recentStart = (recentStart + 1) % recent.length;
+			}
+		}
+
+		if (!entries.isEmpty()) {
+			List<Entry> unmodifiable = Collections.unmodifiableList(entries);
+			for (Listener listener : listeners) {
+				try {
+					listener.onEntries(unmodifiable);
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * @return The most recent entries of all logs, oldest first
+	 */
+	public synchronized List<Entry> recent() {
+		List<Entry> list = new ArrayList<>(recentSize);
+		for (int i = 0; i < recentSize; i++)
+			list.add(recent[(recentStart + i) % recent.length]);
+		return list;
+	}
+
+	/**
+	 * Position in one log
+	 */
+	private static final class Cursor {
+		private long time = Long.MIN_VALUE;
+		// How often each entry with exactly the newest time has been seen, entries are equal if message and severity are
+		private Map<SinusbotAPI.LogEntry, Integer> seenAtTime = new HashMap<>();
+
+		void advance(String source, List<SinusbotAPI.LogEntry> log, List<Entry> out) {
+			long newest = time;
+			for (SinusbotAPI.LogEntry entry : log)
+				newest = Math.max(newest, entry.time());
+
+			Map<SinusbotAPI.LogEntry, Integer> seenBefore = seenAtTime;
+			Map<SinusbotAPI.LogEntry, Integer> counted = new HashMap<>();
+			Map<SinusbotAPI.LogEntry, Integer> atNewest = new HashMap<>();
+			for (SinusbotAPI.LogEntry entry : log) {
+				if (entry.time() < time)
+					continue;
+				if (entry.time() == newest)
+					atNewest.merge(entry, 1, Integer::sum);
+				if (entry.time() == time && counted.merge(entry, 1, Integer::sum) <= seenBefore.getOrDefault(entry, 0))
+					continue;
+				out.add(new Entry(source, entry));
+			}
+			if (newest == time)
+				atNewest.forEach((entry, count) -> seenBefore.merge(entry, count, Math::max));
+			else
+				seenAtTime = atNewest;
+			time = newest;
+		}
+	}
+}
@@ -0,0 +1,440 @@
+package sinusbot;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index over the file list of a sinusbot.
+ * Tracks are held once in slot arrays and referenced by their int slot from a token index over
+ * title, artist and album, a folder index and a uuid lookup. {@link #refresh()} loads the file
+ * list again and only re-indexes tracks that have been added, removed or changed.
+ * A {@link LibrarySnapshot} saved to disk lets a restarted service serve lookups before the file list has been loaded,
+ * see {@link #warmStart(Path)}.
+ * All methods are thread-safe, lookups run concurrently.
+ */
+public class MediaLibrary {
+	private static final int MIN_PREFIX_LENGTH = 2;
+
+	private final SinusbotAPI api;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Integer> slotsByUuid = new HashMap<>();
+	private final TreeMap<String, Postings> tokens = new TreeMap<>();
+	private final Map<String, Postings> children = new HashMap<>();
+	private SinusbotAPI.Track[] slots = new SinusbotAPI.Track[1024];
+	private int[] freeSlots = new int[16];
+	private int freeCount;
+	private int slotCount;
+
+	/**
+	 * Creates an empty library, call {@link #refresh()} to load it
+	 * @param api Connection to the sinusbot whose files are indexed
+	 */
+	public MediaLibrary(SinusbotAPI api) {
+		this.api = api;
+	}
+
+	/**
+	 * Loads the file list and applies the differences to the index
+	 * @return Number of added, removed and updated tracks, -1 if the file list could not be loaded
+	 */
+	public int refresh() {
+		List<SinusbotAPI.Track> files = api.getFilesTyped();
+		if (files == null)
+			return -1;
+		return apply(files);
+	}
+
+	/**
+	 * Applies a complete file list to the index, tracks missing from the list are removed
+	 * @param files Current file list
+	 * @return Number of added, removed and updated tracks
+	 */
+	public int apply(List<SinusbotAPI.Track> files) {
+		lock.writeLock().lock();
+		try {
+			int changes = 0;
+			Map<String, Integer> stale = new HashMap<>(slotsByUuid);
+			for (SinusbotAPI.Track track : files) {
+				if (track == null || track.uuid() == null)
+					continue;
+				Integer slot = stale.remove(track.uuid());
+				if (slot == null) {
+					// Either a new track or a duplicate of one already applied
+					if (!slotsByUuid.containsKey(track.uuid())) {
+						add(track);
+						changes++;
+					}
+				} else if (!slots[slot].equals(track)) {
+					if (slots[slot].equals(LibrarySnapshot.keptFields(track))) {
+						// Loaded from a snapshot and unchanged, only the fields the snapshot does not keep are filled in
+						slots[slot] = track;
+						continue;
+					}
+					unindex(slot);
+					slots[slot] = track;
+					index(slot);
+					changes++;
+				}
+			}
+			for (int slot : stale.values()) {
+				remove(slot);
+				changes++;
+			}
+			return changes;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Applies the tracks of a snapshot saved by {@link #save(Path)}, tracks missing from it are removed.
+	 * Only the fields kept by the snapshot are set until the next {@link #refresh()}.
+	 * @param file Snapshot file
+	 * @return Number of added, removed and updated tracks, -1 if there is no snapshot or it has another version or is damaged
+	 */
+	public int load(Path file) {
+		try {
+			return apply(LibrarySnapshot.open(file).tracks());
+		} catch (NoSuchFileException e) {
+			return -1;
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return -1;
+	}
+
+	/**
+	 * Writes all tracks and folders to a snapshot file, replacing it atomically
+	 * @param file Snapshot file
+	 * @return True if the snapshot has been written
+	 */
+	public boolean save(Path file) {
+		List<SinusbotAPI.Track> tracks;
+		lock.readLock().lock();
+		try {
+			tracks = new ArrayList<>(slotsByUuid.size());
+			for (int i = 0; i < slotCount; i++)
+				if (slots[i] != null)
+					tracks.add(slots[i]);
+		} finally {
+			lock.readLock().unlock();
+		}
+		try {
+			LibrarySnapshot.write(file, tracks);
+			return true;
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return false;
+	}
+
+	/**
+	 * Loads the snapshot if there is a usable one, then revalidates it against the file list in the background.
+	 * Lookups are served from the snapshot right away and see the differences once they have been applied.
+	 * The snapshot is written again if the file list has changed or no snapshot could be loaded.
+	 * @param file Snapshot file
+	 * @return Future completed with the number of changes of the revalidation, -1 if the file list could not be loaded
+	 */
+	public CompletableFuture<Integer> warmStart(Path file) {
+		boolean loaded = load(file) >= 0;
+		return CompletableFuture.supplyAsync(() -> {
+			int changes = refresh();
+			if (changes > 0 || (changes == 0 && !loaded))
+				save(file);
+			return changes;
+		}, api.executor());
+	}
+
+	/**
+	 * @param uuid Uuid of the track or folder
+	 * @return The track, null if unknown
+	 */
+	public SinusbotAPI.Track get(String uuid) {
+		lock.readLock().lock();
+		try {
+			Integer slot = slotsByUuid.get(uuid);
+			return slot == null ? null : slots[slot];
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param parent Uuid of the folder, empty for the root folder
+	 * @return Tracks and folders directly inside the folder
+	 */
+	public List<SinusbotAPI.Track> children(String parent) {
+		lock.readLock().lock();
+		try {
+			Postings p = children.get(parent == null ? "" : parent);
+			return p == null ? Collections.emptyList() : resolve(p.slots, p.size, Integer.MAX_VALUE);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Tracks found by a search
+	 * @param tracks Matching tracks up to the limit of the search, in index order
+	 * @param total Number of matching tracks, more than the size of tracks if the limit cut the results off
+	 */
+	public record SearchResult(List<SinusbotAPI.Track> tracks, int total) {
+		/**
+		 * @return True if tracks holds every match
+		 */
+		public boolean complete() {
+			return tracks.size() == total;
+		}
+	}
+
+	/**
+	 * Finds tracks whose title, artist or album contain all words of the query, see {@link #find(String, int)}
+	 * @param query Search words, case and accents are ignored
+	 * @param limit Maximum number of results
+	 * @return Matching tracks, at most limit
+	 */
+	public List<SinusbotAPI.Track> search(String query, int limit) {
+		return find(query, limit).tracks();
+	}
+
+	/**
+	 * Finds tracks whose title, artist or album contain all words of the query.
+	 * The last word also matches as a prefix if it has at least two characters, so partially typed queries find results.
+	 * Every token starting with the prefix is considered, only the result list is cut off at the limit. The total
+	 * tells how many tracks matched, e.g. to show that a short prefix needs more characters.
+	 * @param query Search words, case and accents are ignored
+	 * @param limit Maximum number of tracks returned
+	 * @return The first matching tracks and the number of all matches
+	 */
+	public SearchResult find(String query, int limit) {
+		List<String> words = tokenize(query);
+		if (words.isEmpty() || limit <= 0)
+			return new SearchResult(Collections.emptyList(), 0);
+		lock.readLock().lock();
+		try {
+			String last = words.get(words.size() - 1);
+			NavigableMap<String, Postings> range = last.length() < MIN_PREFIX_LENGTH ? null
+					: tokens.subMap(last, true, last + Character.MAX_VALUE, false);
+			// A prefix of several tokens is merged into a bit set, single tokens are intersected as sorted lists
+			boolean merge = range != null && range.size() > 1;
+			List<Postings> lists = new ArrayList<>(words.size());
+			for (int i = 0; i < words.size(); i++) {
+				Postings p = i < words.size() - 1 || range == null ? tokens.get(words.get(i))
+						: range.isEmpty() ? null : range.firstEntry().getValue();
+				if (p == null)
+					return new SearchResult(Collections.emptyList(), 0);
+				if (i < words.size() - 1 || !merge)
+					lists.add(p);
+			}
+			long[] prefix = merge ? union(range.values()) : null;
+			if (lists.isEmpty())
+				return resolve(prefix, limit);
+
+			// Intersect starting with the shortest posting list
+			Postings shortest = lists.get(0);
+			for (Postings p : lists)
+				if (p.size < shortest.size)
+					shortest = p;
+			int[] result = Arrays.copyOf(shortest.slots, shortest.size);
+			int size = shortest.size;
+			for (Postings p : lists)
+				if (p != shortest && size > 0)
+					size = intersect(result, size, p.slots, p.size);
+			if (prefix != null) {
+				int n = 0;
+				for (int i = 0; i < size; i++)
+					if ((prefix[result[i] >>> 6] & 1L << result[i]) != 0)
+						result[n++] = result[i];
+				size = n;
+			}
+			return new SearchResult(resolve(result, size, limit), size);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return Number of indexed tracks and folders
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slotsByUuid.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return Bit set of the slots in any of the lists, one bit per slot
+	 */
+	private long[] union(Collection<Postings> lists) {
+		long[] bits = new long[(slotCount + 63) >>> 6];
+		for (Postings p : lists)
+			for (int i = 0; i < p.size; i++)
+				bits[p.slots[i] >>> 6] |= 1L << p.slots[i];
+		return bits;
+	}
+
+	private SearchResult resolve(long[] bits, int limit) {
+		List<SinusbotAPI.Track> tracks = new ArrayList<>();
+		int total = 0;
+		for (int i = 0; i < bits.length; i++) {
+			long word = bits[i];
+			total += Long.bitCount(word);
+			for (; word != 0 && tracks.size() < limit; word &= word - 1)
+				tracks.add(slots[i << 6 | Long.numberOfTrailingZeros(word)]);
+		}
+		return new SearchResult(tracks, total);
+	}
+
+	private List<SinusbotAPI.Track> resolve(int[] slotList, int size, int limit) {
+		List<SinusbotAPI.Track> tracks = new ArrayList<>(Math.min(size, limit));
+		for (int i = 0; i < size && tracks.size() < limit; i++)
+			tracks.add(slots[slotList[i]]);
+		return tracks;
+	}
+
+	private static int intersect(int[] a, int aSize, int[] b, int bSize) {
+		int i = 0, j = 0, n = 0;
+		while (i < aSize && j < bSize) {
+			if (a[i] < b[j])
+				i++;
+			else if (a[i] > b[j])
+				j++;
+			else {
+				a[n++] = a[i++];
+				j++;
+			}
+		}
+		return n;
+	}
+
+	private void add(SinusbotAPI.Track track) {
+		int slot;
+		if (freeCount > 0) {
+			slot = freeSlots[--freeCount];
+		} else {
+			if (slotCount == slots.length)
+				slots = Arrays.copyOf(slots, slots.length * 2);
+			slot = slotCount++;
+		}
+		slots[slot] = track;
+		slotsByUuid.put(track.uuid(), slot);
+		index(slot);
+	}
+
+	private void remove(int slot) {
+		unindex(slot);
+		slotsByUuid.remove(slots[slot].uuid());
+		slots[slot] = null;
+		if (freeCount == freeSlots.length)
+			freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+		freeSlots[freeCount++] = slot;
+	}
+
+	private void index(int slot) {
+		SinusbotAPI.Track track = slots[slot];
+		for (String token : trackTokens(track))
+			tokens.computeIfAbsent(token, k -> new Postings()).add(slot);
+		children.computeIfAbsent(parentOf(track), k -> new Postings()).add(slot);
+	}
+
+	private void unindex(int slot) {
+		SinusbotAPI.Track track = slots[slot];
+		for (String token : trackTokens(track)) {
+			Postings p = tokens.get(token);
+			if (p != null && p.remove(slot))
+				tokens.remove(token);
+		}
+		Postings p = children.get(parentOf(track));
+		if (p != null && p.remove(slot))
+			children.remove(parentOf(track));
+	}
+
+	private static String parentOf(SinusbotAPI.Track track) {
+		return track.parent() == null ? "" : track.parent();
+	}
+
+	private static Set<String> trackTokens(SinusbotAPI.Track track) {
+		Set<String> set = new TreeSet<>();
+		set.addAll(tokenize(track.title()));
+		set.addAll(tokenize(track.artist()));
+		set.addAll(tokenize(track.album()));
+		return set;
+	}
+
+	/**
+	 * Splits text into lower case words without accents
+	 */
+	static List<String> tokenize(String text) {
+		if (text == null || text.isEmpty())
+			return Collections.emptyList();
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+		List<String> words = new ArrayList<>();
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < normalized.length(); i++) {
+			char c = normalized.charAt(i);
+			if (Character.getType(c) == Character.NON_SPACING_MARK)
+				continue;
+			if (Character.isLetterOrDigit(c)) {
+				sb.append(c);
+			} else if (sb.length() > 0) {
+				words.add(sb.toString());
+				sb.setLength(0);
+			}
+		}
+		if (sb.length() > 0)
+			words.add(sb.toString());
+		return words;
+	}
+
+	/**
+	 * Sorted set of slots
+	 */
+	private static final class Postings {
+		int[] slots = new int[4];
+		int size;
+
+		void add(int slot) {
+			int i = Arrays.binarySearch(slots, 0, size, slot);
+			if (i >= 0)
+				return;
+			i = -i - 1;
+			if (size == slots.length)
+				slots = Arrays.copyOf(slots, size * 2);
+			System.arraycopy(slots, i, slots, i + 1, size - i);
+			slots[i] = slot;
+			size++;
+		}
+
+		/**
+		 * @return True if the set is empty afterwards
+		 */
+		boolean remove(int slot) {
+			int i = Arrays.binarySearch(slots, 0, size, slot);
+			if (i >= 0) {
+				System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+				size--;
+			}
+			return size == 0;
+		}
+	}
+}
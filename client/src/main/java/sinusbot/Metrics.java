@@ -0,0 +1,502 @@
+package sinusbot;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Request metrics per endpoint template, e.g. "GET /bot/i/:instanceId/status", see {@link SinusbotAPI#setMetrics(Metrics)}.
+ * Every request sent to the sinusbot is counted with its latency until the response has been read, its request and
+ * response bytes before and after decompression and whether it failed or timed out. Responses served from the cache or shared with a concurrent
+ * identical request are not sent and not counted. Recording takes a few counter increments, it can stay enabled.
+ * Streams like the live audio are measured until their response headers arrived, their lifetime is not a latency.
+ */
+public class Metrics {
+	// Latency buckets in microseconds, 8 linear buckets per power of two keep the error of a percentile below 12.5%
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 36; // about 19 hours
+	private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+	private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private volatile String jmxClient;
+
+	/**
+	 * Receives every completed request, called on the thread that completed it and must return quickly
+	 */
+	@FunctionalInterface
+	public interface Listener {
+		void completed(Sample sample);
+	}
+
+	/**
+	 * A completed request
+	 * @param endpoint Endpoint template, e.g. "GET /bot/i/:instanceId/status"
+	 * @param nanos Time from sending the request until the response has been read or the request failed, until the
+	 * response headers arrived for streams
+	 * @param requestBytes Length of the request body
+	 * @param responseBytes Bytes of the response body that have been read, after decompression
+	 * @param responseWireBytes Bytes of the response body received over the connection, less than responseBytes if it was compressed
+	 * @param error Cause of the failure, null if the request succeeded. A {@link SinusbotTransport.StatusException} carries the HTTP status
+	 */
+	public record Sample(String endpoint, long nanos, long requestBytes, long responseBytes, long responseWireBytes, Exception error) {
+	}
+
+	/**
+	 * Counters of an endpoint as exposed through JMX
+	 */
+	public interface StatsMXBean {
+		String getEndpoint();
+
+		long getRequests();
+
+		long getErrors();
+
+		long getTimeouts();
+
+		long getCancelled();
+
+		long getRejected();
+
+		long getInFlight();
+
+		long getRequestBytes();
+
+		long getResponseBytes();
+
+		long getResponseWireBytes();
+
+		double getCompressionRatio();
+
+		double getMeanMillis();
+
+		double getP50Millis();
+
+		double getP90Millis();
+
+		double getP99Millis();
+
+		double getP999Millis();
+
+		double getMaxMillis();
+	}
+
+	/**
+	 * @param listener Receives every completed request
+	 */
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @return Live counters per endpoint template, sorted by template
+	 */
+	public Map<String, Stats> stats() {
+		return new TreeMap<>(stats);
+	}
+
+	/**
+	 * @param endpoint Endpoint template, e.g. "GET /bot/i/:instanceId/status"
+	 * @return Live counters of the endpoint, null if no request has been sent to it yet
+	 */
+	public Stats stats(String endpoint) {
+		return stats.get(endpoint);
+	}
+
+	/**
+	 * Registers an MXBean per endpoint with the platform MBean server, named
+	 * sinusbot:type=Endpoint,client=&lt;client&gt;,name="&lt;template&gt;". Endpoints used later are registered when first used.
+	 * @param client Name distinguishing this client from others in the same JVM, e.g. the host name
+	 */
+	public synchronized void registerMBeans(String client) {
+		unregisterMBeans();
+		jmxClient = client;
+		for (Stats s : stats.values())
+			register(client, s);
+	}
+
+	/**
+	 * Removes the MXBeans registered by {@link #registerMBeans(String)}
+	 */
+	public synchronized void unregisterMBeans() {
+		String client = jmxClient;
+		if (client == null)
+			return;
+		jmxClient = null;
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (Stats s : stats.values()) {
+			try {
+				ObjectName name = objectName(client, s.endpoint);
+				if (server.isRegistered(name))
+					server.unregisterMBean(name);
+			} catch (JMException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static ObjectName objectName(String client, String endpoint) throws JMException {
+		return new ObjectName("sinusbot:type=Endpoint,client=" + ObjectName.quote(client) + ",name=" + ObjectName.quote(endpoint));
+	}
+
+	private static void register(String client, Stats s) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(s, objectName(client, s.endpoint));
+		} catch (JMException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private Stats statsFor(String endpoint) {
+		Stats s = stats.get(endpoint);
+		if (s != null)
+			return s;
+		synchronized (this) {
+			s = stats.get(endpoint);
+			if (s == null) {
+				s = new Stats(endpoint);
+				stats.put(endpoint, s);
+				if (jmxClient != null)
+					register(jmxClient, s);
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Sends a request and records it once the returned stream is closed
+	 * @param endpoint Endpoint of the request, counted under its template
+	 * @param requestBytes Length of the request body
+	 */
+	InputStream record(Endpoints.Endpoint endpoint, long requestBytes, ConcurrencyLimiter.Request request) throws IOException {
+		Stats s = statsFor(endpoint.template());
+		s.inFlight.increment();
+		long start = System.nanoTime();
+		InputStream in;
+		try {
+			in = request.send();
+		} catch (IOException | RuntimeException e) {
+			complete(s, System.nanoTime() - start, requestBytes, 0, 0, e);
+			throw e;
+		}
+		// A stream stays open as long as it is consumed, only the time until it started says something about the sinusbot
+		long headers = endpoint.streaming() ? System.nanoTime() - start : -1;
+		return new MeasuredInputStream(in, s, start, headers, requestBytes);
+	}
+
+	/**
+	 * Records a request whose response has been read elsewhere, e.g. one of a pipelined batch
+	 */
+	void record(String endpoint, long nanos, long requestBytes, long responseBytes, Exception error) {
+		Stats s = statsFor(endpoint);
+		s.inFlight.increment();
+		complete(s, nanos, requestBytes, responseBytes, responseBytes, error);
+	}
+
+	/**
+	 * Counts a request the ConcurrencyLimiter rejected before sending it
+	 */
+	void rejected(String endpoint) {
+		statsFor(endpoint).rejected.increment();
+	}
+
+	private void complete(Stats s, long nanos, long requestBytes, long responseBytes, long responseWireBytes, Exception error) {
+		s.inFlight.decrement();
+		s.requests.increment();
+		s.requestBytes.add(requestBytes);
+		s.responseBytes.add(responseBytes);
+		s.responseWireBytes.add(responseWireBytes);
+		if (error instanceof InterruptedIOException && !(error instanceof SocketTimeoutException)) {
+			// Cancelled by the caller, e.g. the slower request of a hedged read, neither a failure nor a known latency
+			s.cancelled.increment();
+		} else {
+			s.record(nanos);
+			if (error != null)
+				s.errors.increment();
+		}
+		if (error instanceof HttpTimeoutException || error instanceof SocketTimeoutException)
+			s.timeouts.increment();
+		if (listeners.isEmpty())
+			return;
+		Sample sample = new Sample(s.endpoint, nanos, requestBytes, responseBytes, responseWireBytes, error);
+		for (Listener listener : listeners) {
+			try {
+				listener.completed(sample);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static int bucket(long micros) {
+		if (micros < SUB_BUCKETS)
+			return (int) Math.max(micros, 0);
+		int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+		int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * @return Largest value in microseconds that falls into the bucket
+	 */
+	private static long bucketLimit(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long lower = (long) (SUB_BUCKETS | bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+		return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/**
+	 * Live counters and latency histogram of an endpoint
+	 */
+	public static final class Stats implements StatsMXBean {
+		private final String endpoint;
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder timeouts = new LongAdder();
+		private final LongAdder cancelled = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+		private final LongAdder inFlight = new LongAdder();
+		private final LongAdder requestBytes = new LongAdder();
+		private final LongAdder responseBytes = new LongAdder();
+		private final LongAdder responseWireBytes = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+		Stats(String endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		void record(long nanos) {
+			totalNanos.add(nanos);
+			buckets.incrementAndGet(bucket(nanos / 1000));
+			long max = maxNanos.get();
+			while (nanos > max && !maxNanos.compareAndSet(max, nanos))
+				max = maxNanos.get();
+		}
+
+		/**
+		 * @param percentile Percentile between 0 and 100, e.g. 99.9
+		 * @return Latency in microseconds that the given share of the requests stayed below, 0 without requests
+		 */
+		public long percentileMicros(double percentile) {
+			long[] counts = new long[BUCKETS];
+			long total = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				counts[i] = buckets.get(i);
+				total += counts[i];
+			}
+			if (total == 0)
+				return 0;
+			long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += counts[i];
+				if (seen >= rank)
+					return Math.min(bucketLimit(i), maxNanos.get() / 1000);
+			}
+			return maxNanos.get() / 1000;
+		}
+
+		@Override
+		public String getEndpoint() {
+			return endpoint;
+		}
+
+		@Override
+		public long getRequests() {
+			return requests.sum();
+		}
+
+		/**
+		 * @return Failed requests including timeouts and error responses like 401 or 500
+		 */
+		@Override
+		public long getErrors() {
+			return errors.sum();
+		}
+
+		@Override
+		public long getTimeouts() {
+			return timeouts.sum();
+		}
+
+		/**
+		 * @return Requests interrupted before their response arrived, e.g. the slower request of a hedged read. They are
+		 * neither counted as errors nor in the latency histogram
+		 */
+		@Override
+		public long getCancelled() {
+			return cancelled.sum();
+		}
+
+		/**
+		 * @return Requests the ConcurrencyLimiter rejected without sending them
+		 */
+		@Override
+		public long getRejected() {
+			return rejected.sum();
+		}
+
+		@Override
+		public long getInFlight() {
+			return inFlight.sum();
+		}
+
+		@Override
+		public long getRequestBytes() {
+			return requestBytes.sum();
+		}
+
+		@Override
+		public long getResponseBytes() {
+			return responseBytes.sum();
+		}
+
+		@Override
+		public long getResponseWireBytes() {
+			return responseWireBytes.sum();
+		}
+
+		/**
+		 * @return Decoded response bytes per byte received, 1 if no response has been compressed
+		 */
+		@Override
+		public double getCompressionRatio() {
+			long wire = responseWireBytes.sum();
+			return wire == 0 ? 1 : (double) responseBytes.sum() / wire;
+		}
+
+		@Override
+		public double getMeanMillis() {
+			long n = requests.sum() - cancelled.sum();
+			return n <= 0 ? 0 : totalNanos.sum() / 1e6 / n;
+		}
+
+		@Override
+		public double getP50Millis() {
+			return percentileMicros(50) / 1e3;
+		}
+
+		@Override
+		public double getP90Millis() {
+			return percentileMicros(90) / 1e3;
+		}
+
+		@Override
+		public double getP99Millis() {
+			return percentileMicros(99) / 1e3;
+		}
+
+		@Override
+		public double getP999Millis() {
+			return percentileMicros(99.9) / 1e3;
+		}
+
+		@Override
+		public double getMaxMillis() {
+			return maxNanos.get() / 1e6;
+		}
+
+		@Override
+		public String toString() {
+			return "requests=" + getRequests() + ", errors=" + getErrors() + ", timeouts=" + getTimeouts() + ", cancelled=" + getCancelled() + ", rejected=" + getRejected()
+					+ ", inFlight=" + getInFlight() + ", p50=" + getP50Millis() + "ms, p99=" + getP99Millis() + "ms, max=" + getMaxMillis()
+					+ "ms, requestBytes=" + getRequestBytes() + ", responseBytes=" + getResponseBytes()
+					+ ", responseWireBytes=" + getResponseWireBytes();
+		}
+	}
+
+	/**
+	 * Counts the response bytes and records the request when the response is closed
+	 */
+	private final class MeasuredInputStream extends FilterInputStream {
+		private final Stats stats;
+		private final long start;
+		private final long headers;
+		private final long requestBytes;
+		private long read;
+		private IOException failure;
+		private boolean completed;
+
+		/**
+		 * @param headers Latency to record instead of the time until close, -1 to record the time until close
+		 */
+		MeasuredInputStream(InputStream in, Stats stats, long start, long headers, long requestBytes) {
+			super(in);
+			this.stats = stats;
+			this.start = start;
+			this.headers = headers;
+			this.requestBytes = requestBytes;
+		}
+
+		@Override
+		public int read() throws IOException {
+			try {
+				int b = super.read();
+				if (b >= 0)
+					read++;
+				return b;
+			} catch (IOException e) {
+				failure = e;
+				throw e;
+			}
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			try {
+				int n = super.read(b, off, len);
+				if (n > 0)
+					read += n;
+				return n;
+			} catch (IOException e) {
+				failure = e;
+				throw e;
+			}
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			read += skipped;
+			return skipped;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if (!completed) {
+					completed = true;
+					long wire = in instanceof SinusbotTransport.CompressedBody c ? c.wireBytes() : read;
+					complete(stats, headers >= 0 ? headers : System.nanoTime() - start, requestBytes, read, wire, failure);
+				}
+			}
+		}
+	}
+}
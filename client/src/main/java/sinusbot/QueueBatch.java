@@ -0,0 +1,153 @@
+package sinusbot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Collects queue operations for one instance and sends them pipelined. Over http the {@link HttpClientTransport} opens a
+ * new connection for the batch and writes the requests without waiting for the responses, so the batch takes about one
+ * round trip instead of one per operation. A sinusbot closing that connection with "Connection: close" makes it open
+ * another one for the requests left. Over https, or with another transport, the operations are sent one after the
+ * other over the pooled connections. Positions passed to {@link #remove(int)} refer to
+ * the queue as it was before the batch. Removals are sent first, from the highest position to the lowest, followed by
+ * the tracks to add in the order they were added. So no position depends on the outcome of another operation, a failed
+ * operation does not shift the entries removed after it, and every other operation still has its intended effect.
+ */
+public class QueueBatch {
+	private final SinusbotAPI api;
+	private final String instanceId;
+	private final List<Operation> operations = new ArrayList<>();
+	private final Set<Integer> removed = new HashSet<>();
+
+	/**
+	 * An operation of the batch and its outcome
+	 * @param operation Name of the API function, e.g. appendQueue
+	 * @param argument uuid of the track or the queue position as passed to the batch
+	 * @param response Response of the sinusbot, null if the operation failed
+	 * @param error Cause of the failure, null if the operation succeeded
+	 */
+	public record Result(String operation, String argument, JSONObject response, IOException error) {
+		public boolean success() {
+			return error == null;
+		}
+	}
+
+	private record Operation(String endpoint, String argument, int position) {
+	}
+
+	/**
+	 * @param api Client of the sinusbot running the instance
+	 * @param instanceId uuid/id of the instance whose queue is changed
+	 */
+	public QueueBatch(SinusbotAPI api, String instanceId) {
+		this.api = api;
+		this.instanceId = instanceId;
+	}
+
+	/**
+	 * @param uuid Track to add at the end of the queue
+	 * @return This for chaining
+	 */
+	public QueueBatch append(String uuid) {
+		operations.add(new Operation("appendQueue", uuid, -1));
+		return this;
+	}
+
+	/**
+	 * @param uuids Tracks to add at the end of the queue, in this order
+	 * @return This for chaining
+	 */
+	public QueueBatch appendAll(Collection<String> uuids) {
+		for (String uuid : uuids)
+			append(uuid);
+		return this;
+	}
+
+	/**
+	 * @param uuid Track to add at the start of the queue
+	 * @return This for chaining
+	 */
+	public QueueBatch prepend(String uuid) {
+		operations.add(new Operation("prependQueue", uuid, -1));
+		return this;
+	}
+
+	/**
+	 * @param queuePos Position of the entry in the queue as it was before the batch
+	 * @return This for chaining
+	 * @throws IllegalArgumentException If the position is negative or already removed by this batch
+	 */
+	public QueueBatch remove(int queuePos) {
+		if (queuePos < 0 || !removed.add(queuePos))
+			throw new IllegalArgumentException("Queue position " + queuePos + " is negative or already removed");
+		operations.add(new Operation("removeFromQueue", Integer.toString(queuePos), queuePos));
+		return this;
+	}
+
+	/**
+	 * @return Number of operations added so far
+	 */
+	public int size() {
+		return operations.size();
+	}
+
+	/**
+	 * Sends all operations, removals first
+	 * @return Outcome of each operation, in the order they were added
+	 */
+	public List<Result> send() {
+		List<Integer> order = new ArrayList<>(operations.size());
+		for (int i = 0; i < operations.size(); i++)
+			order.add(i);
+		// Removals by descending position, a stable sort keeps the order of the tracks to add
+		order.sort(Comparator.comparingInt((Integer i) -> -operations.get(i).position()));
+		List<String> endpoints = new ArrayList<>(operations.size());
+		List<SinusbotTransport.Call> calls = new ArrayList<>(operations.size());
+		for (int i : order) {
+			Operation op = operations.get(i);
+			Endpoints.Endpoint endpoint = Endpoints.of(op.endpoint());
+			endpoints.add(op.endpoint());
+			calls.add(new SinusbotTransport.Call(endpoint.method(), api.url(path(endpoint, instanceId, op.argument())), null));
+		}
+		List<SinusbotTransport.Reply> replies = api.pipelined(endpoints, calls);
+		Result[] results = new Result[replies.size()];
+		for (int i = 0; i < replies.size(); i++) {
+			Operation op = operations.get(order.get(i));
+			SinusbotTransport.Reply reply = replies.get(i);
+			IOException error = reply.error();
+			JSONObject response = null;
+			if (error == null) {
+				try {
+					response = new JSONObject(new String(reply.body(), StandardCharsets.UTF_8));
+				} catch (JSONException e) {
+					error = new IOException("Invalid response to " + op.endpoint(), e);
+				}
+			}
+			results[order.get(i)] = new Result(op.endpoint(), op.argument(), response, error);
+		}
+		return List.of(results);
+	}
+
+	/**
+	 * @param endpoint Function whose path template is filled
+	 * @param values Values of the path parameters in the order of the template
+	 * @return Path with the parameters replaced by the escaped values
+	 */
+	private static String path(Endpoints.Endpoint endpoint, String... values) {
+		String[] segments = endpoint.path().split("/");
+		int next = 0;
+		for (int i = 0; i < segments.length; i++)
+			if (segments[i].startsWith(":"))
+				segments[i] = SinusbotAPI.pathSegment(values[next++]);
+		return String.join("/", segments);
+	}
+}
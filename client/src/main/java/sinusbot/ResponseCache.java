@@ -0,0 +1,218 @@
+package sinusbot;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in read-through cache for the responses of cacheable endpoints, see {@link SinusbotAPI#setCache(ResponseCache)}.
+ * Entries expire after a per-endpoint TTL and the least recently used entries are evicted once
+ * the cache is full. Calls to mutating endpoints drop the cached responses of the reads they affect,
+ * as listed in {@link Endpoints}. Only the responses of the same host are dropped, and if both calls are for an instance,
+ * only those of the same instance. A call for an instance invalidates reads of the whole host, e.g. getInstances, and a
+ * call for the whole host, e.g. deleteFile, the reads of all its instances.
+ */
+public class ResponseCache {
+	private final int maxEntries;
+	private final long defaultTtl;
+	private final Map<String, Long> ttls = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+	private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+	private final LinkedHashMap<String, Entry> entries;
+
+	/**
+	 * Creates a cache that only caches endpoints configured with {@link #setTtl(String, Duration)}
+	 * @param maxEntries Maximum number of cached responses
+	 */
+	public ResponseCache(int maxEntries) {
+		this(maxEntries, Duration.ZERO);
+	}
+
+	/**
+	 * @param maxEntries Maximum number of cached responses
+	 * @param defaultTtl Time to live for every cacheable endpoint without its own TTL, zero to only cache configured endpoints
+	 */
+	public ResponseCache(int maxEntries, Duration defaultTtl) {
+		if (maxEntries < 1)
+			throw new IllegalArgumentException("maxEntries must be positive");
+		this.maxEntries = maxEntries;
+		this.defaultTtl = defaultTtl.toNanos();
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > ResponseCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Sets the time to live of an endpoint
+	 * @param endpoint Name of the API function, e.g. getFiles
+	 * @param ttl Time to live, zero to not cache the endpoint
+	 * @return This cache
+	 */
+	public ResponseCache setTtl(String endpoint, Duration ttl) {
+		ttls.put(endpoint, ttl.toNanos());
+		return this;
+	}
+
+	/**
+	 * @param endpoint Name of the API function
+	 * @return True if responses of the endpoint are cached
+	 */
+	boolean caches(String endpoint) {
+		return ttl(endpoint) > 0;
+	}
+
+	private long ttl(String endpoint) {
+		return Endpoints.of(endpoint).cacheable() ? ttls.getOrDefault(endpoint, defaultTtl) : 0;
+	}
+
+	/**
+	 * Returns the cached response or loads and caches it
+	 * @param endpoint Name of the API function
+	 * @param url Fully resolved request url, the key of the response, it also determines the host and instance
+	 * @param loader Performs the request, returns null if it failed
+	 * @return Response, null if it could not be loaded
+	 */
+	String get(String endpoint, String url, Supplier<String> loader) {
+		long ttl = ttl(endpoint);
+		if (ttl <= 0)
+			return loader.get();
+
+		Stats s = stats.computeIfAbsent(endpoint, k -> new Stats());
+		Endpoints.Endpoint descriptor = Endpoints.of(endpoint);
+		String[] scope = scope(descriptor, url);
+		AtomicLong hostGeneration = generation(endpoint, scope[0], null);
+		AtomicLong instanceGeneration = scope[1] == null ? null : generation(endpoint, scope[0], scope[1]);
+		long now = System.nanoTime();
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(url);
+		}
+		// Both counters only grow, so their sum changes with either of them
+		long current = hostGeneration.get() + (instanceGeneration == null ? 0 : instanceGeneration.get());
+		if (entry != null && entry.generation == current && now - entry.loaded < ttl) {
+			s.hits.increment();
+			return entry.value;
+		}
+		s.misses.increment();
+
+		// A mutation while loading leaves the entry with an outdated generation
+		long loadGeneration = current;
+		String value = loader.get();
+		if (value != null) {
+			synchronized (entries) {
+				entries.put(url, new Entry(value, now, loadGeneration));
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Drops the cached responses of all reads affected by a mutating endpoint
+	 * @param endpoint Name of the API function that has been called
+	 * @param url Fully resolved url of the call
+	 */
+	void invalidate(String endpoint, String url) {
+		String[] scope = scope(Endpoints.of(endpoint), url);
+		for (String read : Endpoints.of(endpoint).invalidates()) {
+			boolean perInstance = scope[1] != null && Arrays.asList(Endpoints.of(read).path().split("/")).contains(":instanceId");
+			generation(read, scope[0], perInstance ? scope[1] : null).incrementAndGet();
+			stats.computeIfAbsent(read, k -> new Stats()).invalidations.increment();
+		}
+	}
+
+	private AtomicLong generation(String endpoint, String host, String instanceId) {
+		return generations.computeIfAbsent(instanceId == null ? endpoint + " " + host : endpoint + " " + host + " " + instanceId,
+				k -> new AtomicLong());
+	}
+
+	/**
+	 * @param endpoint Function the url has been built from
+	 * @param url Fully resolved url
+	 * @return API url of the host and the instance id, null if the function is not for an instance
+	 */
+	static String[] scope(Endpoints.Endpoint endpoint, String url) {
+		int query = url.indexOf('?');
+		String[] parts = (query < 0 ? url : url.substring(0, query)).split("/");
+		String[] template = endpoint.path().split("/");
+		// The last segments of the url are the filled template, the ones before are the API url
+		int offset = parts.length - template.length;
+		if (offset < 0)
+			return new String[] { url, null };
+		int instance = Arrays.asList(template).indexOf(":instanceId");
+		return new String[] { String.join("/", Arrays.copyOf(parts, offset + 1)), instance < 0 ? null : parts[offset + instance] };
+	}
+
+	/**
+	 * Drops all cached responses
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return Number of cached responses, including expired ones not evicted yet
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * @return Counters per cached endpoint, sorted by endpoint name
+	 */
+	public Map<String, Stats> stats() {
+		return new TreeMap<>(stats);
+	}
+
+	/**
+	 * Hit, miss and invalidation counters of an endpoint
+	 */
+	public static final class Stats {
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+		private final LongAdder invalidations = new LongAdder();
+
+		public long hits() {
+			return hits.sum();
+		}
+
+		public long misses() {
+			return misses.sum();
+		}
+
+		public long invalidations() {
+			return invalidations.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "hits=" + hits() + ", misses=" + misses() + ", invalidations=" + invalidations();
+		}
+	}
+
+	private static final class Entry {
+		final String value;
+		final long loaded;
+		final long generation;
+
+		Entry(String value, long loaded, long generation) {
+			this.value = value;
+			this.loaded = loaded;
+			this.generation = generation;
+		}
+	}
+}
@@ -0,0 +1,2967 @@
+package sinusbot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+public class SinusbotAPI {
+	private final String APISTR = "/api/v1";
+	private static final boolean[] SAFE_PATH = safeChars("-._~!$&'()*+,;=:@");
+	private static final boolean[] SAFE_QUERY = safeChars("-._~!$'()*,;:@/?");
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+	private static final long REFRESH_MARGIN_MILLIS = 60000;
+	private volatile String token;
+	// Time the token is renewed in the background, 0 if its expiry is unknown or a renewal is running
+	private final AtomicLong refreshAt = new AtomicLong();
+	private final Object loginLock = new Object();
+	private final String username;
+	private final String password;
+	private final String botId;
+	private final String baseUrl;
+	private final SinusbotTransport transport;
+	private volatile Executor executor;
+	private volatile ResponseCache cache;
+	private volatile ConcurrencyLimiter limiter;
+	private volatile Metrics metrics;
+	private volatile Hedging hedging;
+	// Reads currently being sent, identical concurrent requests wait for these instead of sending their own
+	private final ConcurrentHashMap<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+	
+	/**
+	 * Constructor automatically logs in and grabs token
+	 * @param ip Address of sinusbot
+	 * @param port Port of sinusbot
+	 * @param username Username to web interface
+	 * @param password Password to web interface
+	 * @param botId Bot id - get via /api/v1/botId
+	 */
+	public SinusbotAPI(String ip, int port, String username, String password, String botId) {
+		this(ip, port, username, password, botId, new HttpClientTransport());
+	}
+	
+	/**
+	 * Constructor automatically logs in and grabs token.
+	 * The credentials are kept to log in again when the token expires.
+	 * @param ip Address of sinusbot
+	 * @param port Port of sinusbot
+	 * @param username Username to web interface
+	 * @param password Password to web interface
+	 * @param botId Bot id - get via /api/v1/botId
+	 * @param transport Transport used for every request, e.g. a HttpClientTransport with custom timeouts and connection limits
+	 */
+	public SinusbotAPI(String ip, int port, String username, String password, String botId, SinusbotTransport transport) {
+		this(ip, port, username, password, botId, transport, true);
+	}
+	
+	private SinusbotAPI(String ip, int port, String username, String password, String botId, SinusbotTransport transport, boolean login) {
+		this.baseUrl = "http://" + (ip.indexOf(':') >= 0 && !ip.startsWith("[") ? "[" + ip + "]" : ip) + ":" + port + APISTR;
+		this.transport = transport;
+		this.username = username;
+		this.password = password;
+		this.botId = botId;
+		if (login && !refreshToken(null))
+			throw new RuntimeException("Login failed!");
+	}
+	
+	/**
+	 * Creates a client that logs in with its first call instead of in the constructor, so creating it neither blocks
+	 * nor fails if the sinusbot is unreachable. Concurrent first calls share one login, a failed login makes the call
+	 * fail and the next call tries again. {@link #warmUp()} logs in ahead of the first call.
+	 * @param ip Address of sinusbot
+	 * @param port Port of sinusbot
+	 * @param username Username to web interface
+	 * @param password Password to web interface
+	 * @param botId Bot id - get via /api/v1/botId
+	 * @param transport Transport used for every request
+	 * @return Client that has not logged in yet
+	 */
+	public static SinusbotAPI lazy(String ip, int port, String username, String password, String botId, SinusbotTransport transport) {
+		return new SinusbotAPI(ip, port, username, password, botId, transport, false);
+	}
+	
+	/**
+	 * Logs in on the executor of the asynchronous calls unless there already is a token. The login opens a connection
+	 * that stays in the pool, so the first call neither waits for the login nor for a connection.
+	 * @return Future completed with true once logged in, false if the login failed
+	 */
+	public CompletableFuture<Boolean> warmUp() {
+		return CompletableFuture.supplyAsync(() -> token != null || refreshToken(null), executor());
+	}
+	
+	/**
+	 * Logs in again unless another thread already replaced the token, concurrent callers wait for the running login
+	 * @param expired Token that has been rejected or is about to expire
+	 * @return True if a new token is available
+	 */
+	private boolean refreshToken(String expired) {
+		synchronized (loginLock) {
+			if (!Objects.equals(token, expired))
+				return true;
+			JSONObject loginObj = login(username, password, botId);
+			if (loginObj == null || !loginObj.has("token"))
+				return false;
+			String newToken = loginObj.getString("token");
+			long expiry = tokenExpiry(newToken);
+			token = newToken;
+			refreshAt.set(expiry > 0 ? Math.max(expiry - REFRESH_MARGIN_MILLIS, 1) : 0);
+			return true;
+		}
+	}
+	
+	/**
+	 * @return Expiry of a JWT token in milliseconds since the epoch, 0 if unknown
+	 */
+	private static long tokenExpiry(String token) {
+		String[] parts = token.split("[.]");
+		if (parts.length != 3)
+			return 0;
+		try {
+			String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+			return new JSONObject(payload).optLong("exp", 0) * 1000;
+		} catch (IllegalArgumentException | JSONException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Sets the executor the asynchronous *Async methods block on.
+	 * Defaults to a shared cached pool of daemon threads, on Java 21+ Executors.newVirtualThreadPerTaskExecutor() is a good fit.
+	 * @param executor Executor for asynchronous calls, null to use the default
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+	
+	/**
+	 * Enables caching of GET responses, mutating calls through this instance invalidate the affected entries
+	 * @param cache Cache to use, null to disable caching
+	 */
+	public void setCache(ResponseCache cache) {
+		this.cache = cache;
+	}
+	
+	/**
+	 * Limits the concurrent requests to the sinusbot, share the limiter between all instances connected to the same host
+	 * @param limiter Limiter to use, null to send every request right away
+	 */
+	public void setLimiter(ConcurrencyLimiter limiter) {
+		this.limiter = limiter;
+	}
+	
+	/**
+	 * Records latency, bytes and errors of every request sent, share the metrics between instances to aggregate them
+	 * @param metrics Metrics to record to, null to disable recording
+	 */
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Sends a second request for idempotent reads that take longer than most, the request answered first is used.
+	 * The requests run on the executor of the asynchronous calls while the caller waits, so a bounded executor needs
+	 * room for two requests per concurrent read.
+	 * @param hedging Hedging policy, null to send every request once
+	 */
+	public void setHedging(Hedging hedging) {
+		this.hedging = hedging;
+	}
+	
+	/**
+	 * @return Executor of the asynchronous calls, also used by companion classes like FleetMonitor
+	 */
+	Executor executor() {
+		Executor e = executor;
+		return e != null ? e : DefaultExecutor.INSTANCE;
+	}
+	
+	private static final class DefaultExecutor {
+		static final ExecutorService INSTANCE = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "sinusbot-async");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	private static boolean[] safeChars(String extra) {
+		boolean[] safe = new boolean[128];
+		for (char c = 'a'; c <= 'z'; c++)
+			safe[c] = true;
+		for (char c = 'A'; c <= 'Z'; c++)
+			safe[c] = true;
+		for (char c = '0'; c <= '9'; c++)
+			safe[c] = true;
+		for (char c : extra.toCharArray())
+			safe[c] = true;
+		return safe;
+	}
+	
+	static String pathSegment(String value) {
+		return percentEncode(value, SAFE_PATH);
+	}
+	
+	static String queryValue(String value) {
+		return percentEncode(value, SAFE_QUERY);
+	}
+	
+	private static String percentEncode(String value, boolean[] safe) {
+		int i = 0;
+		while (i < value.length() && value.charAt(i) < 128 && safe[value.charAt(i)])
+			i++;
+		if (i == value.length())
+			return value;
+		StringBuilder sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+		for (byte b : value.substring(i).getBytes(StandardCharsets.UTF_8)) {
+			int c = b & 0xff;
+			if (c < 128 && safe[c])
+				sb.append((char) c);
+			else
+				sb.append('%').append(HEX[c >> 4]).append(HEX[c & 0xf]);
+		}
+		return sb.toString();
+	}
+
+	private InputStream apirequest(String endpoint, String url, byte[] body, String requestMethod) throws IOException {
+		return authorized(endpoint, body == null ? 0 : body.length, t -> transport.send(requestMethod, url, t, body));
+	}
+	
+	/**
+	 * Sends a request with the current token, logs in again and repeats it once if the token has been rejected
+	 */
+	private InputStream authorized(String endpoint, long requestBytes, TokenRequest request) throws IOException {
+		String t = token != null || endpoint.equals("login") ? token : firstLogin();
+		long r = refreshAt.get();
+		if (r != 0 && System.currentTimeMillis() >= r && refreshAt.compareAndSet(r, 0))
+			CompletableFuture.runAsync(() -> refreshToken(t), executor());
+		try {
+			return limited(endpoint, requestBytes, () -> request.send(t));
+		} catch (SinusbotTransport.StatusException e) {
+			if (e.statusCode() != 401 || endpoint.equals("login") || !refreshToken(t))
+				throw e;
+		} catch (IOException e) {
+			if (!retriable(endpoint, e))
+				throw e;
+		}
+		// Replay once with the new token, or after the connection failed
+		String renewed = token;
+		return limited(endpoint, requestBytes, () -> request.send(renewed));
+	}
+	
+	private InputStream limited(String endpoint, long requestBytes, ConcurrencyLimiter.Request request) throws IOException {
+		Metrics m = metrics;
+		ConcurrencyLimiter l = limiter;
+		Hedging h = hedging;
+		ConcurrencyLimiter.Request measured = m == null ? request : () -> m.record(Endpoints.of(endpoint), requestBytes, request);
+		ConcurrencyLimiter.Request attempt = l == null ? measured : () -> {
+			try {
+				return l.send(endpoint, measured);
+			} catch (ConcurrencyLimiter.RejectedException e) {
+				if (m != null)
+					m.rejected(Endpoints.of(endpoint).template());
+				throw e;
+			}
+		};
+		return h == null ? attempt.send() : h.send(endpoint, attempt, executor());
+	}
+	
+	/**
+	 * Sends a file as the body of a POST request and decodes the response, used by Uploader
+	 * @param endpoint Name of the API function
+	 * @param path Request path below the API url, including the query
+	 * @param progress Receives the number of bytes sent so far, may be null
+	 */
+	<T> T postFile(String endpoint, String path, Path file, LongConsumer progress, JsonReader.Decoder<T> decoder) throws IOException {
+		ResponseCache c = cache;
+		try (JsonReader reader = new JsonReader(new InputStreamReader(
+				authorized(endpoint, Files.size(file), t -> transport.send("POST", baseUrl + path, t, file, progress)), StandardCharsets.UTF_8))) {
+			return decoder.read(reader);
+		} finally {
+			if (c != null)
+				c.invalidate(endpoint, baseUrl + path);
+		}
+	}
+	
+	/**
+	 * Sends requests in order without waiting for each response, used by QueueBatch.
+	 * Requests rejected with 401 are repeated once with a new token. The limiter does not apply, the transport opens a
+	 * connection of its own for the batch, see {@link SinusbotTransport#sendPipelined}. Over https the requests are sent
+	 * one after the other. Metrics record every request with the time of the batch split evenly between them.
+	 * @param endpoints Name of the API function of each call
+	 * @param calls Requests in the order the sinusbot has to process them
+	 * @return Response of each call, in the same order
+	 */
+	List<SinusbotTransport.Reply> pipelined(List<String> endpoints, List<SinusbotTransport.Call> calls) {
+		if (token == null)
+			refreshToken(null);
+		String t = token;
+		long start = System.nanoTime();
+		List<SinusbotTransport.Reply> replies = new ArrayList<>(transport.sendPipelined(calls, t));
+		List<Integer> rejected = new ArrayList<>();
+		for (int i = 0; i < replies.size(); i++)
+			if (replies.get(i).error() instanceof SinusbotTransport.StatusException e && e.statusCode() == 401)
+				rejected.add(i);
+		if (!rejected.isEmpty() && refreshToken(t)) {
+			List<SinusbotTransport.Call> again = new ArrayList<>(rejected.size());
+			for (int i : rejected)
+				again.add(calls.get(i));
+			List<SinusbotTransport.Reply> retried = transport.sendPipelined(again, token);
+			for (int i = 0; i < rejected.size(); i++)
+				replies.set(rejected.get(i), retried.get(i));
+		}
+		Metrics m = metrics;
+		if (m != null) {
+			long nanos = (System.nanoTime() - start) / Math.max(calls.size(), 1);
+			for (int i = 0; i < calls.size(); i++) {
+				SinusbotTransport.Reply reply = replies.get(i);
+				byte[] body = calls.get(i).body();
+				m.record(Endpoints.of(endpoints.get(i)).template(), nanos, body == null ? 0 : body.length,
+						reply.body() == null ? 0 : reply.body().length, reply.error());
+			}
+		}
+		ResponseCache c = cache;
+		if (c != null)
+			for (int i = 0; i < calls.size(); i++)
+				c.invalidate(endpoints.get(i), calls.get(i).url());
+		return replies;
+	}
+	
+	/**
+	 * @param path Request path below the API url, e.g. /bot/files
+	 * @return Full request url
+	 */
+	String url(String path) {
+		return baseUrl + path;
+	}
+	
+	/**
+	 * Idempotent requests are sent again after a connection failure, e.g. a kept-alive connection the sinusbot had closed.
+	 * GET requests are left out, the HttpClient already repeats them, and so are reads sent by {@link Hedging}, whose
+	 * second request is the repetition. Timeouts are not repeated, the sinusbot may still be working on the request.
+	 */
+	private boolean retriable(String endpoint, IOException e) {
+		Endpoints.Endpoint descriptor = Endpoints.of(endpoint);
+		return descriptor.idempotent() && !descriptor.method().equals("GET") && (hedging == null || !Hedging.hedgeable(descriptor))
+				&& !(e instanceof HttpTimeoutException || e instanceof InterruptedIOException || e instanceof ConcurrencyLimiter.RejectedException);
+	}
+	
+	/**
+	 * Logs in for the first call of a client created with {@link #lazy}
+	 * @return The new token
+	 */
+	private String firstLogin() throws IOException {
+		if (!refreshToken(null))
+			throw new IOException("Login failed!");
+		return token;
+	}
+	
+	@FunctionalInterface
+	private interface TokenRequest {
+		InputStream send(String token) throws IOException;
+	}
+
+	private String apicall(String endpoint, String url, byte[] body, String requestMethod) {
+		ResponseCache c = cache;
+		if (Endpoints.of(endpoint).read()) {
+			Supplier<String> call = () -> coalesce(flightKey("S", url, body), () -> apicallUncached(endpoint, url, body, requestMethod));
+			return c == null ? call.get() : c.get(endpoint, url, call);
+		}
+		if (c == null)
+			return apicallUncached(endpoint, url, body, requestMethod);
+		try {
+			return apicallUncached(endpoint, url, body, requestMethod);
+		} finally {
+			c.invalidate(endpoint, url);
+		}
+	}
+	
+	private String apicallUncached(String endpoint, String url, byte[] body, String requestMethod) {
+		try (InputStream in = apirequest(endpoint, url, body, requestMethod)) {
+			BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+			
+			return br.lines().collect(Collectors.joining());
+			
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+	
+	private JSONObject apicallObject(String endpoint, String url, byte[] body, String requestMethod) {
+		String jsonStr = apicall(endpoint, url, body, requestMethod);
+		if (jsonStr != null)
+			return new JSONObject(jsonStr);
+		return null;
+	}
+	
+	private JSONArray apicallArray(String endpoint, String url, byte[] body, String requestMethod) {
+		String jsonStr = apicall(endpoint, url, body, requestMethod);
+		if (jsonStr != null)
+			return new JSONArray(jsonStr);
+		return null;
+	}
+	
+	private InputStream apicallRaw(String endpoint, String url, byte[] body, String requestMethod) {
+		try {
+			return apirequest(endpoint, url, body, requestMethod);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+	
+	private Stream<JSONObject> apicallStream(String endpoint, String url, byte[] body, String requestMethod) {
+		InputStream in;
+		try {
+			in = apirequest(endpoint, url, body, requestMethod);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+		JSONArrayIterator it = new JSONArrayIterator(in);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(it::close);
+	}
+	
+	private <T> T apicallTyped(String endpoint, String url, byte[] body, String requestMethod, JsonReader.Decoder<T> decoder) {
+		ResponseCache c = cache;
+		if (c != null && (!Endpoints.of(endpoint).read() || c.caches(endpoint))) {
+			String jsonStr = apicall(endpoint, url, body, requestMethod);
+			if (jsonStr == null)
+				return null;
+			try (JsonReader reader = new JsonReader(new StringReader(jsonStr))) {
+				return decoder.read(reader);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			return null;
+		}
+		if (Endpoints.of(endpoint).read())
+			return coalesce(flightKey("T", url, body), () -> apicallDecoded(endpoint, url, body, requestMethod, decoder));
+		return apicallDecoded(endpoint, url, body, requestMethod, decoder);
+	}
+	
+	private <T> T apicallDecoded(String endpoint, String url, byte[] body, String requestMethod, JsonReader.Decoder<T> decoder) {
+		try (JsonReader reader = new JsonReader(new InputStreamReader(apirequest(endpoint, url, body, requestMethod), StandardCharsets.UTF_8))) {
+			return decoder.read(reader);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+	
+	private static String flightKey(String kind, String url, byte[] body) {
+		return body == null ? kind + " " + url : kind + " " + url + " " + new String(body, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Sends a request only if no identical one is in flight, otherwise waits for the result of the running one.
+	 * Only used for reads, whose results are either immutable or the raw response text.
+	 * @param key Key of the request, raw and decoded results must not share keys
+	 * @param call Sends the request
+	 * @return Result of the request that has been sent
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T coalesce(String key, Supplier<T> call) {
+		CompletableFuture<Object> own = new CompletableFuture<>();
+		CompletableFuture<Object> running = inflight.putIfAbsent(key, own);
+		if (running != null)
+			return (T) running.join();
+		try {
+			T result = call.get();
+			own.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			inflight.remove(key, own);
+		}
+	}
+	
+	/**
+	 * Parses the objects of a JSON array one at a time off the response stream.
+	 * The response is closed as soon as the closing bracket has been read.
+	 */
+	private static final class JSONArrayIterator implements Iterator<JSONObject> {
+		private final InputStream in;
+		private final JSONTokener tokener;
+		private JSONObject next;
+		private boolean done;
+		
+		JSONArrayIterator(InputStream in) {
+			this.in = in;
+			this.tokener = new JSONTokener(new InputStreamReader(in, StandardCharsets.UTF_8));
+			try {
+				if (tokener.nextClean() != '[')
+					throw tokener.syntaxError("A JSONArray text must start with '['");
+				if (tokener.nextClean() == ']')
+					close();
+				else
+					tokener.back();
+			} catch (JSONException e) {
+				close();
+				throw e;
+			}
+		}
+		
+		@Override
+		public boolean hasNext() {
+			if (next == null && !done) {
+				try {
+					next = new JSONObject(tokener);
+					char c = tokener.nextClean();
+					if (c == ']')
+						close();
+					else if (c != ',')
+						throw tokener.syntaxError("Expected a ',' or ']'");
+				} catch (JSONException e) {
+					close();
+					throw e;
+				}
+			}
+			return next != null;
+		}
+		
+		@Override
+		public JSONObject next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			JSONObject obj = next;
+			next = null;
+			return obj;
+		}
+		
+		void close() {
+			if (done)
+				return;
+			done = true;
+			try {
+				in.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	
+	/**
+	 * Avatars - Remove avatar 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject avatarDelete(String instanceId) {
+		return apicallObject("avatarDelete", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/avatar", null, "DELETE");
+	}
+
+	/**
+	 * Avatars - Remove avatar - asynchronous variant of {@link #avatarDelete}
+	 * @return Future completed with the result of {@link #avatarDelete}
+	 */
+	public CompletableFuture<JSONObject> avatarDeleteAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> avatarDelete(instanceId), executor());
+	}
+
+	/**
+	 * Avatars - Upload avatar 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject avatarUpload(String instanceId) {
+		return apicallObject("avatarUpload", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/avatar", null, "POST");
+	}
+
+	/**
+	 * Avatars - Upload avatar - asynchronous variant of {@link #avatarUpload}
+	 * @return Future completed with the result of {@link #avatarUpload}
+	 */
+	public CompletableFuture<JSONObject> avatarUploadAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> avatarUpload(instanceId), executor());
+	}
+
+	/**
+	 * Filelist - Add an URL 
+	 * @param url the actual url you want to add 
+	 * @param title a user defined title that should be displayed 
+	 * @param parent the UUID of the folder the url should be placed into 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject addUrl(String url, String title, String parent) {
+		byte[] body = JsonWriter.object()
+				.field("url", url)
+				.field("title", title)
+				.field("parent", parent)
+				.toByteArray();
+		
+		return apicallObject("addUrl", baseUrl + "/bot/url", body, "POST");
+	}
+
+	/**
+	 * Filelist - Add an URL - asynchronous variant of {@link #addUrl}
+	 * @return Future completed with the result of {@link #addUrl}
+	 */
+	public CompletableFuture<JSONObject> addUrlAsync(String url, String title, String parent) {
+		return CompletableFuture.supplyAsync(() -> addUrl(url, title, parent), executor());
+	}
+
+	/**
+	 * Filelist - Create folder 
+	 * @param name name of the folder to be created 
+	 * @param parent uuid of the parent folder 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject createFolder(String name, String parent) {
+		byte[] body = JsonWriter.object()
+				.field("name", name)
+				.field("parent", parent)
+				.toByteArray();
+		
+		return apicallObject("createFolder", baseUrl + "/bot/folders", body, "POST");
+	}
+
+	/**
+	 * Filelist - Create folder - asynchronous variant of {@link #createFolder}
+	 * @return Future completed with the result of {@link #createFolder}
+	 */
+	public CompletableFuture<JSONObject> createFolderAsync(String name, String parent) {
+		return CompletableFuture.supplyAsync(() -> createFolder(name, parent), executor());
+	}
+
+	/**
+	 * Filelist - Delete file 
+	 * @param id uuid of the file that should be deleted 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject deleteFile(String id) {
+		return apicallObject("deleteFile", baseUrl + "/bot/files/" + pathSegment(id), null, "DELETE");
+	}
+
+	/**
+	 * Filelist - Delete file - asynchronous variant of {@link #deleteFile}
+	 * @return Future completed with the result of {@link #deleteFile}
+	 */
+	public CompletableFuture<JSONObject> deleteFileAsync(String id) {
+		return CompletableFuture.supplyAsync(() -> deleteFile(id), executor());
+	}
+
+	/**
+	 * Filelist - List 
+	 * @return JSONObject with fields <br>
+	 * <b>mediainfo</b> <br>
+	 * <b>mediainfo.uuid</b> the tracks' unique identifier <br>
+	 * <b>mediainfo.parent</b> the tracks' parents' uuid <br>
+	 * <b>mediainfo.type</b> type of the track <br>
+	 * <b>mediainfo.mimeType</b> the recognized mime-type (currently unsupported) <br>
+	 * <b>mediainfo.title</b> <br>
+	 * <b>mediainfo.artist</b> <br>
+	 * <b>mediainfo.tempTitle</b> this will contain the title of the current track in case of radio streams - if supported by the server <br>
+	 * <b>mediainfo.tempArtist</b> this will contain the artist of the current track in case of radio streams - if supported by the server <br>
+	 * <b>mediainfo.album</b> <br>
+	 * <b>mediainfo.albumArtist</b> <br>
+	 * <b>mediainfo.track</b> <br>
+	 * <b>mediainfo.totalTracks</b> <br>
+	 * <b>mediainfo.copyright</b> <br>
+	 * <b>mediainfo.genre</b> <br>
+	 * <b>mediainfo.thumbnail</b> this file will actually be available at /cache/%thumbnail <br>
+	 * <b>mediainfo.codec</b> audio-codec used in the file (currently unsupported) <br>
+	 * <b>mediainfo.duration</b> duration of the track in milliseconds <br>
+	 * <b>mediainfo.bitrate</b> <br>
+	 * <b>mediainfo.channels</b> <br>
+	 * <b>mediainfo.samplerate</b> <br>
+	 * <b>mediainfo.filesize</b> 
+	 */
+	public JSONArray getFiles() {
+		return apicallArray("getFiles", baseUrl + "/bot/files", null, "GET");
+	}
+
+	/**
+	 * Filelist - List - asynchronous variant of {@link #getFiles}
+	 * @return Future completed with the result of {@link #getFiles}
+	 */
+	public CompletableFuture<JSONArray> getFilesAsync() {
+		return CompletableFuture.supplyAsync(() -> getFiles(), executor());
+	}
+
+	/**
+	 * Filelist - List - streaming variant of {@link #getFiles}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getFilesStream() {
+		return apicallStream("getFiles", baseUrl + "/bot/files", null, "GET");
+	}
+
+	/**
+	 * Filelist - List - typed variant of {@link #getFiles}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public List<Track> getFilesTyped() {
+		return apicallTyped("getFiles", baseUrl + "/bot/files", null, "GET", reader -> reader.readList(Track::read));
+	}
+
+	/**
+	 * Filelist - Update file (tags) 
+	 * @param id uuid of the file that should be deleted 
+	 * @param title 
+	 * @param artist 
+	 * @param album 
+	 * @param parent new parent-(folder) of the file 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject updateFile(String id, String title, String artist, String album, String parent) {
+		byte[] body = JsonWriter.object()
+				.field("title", title)
+				.field("artist", artist)
+				.field("album", album)
+				.field("parent", parent)
+				.toByteArray();
+		
+		return apicallObject("updateFile", baseUrl + "/bot/files/" + pathSegment(id), body, "PATCH");
+	}
+
+	/**
+	 * Filelist - Update file (tags) - asynchronous variant of {@link #updateFile}
+	 * @return Future completed with the result of {@link #updateFile}
+	 */
+	public CompletableFuture<JSONObject> updateFileAsync(String id, String title, String artist, String album, String parent) {
+		return CompletableFuture.supplyAsync(() -> updateFile(id, title, artist, album, parent), executor());
+	}
+
+	/**
+	 * Filelist - Upload a file 
+	 * @param filename the original name of the file 
+	 * @param playlist a playlist the file should be added to after upload 
+	 * @param folder the folder UUID the file should be added to after upload 
+	 * @return JSONObject with fields <br>
+	 * <b>uuid</b> the tracks' unique identifier <br>
+	 * <b>parent</b> the tracks' parents' uuid <br>
+	 * <b>type</b> type of the track <br>
+	 * <b>mimeType</b> the recognized mime-type (currently unsupported) <br>
+	 * <b>title</b> <br>
+	 * <b>artist</b> <br>
+	 * <b>tempTitle</b> this will contain the title of the current track in case of radio streams - if supported by the server <br>
+	 * <b>tempArtist</b> this will contain the artist of the current track in case of radio streams - if supported by the server <br>
+	 * <b>album</b> <br>
+	 * <b>albumArtist</b> <br>
+	 * <b>track</b> <br>
+	 * <b>totalTracks</b> <br>
+	 * <b>copyright</b> <br>
+	 * <b>genre</b> <br>
+	 * <b>thumbnail</b> this file will actually be available at /cache/%thumbnail <br>
+	 * <b>codec</b> audio-codec used in the file (currently unsupported) <br>
+	 * <b>duration</b> duration of the track in milliseconds <br>
+	 * <b>bitrate</b> <br>
+	 * <b>channels</b> <br>
+	 * <b>samplerate</b> <br>
+	 * <b>filesize</b> 
+	 */
+	public JSONObject uploadFile(String filename, String playlist, String folder) {
+		byte[] body = JsonWriter.object()
+				.field("filename", filename)
+				.field("playlist", playlist)
+				.field("folder", folder)
+				.toByteArray();
+		
+		return apicallObject("uploadFile", baseUrl + "/bot/upload", body, "POST");
+	}
+
+	/**
+	 * Filelist - Upload a file - asynchronous variant of {@link #uploadFile}
+	 * @return Future completed with the result of {@link #uploadFile}
+	 */
+	public CompletableFuture<JSONObject> uploadFileAsync(String filename, String playlist, String folder) {
+		return CompletableFuture.supplyAsync(() -> uploadFile(filename, playlist, folder), executor());
+	}
+
+	/**
+	 * Filelist - Upload a file - typed variant of {@link #uploadFile}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public Track uploadFileTyped(String filename, String playlist, String folder) {
+		byte[] body = JsonWriter.object()
+				.field("filename", filename)
+				.field("playlist", playlist)
+				.field("folder", folder)
+				.toByteArray();
+		
+		return apicallTyped("uploadFile", baseUrl + "/bot/upload", body, "POST", Track::read);
+	}
+
+	/**
+	 * Filelist - Upload restrictions 
+	 * @return JSONObject with fields <br>
+	 * <b>maxSize</b> the maximum size an uploaded file can have 
+	 */
+	public JSONObject uploadInfo() {
+		return apicallObject("uploadInfo", baseUrl + "/bot/uploadInfo", null, "GET");
+	}
+
+	/**
+	 * Filelist - Upload restrictions - asynchronous variant of {@link #uploadInfo}
+	 * @return Future completed with the result of {@link #uploadInfo}
+	 */
+	public CompletableFuture<JSONObject> uploadInfoAsync() {
+		return CompletableFuture.supplyAsync(() -> uploadInfo(), executor());
+	}
+
+	/**
+	 * General - General Information 
+	 * @return JSONObject with fields <br>
+	 * <b>bot</b> <br>
+	 * <b>system</b> <br>
+	 * <b>system.codecs</b> supported codecs <br>
+	 * <b>system.formats</b> supported formats <br>
+	 * <b>usageMemory</b> used memory from the bot (all instances - excluding client resources) 
+	 */
+	public JSONObject botInfo() {
+		return apicallObject("botInfo", baseUrl + "/bot/info", null, "GET");
+	}
+
+	/**
+	 * General - General Information - asynchronous variant of {@link #botInfo}
+	 * @return Future completed with the result of {@link #botInfo}
+	 */
+	public CompletableFuture<JSONObject> botInfoAsync() {
+		return CompletableFuture.supplyAsync(() -> botInfo(), executor());
+	}
+
+	/**
+	 * General - General Information - typed variant of {@link #botInfo}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public BotInfo botInfoTyped() {
+		return apicallTyped("botInfo", baseUrl + "/bot/info", null, "GET", BotInfo::read);
+	}
+
+	/**
+	 * General - Login 
+	 * @param username the users' account name 
+	 * @param password the users' password 
+	 * @param botId the bot id you want to log in to 
+	 * @return JSONObject with fields <br>
+	 * <b>token</b> authorization token <br>
+	 * <b>botId</b> id of the bot logged in to 
+	 */
+	public JSONObject login(String username, String password, String botId) {
+		byte[] body = JsonWriter.object()
+				.field("username", username)
+				.field("password", password)
+				.field("botId", botId)
+				.toByteArray();
+		
+		return apicallObject("login", baseUrl + "/bot/login", body, "POST");
+	}
+
+	/**
+	 * General - Login - asynchronous variant of {@link #login}
+	 * @return Future completed with the result of {@link #login}
+	 */
+	public CompletableFuture<JSONObject> loginAsync(String username, String password, String botId) {
+		return CompletableFuture.supplyAsync(() -> login(username, password, botId), executor());
+	}
+
+	/**
+	 * General - Login - typed variant of {@link #login}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public Login loginTyped(String username, String password, String botId) {
+		byte[] body = JsonWriter.object()
+				.field("username", username)
+				.field("password", password)
+				.field("botId", botId)
+				.toByteArray();
+		
+		return apicallTyped("login", baseUrl + "/bot/login", body, "POST", Login::read);
+	}
+
+	/**
+	 * Instances - Create 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> <br>
+	 * <b>uuid</b> uuid of the newly created instance 
+	 */
+	public JSONObject createInstance() {
+		return apicallObject("createInstance", baseUrl + "/bot/instances", null, "POST");
+	}
+
+	/**
+	 * Instances - Create - asynchronous variant of {@link #createInstance}
+	 * @return Future completed with the result of {@link #createInstance}
+	 */
+	public CompletableFuture<JSONObject> createInstanceAsync() {
+		return CompletableFuture.supplyAsync(() -> createInstance(), executor());
+	}
+
+	/**
+	 * Instances - Delete 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject deleteInstance() {
+		return apicallObject("deleteInstance", baseUrl + "/bot/instances", null, "DELETE");
+	}
+
+	/**
+	 * Instances - Delete - asynchronous variant of {@link #deleteInstance}
+	 * @return Future completed with the result of {@link #deleteInstance}
+	 */
+	public CompletableFuture<JSONObject> deleteInstanceAsync() {
+		return CompletableFuture.supplyAsync(() -> deleteInstance(), executor());
+	}
+
+	/**
+	 * Instances - List 
+	 * @return JSONObject with fields <br>
+	 * <b>instances</b> <br>
+	 * <b>instances.uuid</b> <br>
+	 * <b>instances.nick</b> <br>
+	 * <b>instances.name</b> <br>
+	 * <b>instances.running</b> <br>
+	 * <b>instances.mainInstance</b> 
+	 */
+	public JSONArray getInstances() {
+		return apicallArray("getInstances", baseUrl + "/bot/instances", null, "GET");
+	}
+
+	/**
+	 * Instances - List - asynchronous variant of {@link #getInstances}
+	 * @return Future completed with the result of {@link #getInstances}
+	 */
+	public CompletableFuture<JSONArray> getInstancesAsync() {
+		return CompletableFuture.supplyAsync(() -> getInstances(), executor());
+	}
+
+	/**
+	 * Instances - List - streaming variant of {@link #getInstances}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getInstancesStream() {
+		return apicallStream("getInstances", baseUrl + "/bot/instances", null, "GET");
+	}
+
+	/**
+	 * Instances - List - typed variant of {@link #getInstances}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public List<Instance> getInstancesTyped() {
+		return apicallTyped("getInstances", baseUrl + "/bot/instances", null, "GET", reader -> reader.readList(Instance::read));
+	}
+
+	/**
+	 * Instances - Settings 
+	 * @param instanceId uuid/id of the instance 
+	 * @param nick the nickname the bot should use 
+	 * @param serverHost IP/hostname of the teamspeak server to use 
+	 * @param serverPort the port to use 
+	 * @param serverPassword the password to use 
+	 * @param channelName 
+	 * @param channelPassword 
+	 * @param updateDescription update the client description to contain track information 
+	 * @param announce announce new tracks in the channel 
+	 * @param annonuceString which string to use when announcing tracks 
+	 * @param identity a TeamSpeak identity that the bot should use 
+	 * @param enableDucking ducking reduces the volume of music when somebody is talking in the channel 
+	 * @param duckingVolume the volume level that should be used when ducking is active 
+	 * @param channelCommander if true, the bot tries to become channel commander (required the permission on the ts server) 
+	 * @param stickToChannel if true, the bot always tries to go back to its original channel when moved 
+	 * @param ttsExternalURL the URL to use for Text-To-Speech (should contain the variables __TEXT and __LOCALE) 
+	 * @param ttsDefaultLocale the default locale that should be used for the __LOCALE variable 
+	 * @param ignoreChatServer ignores the server chat for commands 
+	 * @param ignoreChatPrivate ignores private messages for commands 
+	 * @param ignoreChatChannel ignores the channel chat for commands 
+	 * @param idleTrack a mediaurl to be played when the bot becomes idle 
+	 * @param startupTrack a mediaurl to be played when the bot starts up 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject getSettings(String instanceId, String nick, String serverHost, Integer serverPort, String serverPassword, String channelName, String channelPassword, Boolean updateDescription, Boolean announce, String annonuceString, String identity, Boolean enableDucking, Integer duckingVolume, Boolean channelCommander, Boolean stickToChannel, String ttsExternalURL, String ttsDefaultLocale, Boolean ignoreChatServer, Boolean ignoreChatPrivate, Boolean ignoreChatChannel, String idleTrack, String startupTrack) {
+		byte[] body = JsonWriter.object()
+				.field("nick", nick)
+				.field("serverHost", serverHost)
+				.field("serverPort", serverPort)
+				.field("serverPassword", serverPassword)
+				.field("channelName", channelName)
+				.field("channelPassword", channelPassword)
+				.field("updateDescription", updateDescription)
+				.field("announce", announce)
+				.field("annonuceString", annonuceString)
+				.field("identity", identity)
+				.field("enableDucking", enableDucking)
+				.field("duckingVolume", duckingVolume)
+				.field("channelCommander", channelCommander)
+				.field("stickToChannel", stickToChannel)
+				.field("ttsExternalURL", ttsExternalURL)
+				.field("ttsDefaultLocale", ttsDefaultLocale)
+				.field("ignoreChatServer", ignoreChatServer)
+				.field("ignoreChatPrivate", ignoreChatPrivate)
+				.field("ignoreChatChannel", ignoreChatChannel)
+				.field("idleTrack", idleTrack)
+				.field("startupTrack", startupTrack)
+				.toByteArray();
+		
+		return apicallObject("getSettings", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/settings", body, "POST");
+	}
+
+	/**
+	 * Instances - Settings - asynchronous variant of {@link #getSettings}
+	 * @return Future completed with the result of {@link #getSettings}
+	 */
+	public CompletableFuture<JSONObject> getSettingsAsync(String instanceId, String nick, String serverHost, Integer serverPort, String serverPassword, String channelName, String channelPassword, Boolean updateDescription, Boolean announce, String annonuceString, String identity, Boolean enableDucking, Integer duckingVolume, Boolean channelCommander, Boolean stickToChannel, String ttsExternalURL, String ttsDefaultLocale, Boolean ignoreChatServer, Boolean ignoreChatPrivate, Boolean ignoreChatChannel, String idleTrack, String startupTrack) {
+		return CompletableFuture.supplyAsync(() -> getSettings(instanceId, nick, serverHost, serverPort, serverPassword, channelName, channelPassword, updateDescription, announce, annonuceString, identity, enableDucking, duckingVolume, channelCommander, stickToChannel, ttsExternalURL, ttsDefaultLocale, ignoreChatServer, ignoreChatPrivate, ignoreChatChannel, idleTrack, startupTrack), executor());
+	}
+
+	/**
+	 * Instances - Status 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>v</b> current version of the bot <br>
+	 * <b>currentTrack</b> currently played track <br>
+	 * <b>position</b> <br>
+	 * <b>running</b> <br>
+	 * <b>playing</b> <br>
+	 * <b>shuffle</b> <br>
+	 * <b>repeat</b> <br>
+	 * <b>volume</b> <br>
+	 * <b>needsRestart</b> this gets set after an update has been applied <br>
+	 * <b>playlist</b> <br>
+	 * <b>playlistTrack</b> <br>
+	 * <b>queueLen</b> <br>
+	 * <b>queueVersion</b> <br>
+	 * <b>modes</b> <br>
+	 * <b>downloaded</b> <br>
+	 * <b>serverUID</b> <br>
+	 * <b>flags</b> <br>
+	 * <b>muted</b> 
+	 */
+	public JSONObject getStatus(String instanceId) {
+		return apicallObject("getStatus", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/status", null, "POST");
+	}
+
+	/**
+	 * Instances - Status - asynchronous variant of {@link #getStatus}
+	 * @return Future completed with the result of {@link #getStatus}
+	 */
+	public CompletableFuture<JSONObject> getStatusAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> getStatus(instanceId), executor());
+	}
+
+	/**
+	 * Instances - Status - typed variant of {@link #getStatus}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public InstanceStatus getStatusTyped(String instanceId) {
+		return apicallTyped("getStatus", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/status", null, "POST", InstanceStatus::read);
+	}
+
+	/**
+	 * Instances - Shutdown 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject kill(String instanceId) {
+		return apicallObject("kill", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/kill", null, "POST");
+	}
+
+	/**
+	 * Instances - Shutdown - asynchronous variant of {@link #kill}
+	 * @return Future completed with the result of {@link #kill}
+	 */
+	public CompletableFuture<JSONObject> killAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> kill(instanceId), executor());
+	}
+
+	/**
+	 * Instances - Restart 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject respawn(String instanceId) {
+		return apicallObject("respawn", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/respawn", null, "POST");
+	}
+
+	/**
+	 * Instances - Restart - asynchronous variant of {@link #respawn}
+	 * @return Future completed with the result of {@link #respawn}
+	 */
+	public CompletableFuture<JSONObject> respawnAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> respawn(instanceId), executor());
+	}
+
+	/**
+	 * Instances - Launch 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject spawn(String instanceId) {
+		return apicallObject("spawn", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/spawn", null, "POST");
+	}
+
+	/**
+	 * Instances - Launch - asynchronous variant of {@link #spawn}
+	 * @return Future completed with the result of {@link #spawn}
+	 */
+	public CompletableFuture<JSONObject> spawnAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> spawn(instanceId), executor());
+	}
+
+	/**
+	 * Logging - Recent Bot-Log entries 
+	 * @return JSONObject with fields <br>
+	 * <b>entries</b> <br>
+	 * <b>entries.message</b> the log string <br>
+	 * <b>entries.severity</b> severity <br>
+	 * <b>entries.time</b> timestamp (unix-time) 
+	 */
+	public JSONArray getBotLog() {
+		return apicallArray("getBotLog", baseUrl + "/bot/log", null, "GET");
+	}
+
+	/**
+	 * Logging - Recent Bot-Log entries - asynchronous variant of {@link #getBotLog}
+	 * @return Future completed with the result of {@link #getBotLog}
+	 */
+	public CompletableFuture<JSONArray> getBotLogAsync() {
+		return CompletableFuture.supplyAsync(() -> getBotLog(), executor());
+	}
+
+	/**
+	 * Logging - Recent Bot-Log entries - streaming variant of {@link #getBotLog}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getBotLogStream() {
+		return apicallStream("getBotLog", baseUrl + "/bot/log", null, "GET");
+	}
+
+	/**
+	 * Logging - Recent Bot-Log entries - typed variant of {@link #getBotLog}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public List<LogEntry> getBotLogTyped() {
+		return apicallTyped("getBotLog", baseUrl + "/bot/log", null, "GET", reader -> reader.readList(LogEntry::read));
+	}
+
+	/**
+	 * Logging - Instance-Log 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>entries</b> <br>
+	 * <b>entries.message</b> the log string <br>
+	 * <b>entries.severity</b> severity <br>
+	 * <b>entries.time</b> timestamp (unix-time) 
+	 */
+	public JSONArray getInstanceLog(String instanceId) {
+		return apicallArray("getInstanceLog", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/log", null, "GET");
+	}
+
+	/**
+	 * Logging - Instance-Log - asynchronous variant of {@link #getInstanceLog}
+	 * @return Future completed with the result of {@link #getInstanceLog}
+	 */
+	public CompletableFuture<JSONArray> getInstanceLogAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> getInstanceLog(instanceId), executor());
+	}
+
+	/**
+	 * Logging - Instance-Log - streaming variant of {@link #getInstanceLog}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getInstanceLogStream(String instanceId) {
+		return apicallStream("getInstanceLog", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/log", null, "GET");
+	}
+
+	/**
+	 * Logging - Instance-Log - typed variant of {@link #getInstanceLog}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public List<LogEntry> getInstanceLogTyped(String instanceId) {
+		return apicallTyped("getInstanceLog", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/log", null, "GET", reader -> reader.readList(LogEntry::read));
+	}
+
+	/**
+	 * Playback - Decrease volume by 5% 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject decreaseVolume(String instanceId) {
+		return apicallObject("decreaseVolume", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/volume/down", null, "POST");
+	}
+
+	/**
+	 * Playback - Decrease volume by 5% - asynchronous variant of {@link #decreaseVolume}
+	 * @return Future completed with the result of {@link #decreaseVolume}
+	 */
+	public CompletableFuture<JSONObject> decreaseVolumeAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> decreaseVolume(instanceId), executor());
+	}
+
+	/**
+	 * Playback - Increase volume by 5% 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject increaseVolume(String instanceId) {
+		return apicallObject("increaseVolume", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/volume/up", null, "POST");
+	}
+
+	/**
+	 * Playback - Increase volume by 5% - asynchronous variant of {@link #increaseVolume}
+	 * @return Future completed with the result of {@link #increaseVolume}
+	 */
+	public CompletableFuture<JSONObject> increaseVolumeAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> increaseVolume(instanceId), executor());
+	}
+
+	/**
+	 * Playback - Pause playback 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject pause(String instanceId) {
+		return apicallObject("pause", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/pause", null, "POST");
+	}
+
+	/**
+	 * Playback - Pause playback - asynchronous variant of {@link #pause}
+	 * @return Future completed with the result of {@link #pause}
+	 */
+	public CompletableFuture<JSONObject> pauseAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> pause(instanceId), executor());
+	}
+
+	/**
+	 * Playback - Playback a file 
+	 * @param instanceId uuid/id of the instance 
+	 * @param id uuid of the file to playback 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject playById(String instanceId, String id) {
+		return apicallObject("playById", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/play/byId/" + pathSegment(id), null, "POST");
+	}
+
+	/**
+	 * Playback - Playback a file - asynchronous variant of {@link #playById}
+	 * @return Future completed with the result of {@link #playById}
+	 */
+	public CompletableFuture<JSONObject> playByIdAsync(String instanceId, String id) {
+		return CompletableFuture.supplyAsync(() -> playById(instanceId, id), executor());
+	}
+
+	/**
+	 * Playback - Playback a file inside a playlist 
+	 * @param instanceId uuid/id of the instance 
+	 * @param playlistId uuid of the playlist 
+	 * @param index number of the track inside the playlist 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject playByList(String instanceId, String playlistId, Integer index) {
+		return apicallObject("playByList", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/play/byList/" + pathSegment(playlistId) + "/" + index, null, "POST");
+	}
+
+	/**
+	 * Playback - Playback a file inside a playlist - asynchronous variant of {@link #playByList}
+	 * @return Future completed with the result of {@link #playByList}
+	 */
+	public CompletableFuture<JSONObject> playByListAsync(String instanceId, String playlistId, Integer index) {
+		return CompletableFuture.supplyAsync(() -> playByList(instanceId, playlistId, index), executor());
+	}
+
+	/**
+	 * Playback - Playback URL 
+	 * @param instanceId uuid/id of the instance 
+	 * @param url the url that should be played back 
+	 * @param plugin name of the plugin that returned this url 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject playUrl(String instanceId, String url, String plugin) {
+		return apicallObject("playUrl", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/playUrl?url=" + queryValue(url) + "&plugin=" + queryValue(plugin), null, "POST");
+	}
+
+	/**
+	 * Playback - Playback URL - asynchronous variant of {@link #playUrl}
+	 * @return Future completed with the result of {@link #playUrl}
+	 */
+	public CompletableFuture<JSONObject> playUrlAsync(String instanceId, String url, String plugin) {
+		return CompletableFuture.supplyAsync(() -> playUrl(instanceId, url, plugin), executor());
+	}
+
+	/**
+	 * Playback - recently played tracks 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>body</b> array of uuids 
+	 */
+	public JSONObject recentTracks(String instanceId) {
+		return apicallObject("recentTracks", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/recent", null, "GET");
+	}
+
+	/**
+	 * Playback - recently played tracks - asynchronous variant of {@link #recentTracks}
+	 * @return Future completed with the result of {@link #recentTracks}
+	 */
+	public CompletableFuture<JSONObject> recentTracksAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> recentTracks(instanceId), executor());
+	}
+
+	/**
+	 * Playback - Say (TTS) 
+	 * @param instanceId uuid/id of the instance 
+	 * @param text the text to say 
+	 * @param locale the locale to use - if none is given, the default one will be used 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject say(String instanceId, String text, String locale) {
+		byte[] body = JsonWriter.object()
+				.field("text", text)
+				.field("locale", locale)
+				.toByteArray();
+		
+		return apicallObject("say", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/say", body, "POST");
+	}
+
+	/**
+	 * Playback - Say (TTS) - asynchronous variant of {@link #say}
+	 * @return Future completed with the result of {@link #say}
+	 */
+	public CompletableFuture<JSONObject> sayAsync(String instanceId, String text, String locale) {
+		return CompletableFuture.supplyAsync(() -> say(instanceId, text, locale), executor());
+	}
+
+	/**
+	 * Playback - Seek 
+	 * @param instanceId uuid/id of the instance 
+	 * @param val position in percent 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject seek(String instanceId, Integer val) {
+		return apicallObject("seek", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/seek/" + val, null, "POST");
+	}
+
+	/**
+	 * Playback - Seek - asynchronous variant of {@link #seek}
+	 * @return Future completed with the result of {@link #seek}
+	 */
+	public CompletableFuture<JSONObject> seekAsync(String instanceId, Integer val) {
+		return CompletableFuture.supplyAsync(() -> seek(instanceId, val), executor());
+	}
+
+	/**
+	 * Playback - Enable/Disable mute 
+	 * @param instanceId uuid/id of the instance 
+	 * @param val 0 / 1 to disable/enable mute 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject setMute(String instanceId, Integer val) {
+		return apicallObject("setMute", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/mute/" + val, null, "POST");
+	}
+
+	/**
+	 * Playback - Enable/Disable mute - asynchronous variant of {@link #setMute}
+	 * @return Future completed with the result of {@link #setMute}
+	 */
+	public CompletableFuture<JSONObject> setMuteAsync(String instanceId, Integer val) {
+		return CompletableFuture.supplyAsync(() -> setMute(instanceId, val), executor());
+	}
+
+	/**
+	 * Playback - Set the volume 
+	 * @param instanceId uuid/id of the instance 
+	 * @param volume volume level in percent (0-100) 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject setVolume(String instanceId, Integer volume) {
+		return apicallObject("setVolume", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/volume/set/" + volume, null, "POST");
+	}
+
+	/**
+	 * Playback - Set the volume - asynchronous variant of {@link #setVolume}
+	 * @return Future completed with the result of {@link #setVolume}
+	 */
+	public CompletableFuture<JSONObject> setVolumeAsync(String instanceId, Integer volume) {
+		return CompletableFuture.supplyAsync(() -> setVolume(instanceId, volume), executor());
+	}
+
+	/**
+	 * Playback - Stop playback 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject stop(String instanceId) {
+		return apicallObject("stop", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/stop", null, "POST");
+	}
+
+	/**
+	 * Playback - Stop playback - asynchronous variant of {@link #stop}
+	 * @return Future completed with the result of {@link #stop}
+	 */
+	public CompletableFuture<JSONObject> stopAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> stop(instanceId), executor());
+	}
+
+	/**
+	 * Playlists - Next 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject playNext(String instanceId) {
+		return apicallObject("playNext", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/playNext", null, "POST");
+	}
+
+	/**
+	 * Playlists - Next - asynchronous variant of {@link #playNext}
+	 * @return Future completed with the result of {@link #playNext}
+	 */
+	public CompletableFuture<JSONObject> playNextAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> playNext(instanceId), executor());
+	}
+
+	/**
+	 * Playlists - Previous 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject playPrevious(String instanceId) {
+		return apicallObject("playPrevious", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/playPrevious", null, "POST");
+	}
+
+	/**
+	 * Playlists - Previous - asynchronous variant of {@link #playPrevious}
+	 * @return Future completed with the result of {@link #playPrevious}
+	 */
+	public CompletableFuture<JSONObject> playPreviousAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> playPrevious(instanceId), executor());
+	}
+
+	/**
+	 * Playlists - Enable/Disable repeat 
+	 * @param instanceId uuid/id of the instance 
+	 * @param val 0 / 1 to disable/enable repeat 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject setRepeat(String instanceId, Integer val) {
+		return apicallObject("setRepeat", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/repeat/" + val, null, "POST");
+	}
+
+	/**
+	 * Playlists - Enable/Disable repeat - asynchronous variant of {@link #setRepeat}
+	 * @return Future completed with the result of {@link #setRepeat}
+	 */
+	public CompletableFuture<JSONObject> setRepeatAsync(String instanceId, Integer val) {
+		return CompletableFuture.supplyAsync(() -> setRepeat(instanceId, val), executor());
+	}
+
+	/**
+	 * Playlists - Enable/Disable shuffle 
+	 * @param instanceId uuid/id of the instance 
+	 * @param val 0 / 1 to disable/enable shuffle 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject setShuffle(String instanceId, Integer val) {
+		return apicallObject("setShuffle", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/shuffle/" + val, null, "POST");
+	}
+
+	/**
+	 * Playlists - Enable/Disable shuffle - asynchronous variant of {@link #setShuffle}
+	 * @return Future completed with the result of {@link #setShuffle}
+	 */
+	public CompletableFuture<JSONObject> setShuffleAsync(String instanceId, Integer val) {
+		return CompletableFuture.supplyAsync(() -> setShuffle(instanceId, val), executor());
+	}
+
+	/**
+	 * Queue - Append a track to the queue 
+	 * @param instanceId uuid/id of the instance 
+	 * @param uuid track uuid 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject appendQueue(String instanceId, String uuid) {
+		return apicallObject("appendQueue", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/queue/append/" + pathSegment(uuid), null, "POST");
+	}
+
+	/**
+	 * Queue - Append a track to the queue - asynchronous variant of {@link #appendQueue}
+	 * @return Future completed with the result of {@link #appendQueue}
+	 */
+	public CompletableFuture<JSONObject> appendQueueAsync(String instanceId, String uuid) {
+		return CompletableFuture.supplyAsync(() -> appendQueue(instanceId, uuid), executor());
+	}
+
+	/**
+	 * Queue - Get list 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>mediainfo</b> list of tracks in the queue 
+	 */
+	public JSONArray getQueue(String instanceId) {
+		return apicallArray("getQueue", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/queue", null, "GET");
+	}
+
+	/**
+	 * Queue - Get list - asynchronous variant of {@link #getQueue}
+	 * @return Future completed with the result of {@link #getQueue}
+	 */
+	public CompletableFuture<JSONArray> getQueueAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> getQueue(instanceId), executor());
+	}
+
+	/**
+	 * Queue - Get list - streaming variant of {@link #getQueue}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getQueueStream(String instanceId) {
+		return apicallStream("getQueue", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/queue", null, "GET");
+	}
+
+	/**
+	 * Queue - Get list - typed variant of {@link #getQueue}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public List<Track> getQueueTyped(String instanceId) {
+		return apicallTyped("getQueue", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/queue", null, "GET", reader -> reader.readList(Track::read));
+	}
+
+	/**
+	 * Queue - Prepend a track to the queue 
+	 * @param instanceId uuid/id of the instance 
+	 * @param uuid track uuid 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject prependQueue(String instanceId, String uuid) {
+		return apicallObject("prependQueue", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/queue/prepend/" + pathSegment(uuid), null, "POST");
+	}
+
+	/**
+	 * Queue - Prepend a track to the queue - asynchronous variant of {@link #prependQueue}
+	 * @return Future completed with the result of {@link #prependQueue}
+	 */
+	public CompletableFuture<JSONObject> prependQueueAsync(String instanceId, String uuid) {
+		return CompletableFuture.supplyAsync(() -> prependQueue(instanceId, uuid), executor());
+	}
+
+	/**
+	 * Queue - Remove from queue 
+	 * @param instanceId uuid/id of the instance 
+	 * @param queuePos the position of the track inside the queue that should be removed 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject removeFromQueue(String instanceId, Integer queuePos) {
+		return apicallObject("removeFromQueue", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/queue/" + queuePos, null, "DELETE");
+	}
+
+	/**
+	 * Queue - Remove from queue - asynchronous variant of {@link #removeFromQueue}
+	 * @return Future completed with the result of {@link #removeFromQueue}
+	 */
+	public CompletableFuture<JSONObject> removeFromQueueAsync(String instanceId, Integer queuePos) {
+		return CompletableFuture.supplyAsync(() -> removeFromQueue(instanceId, queuePos), executor());
+	}
+
+	/**
+	 * Radio - Get radio stations 
+	 * @param search limit output to stations which match this string 
+	 * @return JSONObject with fields <br>
+	 * <b>station</b> <br>
+	 * <b>s.n</b> name of the station <br>
+	 * <b>s.u</b> url of the station <br>
+	 * <b>s.g</b> genre <br>
+	 * <b>s.b</b> bitrate 
+	 */
+	public JSONArray getRadioStations(String search) {
+		return apicallArray("getRadioStations", baseUrl + "/bot/stations?q=" + queryValue(search), null, "PATCH");
+	}
+
+	/**
+	 * Radio - Get radio stations - asynchronous variant of {@link #getRadioStations}
+	 * @return Future completed with the result of {@link #getRadioStations}
+	 */
+	public CompletableFuture<JSONArray> getRadioStationsAsync(String search) {
+		return CompletableFuture.supplyAsync(() -> getRadioStations(search), executor());
+	}
+
+	/**
+	 * Radio - Get radio stations - streaming variant of {@link #getRadioStations}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getRadioStationsStream(String search) {
+		return apicallStream("getRadioStations", baseUrl + "/bot/stations?q=" + queryValue(search), null, "PATCH");
+	}
+
+	/**
+	 * Scripts - List Scripts 
+	 * @return JSONObject with fields <br>
+	 * <b>scriptname</b> <br>
+	 * <b>scriptname.name</b> <br>
+	 * <b>scriptname.version</b> <br>
+	 * <b>scriptname.description</b> <br>
+	 * <b>scriptname.author</b> <br>
+	 * <b>scriptname.vars</b> <br>
+	 * <b>scriptname.vars.varname</b> <br>
+	 * <b>scriptname.vars.varname.title</b> <br>
+	 * <b>scriptname.vars.varname.type</b> 
+	 */
+	public JSONArray getScripts() {
+		return apicallArray("getScripts", baseUrl + "/bot/scripts", null, "GET");
+	}
+
+	/**
+	 * Scripts - List Scripts - asynchronous variant of {@link #getScripts}
+	 * @return Future completed with the result of {@link #getScripts}
+	 */
+	public CompletableFuture<JSONArray> getScriptsAsync() {
+		return CompletableFuture.supplyAsync(() -> getScripts(), executor());
+	}
+
+	/**
+	 * Scripts - List Scripts - streaming variant of {@link #getScripts}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getScriptsStream() {
+		return apicallStream("getScripts", baseUrl + "/bot/scripts", null, "GET");
+	}
+
+	/**
+	 * Scripts - List Scripts - typed variant of {@link #getScripts}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public List<Script> getScriptsTyped() {
+		return apicallTyped("getScripts", baseUrl + "/bot/scripts", null, "GET", reader -> reader.readList(Script::read));
+	}
+
+	/**
+	 * Scripts - Save Settings 
+	 * @param instanceId uuid/id of the instance 
+	 * @param ScriptName 
+	 * @param ScriptName_enabled 
+	 * @param ScriptName_config the JSON-encoded script settings 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject saveSettings(String instanceId, Object[] ScriptName, Boolean ScriptName_enabled, String ScriptName_config) {
+		byte[] body = JsonWriter.object()
+				.field("ScriptName", ScriptName)
+				.field("ScriptName_enabled", ScriptName_enabled)
+				.field("ScriptName_config", ScriptName_config)
+				.toByteArray();
+		
+		return apicallObject("saveSettings", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/scriptSettings", body, "POST");
+	}
+
+	/**
+	 * Scripts - Save Settings - asynchronous variant of {@link #saveSettings}
+	 * @return Future completed with the result of {@link #saveSettings}
+	 */
+	public CompletableFuture<JSONObject> saveSettingsAsync(String instanceId, Object[] ScriptName, Boolean ScriptName_enabled, String ScriptName_config) {
+		return CompletableFuture.supplyAsync(() -> saveSettings(instanceId, ScriptName, ScriptName_enabled, ScriptName_config), executor());
+	}
+
+	/**
+	 * Streaming - Get audio stream 
+	 * @param instanceId uuid/id of the instance 
+	 * @param token a token acquired by streamToken 
+	 * @return Response body as it is received, has to be closed by the caller - null if the request failed
+	 */
+	public InputStream getStream(String instanceId, String token) {
+		return apicallRaw("getStream", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/stream/" + pathSegment(token), null, "GET");
+	}
+
+	/**
+	 * Streaming - Get a token for the WebStream 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> <br>
+	 * <b>token</b> the token that can be used to initiate the WebStream 
+	 */
+	public JSONObject getStreamToken(String instanceId) {
+		return apicallObject("getStreamToken", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/streamToken", null, "POST");
+	}
+
+	/**
+	 * Streaming - Get a token for the WebStream - asynchronous variant of {@link #getStreamToken}
+	 * @return Future completed with the result of {@link #getStreamToken}
+	 */
+	public CompletableFuture<JSONObject> getStreamTokenAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> getStreamToken(instanceId), executor());
+	}
+
+	/**
+	 * TeamSpeak - Channel list 
+	 * @param instanceId uuid/id of the instance 
+	 * @return JSONObject with fields <br>
+	 * <b>channel</b> <br>
+	 * <b>channel.id</b> <br>
+	 * <b>channel.parent</b> <br>
+	 * <b>channel.name</b> <br>
+	 * <b>channel.topic</b> <br>
+	 * <b>channel.codec</b> <br>
+	 * <b>channel.quality</b> <br>
+	 * <b>channel.maxClients</b> <br>
+	 * <b>channel.order</b> <br>
+	 * <b>channel.perm</b> 1 = is permanent <br>
+	 * <b>channel.sperm</b> 1 = is semi-permanent <br>
+	 * <b>channel.default</b> 1 = is default <br>
+	 * <b>channel.pw</b> 1 = is passworded <br>
+	 * <b>channel.enc</b> 1 = is encrypted <br>
+	 * <b>channel.clients</b> <br>
+	 * <b>channel.clients.id</b> <br>
+	 * <b>channel.clients.uid</b> <br>
+	 * <b>channel.clients.nick</b> <br>
+	 * <b>channel.clients.idle</b> <br>
+	 * <b>channel.clients.recording</b> <br>
+	 * <b>channel.clients.outputMuted</b> <br>
+	 * <b>channel.clients.outputOnlyMuted</b> <br>
+	 * <b>channel.clients.inputMuted</b> <br>
+	 * <b>channel.clients.away</b> 
+	 */
+	public JSONArray getChannels(String instanceId) {
+		return apicallArray("getChannels", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/channels", null, "GET");
+	}
+
+	/**
+	 * TeamSpeak - Channel list - asynchronous variant of {@link #getChannels}
+	 * @return Future completed with the result of {@link #getChannels}
+	 */
+	public CompletableFuture<JSONArray> getChannelsAsync(String instanceId) {
+		return CompletableFuture.supplyAsync(() -> getChannels(instanceId), executor());
+	}
+
+	/**
+	 * TeamSpeak - Channel list - streaming variant of {@link #getChannels}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getChannelsStream(String instanceId) {
+		return apicallStream("getChannels", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/channels", null, "GET");
+	}
+
+	/**
+	 * TeamSpeak - Channel list - typed variant of {@link #getChannels}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public List<Channel> getChannelsTyped(String instanceId) {
+		return apicallTyped("getChannels", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/channels", null, "GET", reader -> reader.readList(Channel::read));
+	}
+
+	/**
+	 * Upload_and_Download - Add job 
+	 * @param url the url from that the bot should download 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> <br>
+	 * <b>uuid</b> uuid of the job just added 
+	 */
+	public JSONObject addJob(String url) {
+		byte[] body = JsonWriter.object()
+				.field("url", url)
+				.toByteArray();
+		
+		return apicallObject("addJob", baseUrl + "/bot/jobs", body, "POST");
+	}
+
+	/**
+	 * Upload_and_Download - Add job - asynchronous variant of {@link #addJob}
+	 * @return Future completed with the result of {@link #addJob}
+	 */
+	public CompletableFuture<JSONObject> addJobAsync(String url) {
+		return CompletableFuture.supplyAsync(() -> addJob(url), executor());
+	}
+
+	/**
+	 * Upload_and_Download - Cancel job 
+	 * @param jobId uuid of the job (not the track) 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject cancelJob(String jobId) {
+		return apicallObject("cancelJob", baseUrl + "/bot/jobs/" + pathSegment(jobId), null, "DELETE");
+	}
+
+	/**
+	 * Upload_and_Download - Cancel job - asynchronous variant of {@link #cancelJob}
+	 * @return Future completed with the result of {@link #cancelJob}
+	 */
+	public CompletableFuture<JSONObject> cancelJobAsync(String jobId) {
+		return CompletableFuture.supplyAsync(() -> cancelJob(jobId), executor());
+	}
+
+	/**
+	 * Upload_and_Download - Remove finished entries 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject clearJobs() {
+		return apicallObject("clearJobs", baseUrl + "/bot/jobs", null, "DELETE");
+	}
+
+	/**
+	 * Upload_and_Download - Remove finished entries - asynchronous variant of {@link #clearJobs}
+	 * @return Future completed with the result of {@link #clearJobs}
+	 */
+	public CompletableFuture<JSONObject> clearJobsAsync() {
+		return CompletableFuture.supplyAsync(() -> clearJobs(), executor());
+	}
+
+	/**
+	 * Upload_and_Download - List Jobs 
+	 * @return JSONObject with fields <br>
+	 * <b>jobs</b> <br>
+	 * <b>jobs.uuid</b> uuid <br>
+	 * <b>jobs.url</b> url <br>
+	 * <b>jobs.size</b> estimated size of the target <br>
+	 * <b>jobs.perc</b> estimated progression in percent <br>
+	 * <b>jobs.status</b> <br>
+	 * <b>jobs.trackuuid</b> uuid of the track that was generated out of the job <br>
+	 * <b>jobs.message</b> extended message of the external script <br>
+	 * <b>jobs.eta</b> estimated time of download to go <br>
+	 * <b>jobs.bw</b> current badnwidth <br>
+	 * <b>jobs.play</b> autoplay when done <br>
+	 * <b>jobs.temp</b> delete after playback <br>
+	 * <b>jobs.done</b> true, if the job is finished 
+	 */
+	public JSONArray getJobs() {
+		return apicallArray("getJobs", baseUrl + "/bot/jobs", null, "GET");
+	}
+
+	/**
+	 * Upload_and_Download - List Jobs - asynchronous variant of {@link #getJobs}
+	 * @return Future completed with the result of {@link #getJobs}
+	 */
+	public CompletableFuture<JSONArray> getJobsAsync() {
+		return CompletableFuture.supplyAsync(() -> getJobs(), executor());
+	}
+
+	/**
+	 * Upload_and_Download - List Jobs - streaming variant of {@link #getJobs}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getJobsStream() {
+		return apicallStream("getJobs", baseUrl + "/bot/jobs", null, "GET");
+	}
+
+	/**
+	 * Upload_and_Download - List Jobs - typed variant of {@link #getJobs}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public List<Job> getJobsTyped() {
+		return apicallTyped("getJobs", baseUrl + "/bot/jobs", null, "GET", reader -> reader.readList(Job::read));
+	}
+
+	/**
+	 * Users - Create 
+	 * @param name username 
+	 * @param password new password for the user 
+	 * @param tsuid TeamSpeak unique identifier (identity) 
+	 * @param tsgid TeamSpeak group-id 
+	 * @param privileges bitmask of the users' privileges 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject createUser(String name, String password, String tsuid, String tsgid, Integer privileges) {
+		byte[] body = JsonWriter.object()
+				.field("name", name)
+				.field("password", password)
+				.field("tsuid", tsuid)
+				.field("tsgid", tsgid)
+				.field("privileges", privileges)
+				.toByteArray();
+		
+		return apicallObject("createUser", baseUrl + "/bot/users", body, "POST");
+	}
+
+	/**
+	 * Users - Create - asynchronous variant of {@link #createUser}
+	 * @return Future completed with the result of {@link #createUser}
+	 */
+	public CompletableFuture<JSONObject> createUserAsync(String name, String password, String tsuid, String tsgid, Integer privileges) {
+		return CompletableFuture.supplyAsync(() -> createUser(name, password, tsuid, tsgid, privileges), executor());
+	}
+
+	/**
+	 * Users - Delete 
+	 * @param userId uuid of the user that should be deleted 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject deleteUser(String userId) {
+		return apicallObject("deleteUser", baseUrl + "/bot/users/" + pathSegment(userId), null, "DELETE");
+	}
+
+	/**
+	 * Users - Delete - asynchronous variant of {@link #deleteUser}
+	 * @return Future completed with the result of {@link #deleteUser}
+	 */
+	public CompletableFuture<JSONObject> deleteUserAsync(String userId) {
+		return CompletableFuture.supplyAsync(() -> deleteUser(userId), executor());
+	}
+
+	/**
+	 * Users - List 
+	 * @return JSONObject with fields <br>
+	 * <b>users</b> <br>
+	 * <b>users.id</b> uuid of the user <br>
+	 * <b>users.name</b> name of the user (login-name) <br>
+	 * <b>users.tsuid</b> TeamSpeak unique identifier that has been bound to the user <br>
+	 * <b>users.tsgid</b> TeamSpeak group-id that has been bound to the user <br>
+	 * <b>users.locked</b> if true, the user cannot login <br>
+	 * <b>users.isAdmin</b> if true, this is the admin-user that cannot be changed <br>
+	 * <b>users.privileges</b> bitmask of all privileges the user has, see privileges 
+	 */
+	public JSONArray getUsers() {
+		return apicallArray("getUsers", baseUrl + "/bot/users", null, "GET");
+	}
+
+	/**
+	 * Users - List - asynchronous variant of {@link #getUsers}
+	 * @return Future completed with the result of {@link #getUsers}
+	 */
+	public CompletableFuture<JSONArray> getUsersAsync() {
+		return CompletableFuture.supplyAsync(() -> getUsers(), executor());
+	}
+
+	/**
+	 * Users - List - streaming variant of {@link #getUsers}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> getUsersStream() {
+		return apicallStream("getUsers", baseUrl + "/bot/users", null, "GET");
+	}
+
+	/**
+	 * Users - List - typed variant of {@link #getUsers}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public List<User> getUsersTyped() {
+		return apicallTyped("getUsers", baseUrl + "/bot/users", null, "GET", reader -> reader.readList(User::read));
+	}
+
+	/**
+	 * Users - Update Instance Privileges 
+	 * @param instanceId uuid/id of the instance 
+	 * @param userId uuid of the user that should be deleted 
+	 * @param privileges bitmask of the users' privileges for this instance 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject updateInstanceUserPrivileges(String instanceId, String userId, Integer privileges) {
+		byte[] body = JsonWriter.object()
+				.field("privileges", privileges)
+				.toByteArray();
+		
+		return apicallObject("updateInstanceUserPrivileges", baseUrl + "/bot/i/" + pathSegment(instanceId) + "/users/" + pathSegment(userId), body, "PATCH");
+	}
+
+	/**
+	 * Users - Update Instance Privileges - asynchronous variant of {@link #updateInstanceUserPrivileges}
+	 * @return Future completed with the result of {@link #updateInstanceUserPrivileges}
+	 */
+	public CompletableFuture<JSONObject> updateInstanceUserPrivilegesAsync(String instanceId, String userId, Integer privileges) {
+		return CompletableFuture.supplyAsync(() -> updateInstanceUserPrivileges(instanceId, userId, privileges), executor());
+	}
+
+	/**
+	 * Users - Update 
+	 * @param userId uuid of the user that should be deleted 
+	 * @param password new password for the user 
+	 * @param tsuid TeamSpeak unique identifier (identity) 
+	 * @param tsgid TeamSpeak group-id 
+	 * @param privileges bitmask of the users' privileges 
+	 * @return JSONObject with fields <br>
+	 * <b>success</b> 
+	 */
+	public JSONObject updateUser(String userId, String password, String tsuid, String tsgid, Integer privileges) {
+		byte[] body = JsonWriter.object()
+				.field("password", password)
+				.field("tsuid", tsuid)
+				.field("tsgid", tsgid)
+				.field("privileges", privileges)
+				.toByteArray();
+		
+		return apicallObject("updateUser", baseUrl + "/bot/users/" + pathSegment(userId), body, "PATCH");
+	}
+
+	/**
+	 * Users - Update - asynchronous variant of {@link #updateUser}
+	 * @return Future completed with the result of {@link #updateUser}
+	 */
+	public CompletableFuture<JSONObject> updateUserAsync(String userId, String password, String tsuid, String tsgid, Integer privileges) {
+		return CompletableFuture.supplyAsync(() -> updateUser(userId, password, tsuid, tsgid, privileges), executor());
+	}
+
+	/**
+	 * Typed response of {@link #getFiles}
+	 * @param uuid the tracks' unique identifier
+	 * @param parent the tracks' parents' uuid
+	 * @param type type of the track
+	 * @param mimeType the recognized mime-type (currently unsupported)
+	 * @param title
+	 * @param artist
+	 * @param tempTitle this will contain the title of the current track in case of radio streams - if supported by the server
+	 * @param tempArtist this will contain the artist of the current track in case of radio streams - if supported by the server
+	 * @param album
+	 * @param albumArtist
+	 * @param track
+	 * @param totalTracks
+	 * @param copyright
+	 * @param genre
+	 * @param thumbnail this file will actually be available at /cache/%thumbnail
+	 * @param codec audio-codec used in the file (currently unsupported)
+	 * @param duration duration of the track in milliseconds
+	 * @param bitrate
+	 * @param channels
+	 * @param samplerate
+	 * @param filesize
+	 */
+	public record Track(String uuid, String parent, String type, String mimeType, String title, String artist, String tempTitle, String tempArtist, String album, String albumArtist, long track, long totalTracks, String copyright, String genre, String thumbnail, String codec, long duration, long bitrate, long channels, long samplerate, long filesize) {
+		static Track read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String uuid = null;
+			String parent = null;
+			String type = null;
+			String mimeType = null;
+			String title = null;
+			String artist = null;
+			String tempTitle = null;
+			String tempArtist = null;
+			String album = null;
+			String albumArtist = null;
+			long track = 0;
+			long totalTracks = 0;
+			String copyright = null;
+			String genre = null;
+			String thumbnail = null;
+			String codec = null;
+			long duration = 0;
+			long bitrate = 0;
+			long channels = 0;
+			long samplerate = 0;
+			long filesize = 0;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "uuid":
+					uuid = reader.nextString();
+					break;
+				case "parent":
+					parent = reader.nextString();
+					break;
+				case "type":
+					type = reader.nextString();
+					break;
+				case "mimeType":
+					mimeType = reader.nextString();
+					break;
+				case "title":
+					title = reader.nextString();
+					break;
+				case "artist":
+					artist = reader.nextString();
+					break;
+				case "tempTitle":
+					tempTitle = reader.nextString();
+					break;
+				case "tempArtist":
+					tempArtist = reader.nextString();
+					break;
+				case "album":
+					album = reader.nextString();
+					break;
+				case "albumArtist":
+					albumArtist = reader.nextString();
+					break;
+				case "track":
+					track = reader.nextLong();
+					break;
+				case "totalTracks":
+					totalTracks = reader.nextLong();
+					break;
+				case "copyright":
+					copyright = reader.nextString();
+					break;
+				case "genre":
+					genre = reader.nextString();
+					break;
+				case "thumbnail":
+					thumbnail = reader.nextString();
+					break;
+				case "codec":
+					codec = reader.nextString();
+					break;
+				case "duration":
+					duration = reader.nextLong();
+					break;
+				case "bitrate":
+					bitrate = reader.nextLong();
+					break;
+				case "channels":
+					channels = reader.nextLong();
+					break;
+				case "samplerate":
+					samplerate = reader.nextLong();
+					break;
+				case "filesize":
+					filesize = reader.nextLong();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new Track(uuid, parent, type, mimeType, title, artist, tempTitle, tempArtist, album, albumArtist, track, totalTracks, copyright, genre, thumbnail, codec, duration, bitrate, channels, samplerate, filesize);
+		}
+	}
+
+	/**
+	 * Part of the typed response of {@link #botInfo}
+	 * @param codecs supported codecs
+	 * @param formats supported formats
+	 */
+	public record BotInfoSystem(Object codecs, Object formats) {
+		static BotInfoSystem read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			Object codecs = null;
+			Object formats = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "codecs":
+					codecs = reader.nextUnmodifiableValue();
+					break;
+				case "formats":
+					formats = reader.nextUnmodifiableValue();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new BotInfoSystem(codecs, formats);
+		}
+	}
+
+	/**
+	 * Typed response of {@link #botInfo}
+	 * @param bot
+	 * @param system
+	 * @param usageMemory used memory from the bot (all instances - excluding client resources)
+	 */
+	public record BotInfo(Object bot, BotInfoSystem system, long usageMemory) {
+		static BotInfo read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			Object bot = null;
+			BotInfoSystem system = null;
+			long usageMemory = 0;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "bot":
+					bot = reader.nextUnmodifiableValue();
+					break;
+				case "system":
+					system = BotInfoSystem.read(reader);
+					break;
+				case "usageMemory":
+					usageMemory = reader.nextLong();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new BotInfo(bot, system, usageMemory);
+		}
+	}
+
+	/**
+	 * Typed response of {@link #login}
+	 * @param token authorization token
+	 * @param botId id of the bot logged in to
+	 */
+	public record Login(String token, String botId) {
+		static Login read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String token = null;
+			String botId = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "token":
+					token = reader.nextString();
+					break;
+				case "botId":
+					botId = reader.nextString();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new Login(token, botId);
+		}
+	}
+
+	/**
+	 * Typed response of {@link #getInstances}
+	 * @param uuid
+	 * @param nick
+	 * @param name
+	 * @param running
+	 * @param mainInstance
+	 */
+	public record Instance(String uuid, String nick, String name, boolean running, boolean mainInstance) {
+		static Instance read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String uuid = null;
+			String nick = null;
+			String name = null;
+			boolean running = false;
+			boolean mainInstance = false;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "uuid":
+					uuid = reader.nextString();
+					break;
+				case "nick":
+					nick = reader.nextString();
+					break;
+				case "name":
+					name = reader.nextString();
+					break;
+				case "running":
+					running = reader.nextBoolean();
+					break;
+				case "mainInstance":
+					mainInstance = reader.nextBoolean();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new Instance(uuid, nick, name, running, mainInstance);
+		}
+	}
+
+	/**
+	 * Part of the typed response of {@link #getStatus}
+	 * @param uuid the tracks' unique identifier
+	 * @param parent the tracks' parents' uuid
+	 * @param type type of the track
+	 * @param mimeType the recognized mime-type (currently unsupported)
+	 * @param title
+	 * @param artist
+	 * @param tempTitle this will contain the title of the current track in case of radio streams - if supported by the server
+	 * @param tempArtist this will contain the artist of the current track in case of radio streams - if supported by the server
+	 * @param album
+	 * @param albumArtist
+	 * @param track
+	 * @param totalTracks
+	 * @param copyright
+	 * @param genre
+	 * @param thumbnail this file will actually be available at /cache/%thumbnail
+	 * @param codec audio-codec used in the file (currently unsupported)
+	 * @param duration duration of the track in milliseconds
+	 * @param bitrate
+	 * @param channels
+	 * @param samplerate
+	 * @param filesize
+	 * @param url url of a stream, tracks of the library are identified by uuid
+	 */
+	public record CurrentTrack(String uuid, String parent, String type, String mimeType, String title, String artist, String tempTitle, String tempArtist, String album, String albumArtist, long track, long totalTracks, String copyright, String genre, String thumbnail, String codec, long duration, long bitrate, long channels, long samplerate, long filesize, String url) {
+		static CurrentTrack read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String uuid = null;
+			String parent = null;
+			String type = null;
+			String mimeType = null;
+			String title = null;
+			String artist = null;
+			String tempTitle = null;
+			String tempArtist = null;
+			String album = null;
+			String albumArtist = null;
+			long track = 0;
+			long totalTracks = 0;
+			String copyright = null;
+			String genre = null;
+			String thumbnail = null;
+			String codec = null;
+			long duration = 0;
+			long bitrate = 0;
+			long channels = 0;
+			long samplerate = 0;
+			long filesize = 0;
+			String url = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "uuid":
+					uuid = reader.nextString();
+					break;
+				case "parent":
+					parent = reader.nextString();
+					break;
+				case "type":
+					type = reader.nextString();
+					break;
+				case "mimeType":
+					mimeType = reader.nextString();
+					break;
+				case "title":
+					title = reader.nextString();
+					break;
+				case "artist":
+					artist = reader.nextString();
+					break;
+				case "tempTitle":
+					tempTitle = reader.nextString();
+					break;
+				case "tempArtist":
+					tempArtist = reader.nextString();
+					break;
+				case "album":
+					album = reader.nextString();
+					break;
+				case "albumArtist":
+					albumArtist = reader.nextString();
+					break;
+				case "track":
+					track = reader.nextLong();
+					break;
+				case "totalTracks":
+					totalTracks = reader.nextLong();
+					break;
+				case "copyright":
+					copyright = reader.nextString();
+					break;
+				case "genre":
+					genre = reader.nextString();
+					break;
+				case "thumbnail":
+					thumbnail = reader.nextString();
+					break;
+				case "codec":
+					codec = reader.nextString();
+					break;
+				case "duration":
+					duration = reader.nextLong();
+					break;
+				case "bitrate":
+					bitrate = reader.nextLong();
+					break;
+				case "channels":
+					channels = reader.nextLong();
+					break;
+				case "samplerate":
+					samplerate = reader.nextLong();
+					break;
+				case "filesize":
+					filesize = reader.nextLong();
+					break;
+				case "url":
+					url = reader.nextString();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new CurrentTrack(uuid, parent, type, mimeType, title, artist, tempTitle, tempArtist, album, albumArtist, track, totalTracks, copyright, genre, thumbnail, codec, duration, bitrate, channels, samplerate, filesize, url);
+		}
+	}
+
+	/**
+	 * Typed response of {@link #getStatus}
+	 * @param v current version of the bot
+	 * @param currentTrack currently played track
+	 * @param position
+	 * @param running
+	 * @param playing
+	 * @param shuffle
+	 * @param repeat
+	 * @param volume
+	 * @param needsRestart this gets set after an update has been applied
+	 * @param playlist
+	 * @param playlistTrack
+	 * @param queueLen
+	 * @param queueVersion
+	 * @param modes
+	 * @param downloaded
+	 * @param serverUID
+	 * @param flags
+	 * @param muted
+	 */
+	public record InstanceStatus(String v, CurrentTrack currentTrack, long position, boolean running, boolean playing, boolean shuffle, boolean repeat, long volume, boolean needsRestart, String playlist, long playlistTrack, long queueLen, long queueVersion, long modes, long downloaded, String serverUID, long flags, boolean muted) {
+		static InstanceStatus read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String v = null;
+			CurrentTrack currentTrack = null;
+			long position = 0;
+			boolean running = false;
+			boolean playing = false;
+			boolean shuffle = false;
+			boolean repeat = false;
+			long volume = 0;
+			boolean needsRestart = false;
+			String playlist = null;
+			long playlistTrack = 0;
+			long queueLen = 0;
+			long queueVersion = 0;
+			long modes = 0;
+			long downloaded = 0;
+			String serverUID = null;
+			long flags = 0;
+			boolean muted = false;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "v":
+					v = reader.nextString();
+					break;
+				case "currentTrack":
+					currentTrack = CurrentTrack.read(reader);
+					break;
+				case "position":
+					position = reader.nextLong();
+					break;
+				case "running":
+					running = reader.nextBoolean();
+					break;
+				case "playing":
+					playing = reader.nextBoolean();
+					break;
+				case "shuffle":
+					shuffle = reader.nextBoolean();
+					break;
+				case "repeat":
+					repeat = reader.nextBoolean();
+					break;
+				case "volume":
+					volume = reader.nextLong();
+					break;
+				case "needsRestart":
+					needsRestart = reader.nextBoolean();
+					break;
+				case "playlist":
+					playlist = reader.nextString();
+					break;
+				case "playlistTrack":
+					playlistTrack = reader.nextLong();
+					break;
+				case "queueLen":
+					queueLen = reader.nextLong();
+					break;
+				case "queueVersion":
+					queueVersion = reader.nextLong();
+					break;
+				case "modes":
+					modes = reader.nextLong();
+					break;
+				case "downloaded":
+					downloaded = reader.nextLong();
+					break;
+				case "serverUID":
+					serverUID = reader.nextString();
+					break;
+				case "flags":
+					flags = reader.nextLong();
+					break;
+				case "muted":
+					muted = reader.nextBoolean();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new InstanceStatus(v, currentTrack, position, running, playing, shuffle, repeat, volume, needsRestart, playlist, playlistTrack, queueLen, queueVersion, modes, downloaded, serverUID, flags, muted);
+		}
+	}
+
+	/**
+	 * Typed response of {@link #getBotLog}
+	 * @param message the log string
+	 * @param severity severity
+	 * @param time timestamp (unix-time)
+	 */
+	public record LogEntry(String message, long severity, long time) {
+		static LogEntry read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String message = null;
+			long severity = 0;
+			long time = 0;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "message":
+					message = reader.nextString();
+					break;
+				case "severity":
+					severity = reader.nextLong();
+					break;
+				case "time":
+					time = reader.nextLong();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new LogEntry(message, severity, time);
+		}
+	}
+
+	/**
+	 * Part of the typed response of {@link #getScripts}
+	 * @param title
+	 * @param type
+	 */
+	public record ScriptVarsVarname(String title, String type) {
+		static ScriptVarsVarname read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String title = null;
+			String type = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "title":
+					title = reader.nextString();
+					break;
+				case "type":
+					type = reader.nextString();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new ScriptVarsVarname(title, type);
+		}
+	}
+
+	/**
+	 * Part of the typed response of {@link #getScripts}
+	 * @param varname
+	 */
+	public record ScriptVars(ScriptVarsVarname varname) {
+		static ScriptVars read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			ScriptVarsVarname varname = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "varname":
+					varname = ScriptVarsVarname.read(reader);
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new ScriptVars(varname);
+		}
+	}
+
+	/**
+	 * Typed response of {@link #getScripts}
+	 * @param name
+	 * @param version
+	 * @param description
+	 * @param author
+	 * @param vars
+	 */
+	public record Script(String name, String version, String description, String author, ScriptVars vars) {
+		static Script read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String name = null;
+			String version = null;
+			String description = null;
+			String author = null;
+			ScriptVars vars = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "name":
+					name = reader.nextString();
+					break;
+				case "version":
+					version = reader.nextString();
+					break;
+				case "description":
+					description = reader.nextString();
+					break;
+				case "author":
+					author = reader.nextString();
+					break;
+				case "vars":
+					vars = ScriptVars.read(reader);
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new Script(name, version, description, author, vars);
+		}
+	}
+
+	/**
+	 * Part of the typed response of {@link #getChannels}
+	 * @param id
+	 * @param uid
+	 * @param nick
+	 * @param idle
+	 * @param recording
+	 * @param outputMuted
+	 * @param outputOnlyMuted
+	 * @param inputMuted
+	 * @param away
+	 */
+	public record ChannelClient(long id, String uid, String nick, long idle, boolean recording, boolean outputMuted, boolean outputOnlyMuted, boolean inputMuted, boolean away) {
+		static ChannelClient read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			long id = 0;
+			String uid = null;
+			String nick = null;
+			long idle = 0;
+			boolean recording = false;
+			boolean outputMuted = false;
+			boolean outputOnlyMuted = false;
+			boolean inputMuted = false;
+			boolean away = false;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "id":
+					id = reader.nextLong();
+					break;
+				case "uid":
+					uid = reader.nextString();
+					break;
+				case "nick":
+					nick = reader.nextString();
+					break;
+				case "idle":
+					idle = reader.nextLong();
+					break;
+				case "recording":
+					recording = reader.nextBoolean();
+					break;
+				case "outputMuted":
+					outputMuted = reader.nextBoolean();
+					break;
+				case "outputOnlyMuted":
+					outputOnlyMuted = reader.nextBoolean();
+					break;
+				case "inputMuted":
+					inputMuted = reader.nextBoolean();
+					break;
+				case "away":
+					away = reader.nextBoolean();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new ChannelClient(id, uid, nick, idle, recording, outputMuted, outputOnlyMuted, inputMuted, away);
+		}
+	}
+
+	/**
+	 * Typed response of {@link #getChannels}
+	 * @param id
+	 * @param parent
+	 * @param name
+	 * @param topic
+	 * @param codec
+	 * @param quality
+	 * @param maxClients
+	 * @param order
+	 * @param perm 1 = is permanent
+	 * @param sperm 1 = is semi-permanent
+	 * @param default_ 1 = is default
+	 * @param pw 1 = is passworded
+	 * @param enc 1 = is encrypted
+	 * @param clients
+	 */
+	public record Channel(long id, long parent, String name, String topic, long codec, long quality, long maxClients, long order, boolean perm, boolean sperm, boolean default_, boolean pw, long enc, List<ChannelClient> clients) {
+		static Channel read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			long id = 0;
+			long parent = 0;
+			String name = null;
+			String topic = null;
+			long codec = 0;
+			long quality = 0;
+			long maxClients = 0;
+			long order = 0;
+			boolean perm = false;
+			boolean sperm = false;
+			boolean default_ = false;
+			boolean pw = false;
+			long enc = 0;
+			List<ChannelClient> clients = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "id":
+					id = reader.nextLong();
+					break;
+				case "parent":
+					parent = reader.nextLong();
+					break;
+				case "name":
+					name = reader.nextString();
+					break;
+				case "topic":
+					topic = reader.nextString();
+					break;
+				case "codec":
+					codec = reader.nextLong();
+					break;
+				case "quality":
+					quality = reader.nextLong();
+					break;
+				case "maxClients":
+					maxClients = reader.nextLong();
+					break;
+				case "order":
+					order = reader.nextLong();
+					break;
+				case "perm":
+					perm = reader.nextBoolean();
+					break;
+				case "sperm":
+					sperm = reader.nextBoolean();
+					break;
+				case "default":
+					default_ = reader.nextBoolean();
+					break;
+				case "pw":
+					pw = reader.nextBoolean();
+					break;
+				case "enc":
+					enc = reader.nextLong();
+					break;
+				case "clients":
+					clients = reader.readList(ChannelClient::read);
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new Channel(id, parent, name, topic, codec, quality, maxClients, order, perm, sperm, default_, pw, enc, clients);
+		}
+	}
+
+	/**
+	 * Typed response of {@link #getJobs}
+	 * @param uuid uuid
+	 * @param url url
+	 * @param size estimated size of the target
+	 * @param perc estimated progression in percent
+	 * @param status
+	 * @param trackuuid uuid of the track that was generated out of the job
+	 * @param message extended message of the external script
+	 * @param eta estimated time of download to go
+	 * @param bw current badnwidth
+	 * @param play autoplay when done
+	 * @param temp delete after playback
+	 * @param done true, if the job is finished
+	 */
+	public record Job(String uuid, String url, long size, long perc, String status, String trackuuid, String message, long eta, long bw, boolean play, boolean temp, boolean done) {
+		static Job read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String uuid = null;
+			String url = null;
+			long size = 0;
+			long perc = 0;
+			String status = null;
+			String trackuuid = null;
+			String message = null;
+			long eta = 0;
+			long bw = 0;
+			boolean play = false;
+			boolean temp = false;
+			boolean done = false;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "uuid":
+					uuid = reader.nextString();
+					break;
+				case "url":
+					url = reader.nextString();
+					break;
+				case "size":
+					size = reader.nextLong();
+					break;
+				case "perc":
+					perc = reader.nextLong();
+					break;
+				case "status":
+					status = reader.nextString();
+					break;
+				case "trackuuid":
+					trackuuid = reader.nextString();
+					break;
+				case "message":
+					message = reader.nextString();
+					break;
+				case "eta":
+					eta = reader.nextLong();
+					break;
+				case "bw":
+					bw = reader.nextLong();
+					break;
+				case "play":
+					play = reader.nextBoolean();
+					break;
+				case "temp":
+					temp = reader.nextBoolean();
+					break;
+				case "done":
+					done = reader.nextBoolean();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new Job(uuid, url, size, perc, status, trackuuid, message, eta, bw, play, temp, done);
+		}
+	}
+
+	/**
+	 * Typed response of {@link #getUsers}
+	 * @param id uuid of the user
+	 * @param name name of the user (login-name)
+	 * @param tsuid TeamSpeak unique identifier that has been bound to the user
+	 * @param tsgid TeamSpeak group-id that has been bound to the user
+	 * @param locked if true, the user cannot login
+	 * @param isAdmin if true, this is the admin-user that cannot be changed
+	 * @param privileges bitmask of all privileges the user has, see privileges
+	 */
+	public record User(String id, String name, String tsuid, String tsgid, boolean locked, boolean isAdmin, long privileges) {
+		static User read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;
+			String id = null;
+			String name = null;
+			String tsuid = null;
+			String tsgid = null;
+			boolean locked = false;
+			boolean isAdmin = false;
+			long privileges = 0;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case "id":
+					id = reader.nextString();
+					break;
+				case "name":
+					name = reader.nextString();
+					break;
+				case "tsuid":
+					tsuid = reader.nextString();
+					break;
+				case "tsgid":
+					tsgid = reader.nextString();
+					break;
+				case "locked":
+					locked = reader.nextBoolean();
+					break;
+				case "isAdmin":
+					isAdmin = reader.nextBoolean();
+					break;
+				case "privileges":
+					privileges = reader.nextLong();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new User(id, name, tsuid, tsgid, locked, isAdmin, privileges);
+		}
+	}
+
+}
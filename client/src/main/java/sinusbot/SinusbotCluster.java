@@ -0,0 +1,576 @@
+package sinusbot;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Client for several sinusbot hosts.
+ * Functions of an instance are sent to the host running it, found in a routing table built from the
+ * instance lists of all hosts. The table is loaded again when an unknown instance is requested, at most every
+ * 5 seconds, and an instance that was not found is not looked up again for a minute. Concurrent lookups share one
+ * reload and routing of known instances goes on while it runs.
+ * Other functions can be called on every host at once with {@link #gather(Function)}.
+ */
+public class SinusbotCluster {
+	private static final long MIN_REFRESH_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+	private static final long UNKNOWN_TTL = TimeUnit.MINUTES.toNanos(1);
+
+	private final Duration timeout;
+	private volatile Map<String, SinusbotAPI> hosts = Collections.emptyMap();
+	// instanceId to host name, replaced as a whole
+	private volatile Map<String, String> routes = Collections.emptyMap();
+	// Reload of the routing table in progress, shared by all callers
+	private final AtomicReference<CompletableFuture<Integer>> refreshing = new AtomicReference<>();
+	private volatile long lastRefresh = System.nanoTime() - MIN_REFRESH_INTERVAL;
+	// instanceId not found by a reload to the time of that reload
+	private final Map<String, Long> unknown = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param timeout Time to wait for the hosts in {@link #gather(Function)} and when loading the routing table
+	 */
+	public SinusbotCluster(Duration timeout) {
+		this.timeout = timeout;
+	}
+	
+	/**
+	 * Adds a host, its instances are routed after the next {@link #refreshRoutes()}
+	 * @param name Name of the host, e.g. its address
+	 * @param api Logged in connection to the host
+	 */
+	public synchronized void addHost(String name, SinusbotAPI api) {
+		Map<String, SinusbotAPI> copy = new LinkedHashMap<>(hosts);
+		copy.put(name, api);
+		hosts = Collections.unmodifiableMap(copy);
+	}
+	
+	/**
+	 * Removes a host and the routes to its instances
+	 * @param name Name of the host
+	 */
+	public synchronized void removeHost(String name) {
+		Map<String, SinusbotAPI> copy = new LinkedHashMap<>(hosts);
+		copy.remove(name);
+		hosts = Collections.unmodifiableMap(copy);
+		Map<String, String> newRoutes = new HashMap<>(routes);
+		newRoutes.values().removeIf(name::equals);
+		routes = Collections.unmodifiableMap(newRoutes);
+	}
+	
+	/**
+	 * @return Names of all hosts
+	 */
+	public Set<String> hosts() {
+		return hosts.keySet();
+	}
+	
+	/**
+	 * @param name Name of the host
+	 * @return Connection to the host, null if unknown
+	 */
+	public SinusbotAPI host(String name) {
+		return hosts.get(name);
+	}
+	
+	/**
+	 * @param instanceId uuid of the instance
+	 * @return Name of the host running the instance, null if unknown
+	 */
+	public String hostOf(String instanceId) {
+		String host = routes.get(instanceId);
+		if (host != null)
+			return host;
+		Long missed = unknown.get(instanceId);
+		if (missed != null && System.nanoTime() - missed < UNKNOWN_TTL)
+			return null;
+		if (refreshing.get() == null && System.nanoTime() - lastRefresh < MIN_REFRESH_INTERVAL)
+			return null;
+		refresh();
+		host = routes.get(instanceId);
+		if (host == null)
+			unknown.put(instanceId, lastRefresh);
+		return host;
+	}
+	
+	/**
+	 * @param instanceId uuid of the instance
+	 * @return Connection to the host running the instance, null if unknown
+	 */
+	public SinusbotAPI api(String instanceId) {
+		String host = hostOf(instanceId);
+		return host == null ? null : hosts.get(host);
+	}
+	
+	/**
+	 * Loads the instance lists of all hosts in parallel and rebuilds the routing table.
+	 * Hosts that fail or time out keep their previous routes. A reload already in progress is waited for instead.
+	 * @return Number of routed instances
+	 */
+	public int refreshRoutes() {
+		return refresh();
+	}
+	
+	private int refresh() {
+		CompletableFuture<Integer> own = new CompletableFuture<>();
+		CompletableFuture<Integer> running = refreshing.compareAndExchange(null, own);
+		if (running != null)
+			return running.join();
+		try {
+			// The hosts are asked without holding the lock, lookups of known instances are not held up
+			Map<String, List<SinusbotAPI.Instance>> instances = gather(SinusbotAPI::getInstancesTyped);
+			own.complete(applyRoutes(instances));
+		} catch (RuntimeException | Error e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			refreshing.set(null);
+		}
+		return own.join();
+	}
+	
+	private synchronized int applyRoutes(Map<String, List<SinusbotAPI.Instance>> instances) {
+		Map<String, String> newRoutes = new HashMap<>();
+		for (Map.Entry<String, String> route : routes.entrySet())
+			if (hosts.containsKey(route.getValue()) && !instances.containsKey(route.getValue()))
+				newRoutes.put(route.getKey(), route.getValue());
+		for (Map.Entry<String, List<SinusbotAPI.Instance>> host : instances.entrySet())
+			if (hosts.containsKey(host.getKey()))
+				for (SinusbotAPI.Instance instance : host.getValue())
+					newRoutes.put(instance.uuid(), host.getKey());
+		routes = Collections.unmodifiableMap(newRoutes);
+		long now = System.nanoTime();
+		lastRefresh = now;
+		unknown.keySet().removeAll(newRoutes.keySet());
+		unknown.values().removeIf(missed -> now - missed >= UNKNOWN_TTL);
+		return newRoutes.size();
+	}
+	
+	/**
+	 * Calls a function on all hosts in parallel
+	 * @param call Function to call, e.g. SinusbotAPI::getFilesTyped
+	 * @return Results by host name, hosts that failed or did not respond in time are missing
+	 */
+	public <T> Map<String, T> gather(Function<SinusbotAPI, T> call) {
+		return gather(call, timeout);
+	}
+	
+	/**
+	 * Calls a function on all hosts in parallel
+	 * @param call Function to call, e.g. SinusbotAPI::getFilesTyped
+	 * @param timeout Time to wait for the hosts
+	 * @return Results by host name, hosts that failed or did not respond in time are missing
+	 */
+	public <T> Map<String, T> gather(Function<SinusbotAPI, T> call, Duration timeout) {
+		Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+		for (Map.Entry<String, SinusbotAPI> host : hosts.entrySet()) {
+			SinusbotAPI api = host.getValue();
+			futures.put(host.getKey(), CompletableFuture.supplyAsync(() -> call.apply(api), api.executor()));
+		}
+		long deadline = System.nanoTime() + timeout.toNanos();
+		Map<String, T> results = new LinkedHashMap<>();
+		for (Map.Entry<String, CompletableFuture<T>> future : futures.entrySet()) {
+			try {
+				T result = future.getValue().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+				if (result != null)
+					results.put(future.getKey(), result);
+			} catch (TimeoutException e) {
+				// Left out, the request completes in the background
+			} catch (ExecutionException e) {
+				e.getCause().printStackTrace();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return results;
+	}
+	
+	/**
+	 * @return Instances of all hosts by host name
+	 */
+	public Map<String, List<SinusbotAPI.Instance>> getInstances() {
+		return gather(SinusbotAPI::getInstancesTyped);
+	}
+	
+	/**
+	 * @return Files of all hosts by host name
+	 */
+	public Map<String, List<SinusbotAPI.Track>> getFiles() {
+		return gather(SinusbotAPI::getFilesTyped);
+	}
+
+	/**
+	 * Avatars - Remove avatar - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#avatarDelete}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject avatarDelete(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.avatarDelete(instanceId);
+	}
+
+	/**
+	 * Avatars - Upload avatar - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#avatarUpload}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject avatarUpload(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.avatarUpload(instanceId);
+	}
+
+	/**
+	 * Instances - Settings - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param nick the nickname the bot should use 
+	 * @param serverHost IP/hostname of the teamspeak server to use 
+	 * @param serverPort the port to use 
+	 * @param serverPassword the password to use 
+	 * @param channelName 
+	 * @param channelPassword 
+	 * @param updateDescription update the client description to contain track information 
+	 * @param announce announce new tracks in the channel 
+	 * @param annonuceString which string to use when announcing tracks 
+	 * @param identity a TeamSpeak identity that the bot should use 
+	 * @param enableDucking ducking reduces the volume of music when somebody is talking in the channel 
+	 * @param duckingVolume the volume level that should be used when ducking is active 
+	 * @param channelCommander if true, the bot tries to become channel commander (required the permission on the ts server) 
+	 * @param stickToChannel if true, the bot always tries to go back to its original channel when moved 
+	 * @param ttsExternalURL the URL to use for Text-To-Speech (should contain the variables __TEXT and __LOCALE) 
+	 * @param ttsDefaultLocale the default locale that should be used for the __LOCALE variable 
+	 * @param ignoreChatServer ignores the server chat for commands 
+	 * @param ignoreChatPrivate ignores private messages for commands 
+	 * @param ignoreChatChannel ignores the channel chat for commands 
+	 * @param idleTrack a mediaurl to be played when the bot becomes idle 
+	 * @param startupTrack a mediaurl to be played when the bot starts up 
+	 * @return Response of {@link SinusbotAPI#getSettings}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject getSettings(String instanceId, String nick, String serverHost, Integer serverPort, String serverPassword, String channelName, String channelPassword, Boolean updateDescription, Boolean announce, String annonuceString, String identity, Boolean enableDucking, Integer duckingVolume, Boolean channelCommander, Boolean stickToChannel, String ttsExternalURL, String ttsDefaultLocale, Boolean ignoreChatServer, Boolean ignoreChatPrivate, Boolean ignoreChatChannel, String idleTrack, String startupTrack) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.getSettings(instanceId, nick, serverHost, serverPort, serverPassword, channelName, channelPassword, updateDescription, announce, annonuceString, identity, enableDucking, duckingVolume, channelCommander, stickToChannel, ttsExternalURL, ttsDefaultLocale, ignoreChatServer, ignoreChatPrivate, ignoreChatChannel, idleTrack, startupTrack);
+	}
+
+	/**
+	 * Instances - Status - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#getStatus}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject getStatus(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.getStatus(instanceId);
+	}
+
+	/**
+	 * Instances - Shutdown - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#kill}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject kill(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.kill(instanceId);
+	}
+
+	/**
+	 * Instances - Restart - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#respawn}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject respawn(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.respawn(instanceId);
+	}
+
+	/**
+	 * Instances - Launch - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#spawn}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject spawn(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.spawn(instanceId);
+	}
+
+	/**
+	 * Logging - Instance-Log - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#getInstanceLog}, null if the instance is unknown or the request failed
+	 */
+	public JSONArray getInstanceLog(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.getInstanceLog(instanceId);
+	}
+
+	/**
+	 * Playback - Decrease volume by 5% - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#decreaseVolume}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject decreaseVolume(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.decreaseVolume(instanceId);
+	}
+
+	/**
+	 * Playback - Increase volume by 5% - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#increaseVolume}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject increaseVolume(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.increaseVolume(instanceId);
+	}
+
+	/**
+	 * Playback - Pause playback - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#pause}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject pause(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.pause(instanceId);
+	}
+
+	/**
+	 * Playback - Playback a file - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param id uuid of the file to playback 
+	 * @return Response of {@link SinusbotAPI#playById}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject playById(String instanceId, String id) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.playById(instanceId, id);
+	}
+
+	/**
+	 * Playback - Playback a file inside a playlist - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param playlistId uuid of the playlist 
+	 * @param index number of the track inside the playlist 
+	 * @return Response of {@link SinusbotAPI#playByList}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject playByList(String instanceId, String playlistId, Integer index) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.playByList(instanceId, playlistId, index);
+	}
+
+	/**
+	 * Playback - Playback URL - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param url the url that should be played back 
+	 * @param plugin name of the plugin that returned this url 
+	 * @return Response of {@link SinusbotAPI#playUrl}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject playUrl(String instanceId, String url, String plugin) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.playUrl(instanceId, url, plugin);
+	}
+
+	/**
+	 * Playback - recently played tracks - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#recentTracks}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject recentTracks(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.recentTracks(instanceId);
+	}
+
+	/**
+	 * Playback - Say (TTS) - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param text the text to say 
+	 * @param locale the locale to use - if none is given, the default one will be used 
+	 * @return Response of {@link SinusbotAPI#say}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject say(String instanceId, String text, String locale) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.say(instanceId, text, locale);
+	}
+
+	/**
+	 * Playback - Seek - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param val position in percent 
+	 * @return Response of {@link SinusbotAPI#seek}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject seek(String instanceId, Integer val) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.seek(instanceId, val);
+	}
+
+	/**
+	 * Playback - Enable/Disable mute - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param val 0 / 1 to disable/enable mute 
+	 * @return Response of {@link SinusbotAPI#setMute}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject setMute(String instanceId, Integer val) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.setMute(instanceId, val);
+	}
+
+	/**
+	 * Playback - Set the volume - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param volume volume level in percent (0-100) 
+	 * @return Response of {@link SinusbotAPI#setVolume}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject setVolume(String instanceId, Integer volume) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.setVolume(instanceId, volume);
+	}
+
+	/**
+	 * Playback - Stop playback - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#stop}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject stop(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.stop(instanceId);
+	}
+
+	/**
+	 * Playlists - Next - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#playNext}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject playNext(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.playNext(instanceId);
+	}
+
+	/**
+	 * Playlists - Previous - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#playPrevious}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject playPrevious(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.playPrevious(instanceId);
+	}
+
+	/**
+	 * Playlists - Enable/Disable repeat - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param val 0 / 1 to disable/enable repeat 
+	 * @return Response of {@link SinusbotAPI#setRepeat}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject setRepeat(String instanceId, Integer val) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.setRepeat(instanceId, val);
+	}
+
+	/**
+	 * Playlists - Enable/Disable shuffle - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param val 0 / 1 to disable/enable shuffle 
+	 * @return Response of {@link SinusbotAPI#setShuffle}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject setShuffle(String instanceId, Integer val) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.setShuffle(instanceId, val);
+	}
+
+	/**
+	 * Queue - Append a track to the queue - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param uuid track uuid 
+	 * @return Response of {@link SinusbotAPI#appendQueue}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject appendQueue(String instanceId, String uuid) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.appendQueue(instanceId, uuid);
+	}
+
+	/**
+	 * Queue - Get list - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#getQueue}, null if the instance is unknown or the request failed
+	 */
+	public JSONArray getQueue(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.getQueue(instanceId);
+	}
+
+	/**
+	 * Queue - Prepend a track to the queue - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param uuid track uuid 
+	 * @return Response of {@link SinusbotAPI#prependQueue}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject prependQueue(String instanceId, String uuid) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.prependQueue(instanceId, uuid);
+	}
+
+	/**
+	 * Queue - Remove from queue - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param queuePos the position of the track inside the queue that should be removed 
+	 * @return Response of {@link SinusbotAPI#removeFromQueue}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject removeFromQueue(String instanceId, Integer queuePos) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.removeFromQueue(instanceId, queuePos);
+	}
+
+	/**
+	 * Scripts - Save Settings - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param ScriptName 
+	 * @param ScriptName_enabled 
+	 * @param ScriptName_config the JSON-encoded script settings 
+	 * @return Response of {@link SinusbotAPI#saveSettings}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject saveSettings(String instanceId, Object[] ScriptName, Boolean ScriptName_enabled, String ScriptName_config) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.saveSettings(instanceId, ScriptName, ScriptName_enabled, ScriptName_config);
+	}
+
+	/**
+	 * Streaming - Get a token for the WebStream - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#getStreamToken}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject getStreamToken(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.getStreamToken(instanceId);
+	}
+
+	/**
+	 * TeamSpeak - Channel list - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @return Response of {@link SinusbotAPI#getChannels}, null if the instance is unknown or the request failed
+	 */
+	public JSONArray getChannels(String instanceId) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.getChannels(instanceId);
+	}
+
+	/**
+	 * Users - Update Instance Privileges - sent to the host running the instance 
+	 * @param instanceId uuid/id of the instance 
+	 * @param userId uuid of the user that should be deleted 
+	 * @param privileges bitmask of the users' privileges for this instance 
+	 * @return Response of {@link SinusbotAPI#updateInstanceUserPrivileges}, null if the instance is unknown or the request failed
+	 */
+	public JSONObject updateInstanceUserPrivileges(String instanceId, String userId, Integer privileges) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.updateInstanceUserPrivileges(instanceId, userId, privileges);
+	}
+}
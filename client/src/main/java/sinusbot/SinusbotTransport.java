@@ -0,0 +1,110 @@
+package sinusbot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Carries a single HTTP request to the sinusbot web interface.
+ * Implementations are shared by every call of a {@link SinusbotAPI} instance and must be thread-safe.
+ */
+public interface SinusbotTransport {
+
+	/**
+	 * Sends a request and returns the response body
+	 * @param requestMethod HTTP method, e.g. GET or POST
+	 * @param url Fully resolved request url
+	 * @param token Bearer token, null if not logged in yet
+	 * @param body JSON request body, null if no body should be sent
+	 * @return Response body stream - must be closed by the caller to release the connection
+	 * @throws IOException If the request fails, a {@link StatusException} if the server responds with an error status
+	 */
+	InputStream send(String requestMethod, String url, String token, byte[] body) throws IOException;
+
+	/**
+	 * Sends a request whose body is the content of a file.
+	 * The default implementation reads the whole file into memory, implementations should stream it instead.
+	 * @param requestMethod HTTP method, e.g. POST
+	 * @param url Fully resolved request url
+	 * @param token Bearer token
+	 * @param file File to send as the body
+	 * @param progress Receives the number of bytes sent so far, may be null
+	 * @return Response body stream - must be closed by the caller to release the connection
+	 * @throws IOException If the file cannot be read or the request fails
+	 */
+	default InputStream send(String requestMethod, String url, String token, Path file, LongConsumer progress) throws IOException {
+		byte[] body = Files.readAllBytes(file);
+		InputStream in = send(requestMethod, url, token, body);
+		if (progress != null)
+			progress.accept(body.length);
+		return in;
+	}
+
+	/**
+	 * Sends requests to the same host in the given order and collects their responses.
+	 * The default sends one request after the other, {@link HttpClientTransport} pipelines plain http requests over a
+	 * connection of their own and falls back to the default for https.
+	 * @param calls Requests in the order the server has to process them
+	 * @param token Bearer token, null if not logged in yet
+	 * @return Response of each call, in the same order
+	 */
+	default List<Reply> sendPipelined(List<Call> calls, String token) {
+		List<Reply> replies = new ArrayList<>(calls.size());
+		for (Call call : calls) {
+			try (InputStream in = send(call.requestMethod(), call.url(), token, call.body())) {
+				replies.add(new Reply(in.readAllBytes(), null));
+			} catch (IOException e) {
+				replies.add(new Reply(null, e));
+			}
+		}
+		return replies;
+	}
+
+	/**
+	 * A request of {@link #sendPipelined(List, String)}
+	 * @param requestMethod HTTP method, e.g. GET or POST
+	 * @param url Fully resolved request url
+	 * @param body JSON request body, null if no body should be sent
+	 */
+	record Call(String requestMethod, String url, byte[] body) {
+	}
+
+	/**
+	 * Response to a {@link Call}
+	 * @param body Response body, null if the call failed
+	 * @param error Cause of the failure, null if the call succeeded
+	 */
+	record Reply(byte[] body, IOException error) {
+	}
+
+	/**
+	 * Response body stream that inflates a compressed response, {@link Metrics} records its wire bytes next to the decoded ones
+	 */
+	interface CompressedBody {
+		/**
+		 * @return Compressed bytes read off the connection so far
+		 */
+		long wireBytes();
+	}
+
+	/**
+	 * Error status returned by the server, 401 makes {@link SinusbotAPI} log in again and repeat the request
+	 */
+	class StatusException extends IOException {
+		private static final long serialVersionUID = 1L;
+		private final int statusCode;
+
+		public StatusException(int statusCode, String url) {
+			super("Server returned HTTP response code: " + statusCode + " for URL: " + url);
+			this.statusCode = statusCode;
+		}
+
+		public int statusCode() {
+			return statusCode;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package sinusbot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.json.JSONObject;
+
+/**
+ * Uploads files from disk to the file list of a sinusbot.
+ * Files are streamed from disk by the transport instead of being read into memory, and are checked
+ * against the maximum upload size reported by {@link SinusbotAPI#uploadInfo()} before they are sent.
+ */
+public class Uploader {
+	/**
+	 * Receives the progress of uploads, may be called from several threads at once
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+		/**
+		 * @param file File being uploaded
+		 * @param sent Number of bytes sent so far
+		 * @param size Size of the file
+		 */
+		void progress(Path file, long sent, long size);
+	}
+
+	/**
+	 * Outcome of the upload of one file
+	 * @param file File that was uploaded
+	 * @param track The created track, null if the upload failed
+	 * @param error Cause of the failure, null if the upload succeeded
+	 */
+	public record Result(Path file, SinusbotAPI.Track track, IOException error) {
+		public boolean success() {
+			return error == null;
+		}
+	}
+
+	private final SinusbotAPI api;
+	private final int parallelism;
+	private volatile long maxSize = -1;
+
+	/**
+	 * @param api Connection to the sinusbot
+	 * @param parallelism Maximum number of concurrent uploads of {@link #uploadTree(Path, String, ProgressListener)}
+	 */
+	public Uploader(SinusbotAPI api, int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be positive");
+		this.api = api;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @return Maximum size of an uploaded file in bytes as reported by the sinusbot, 0 if unlimited
+	 * @throws IOException If the upload restrictions could not be loaded
+	 */
+	public long maxSize() throws IOException {
+		long max = maxSize;
+		if (max < 0) {
+			JSONObject info = api.uploadInfo();
+			if (info == null)
+				throw new IOException("Could not load the upload restrictions");
+			maxSize = max = Math.max(info.optLong("maxSize", 0), 0);
+		}
+		return max;
+	}
+
+	/**
+	 * Uploads a single file
+	 * @param file File to upload
+	 * @param folder uuid of the folder to place the file into, null for the root folder
+	 * @param listener Receives the progress, may be null
+	 * @return The created track
+	 * @throws IOException If the file is too large, cannot be read or the upload fails
+	 */
+	public SinusbotAPI.Track upload(Path file, String folder, ProgressListener listener) throws IOException {
+		long size = Files.size(file);
+		long max = maxSize();
+		if (max > 0 && size > max)
+			throw new IOException(file + " has " + size + " bytes, the sinusbot accepts at most " + max);
+		String path = Endpoints.of("uploadFile").path() + "?filename=" + SinusbotAPI.queryValue(file.getFileName().toString());
+		if (folder != null)
+			path += "&folder=" + SinusbotAPI.queryValue(folder);
+		return api.postFile("uploadFile", path, file, listener == null ? null : sent -> listener.progress(file, sent, size),
+				SinusbotAPI.Track::read);
+	}
+
+	/**
+	 * Uploads all regular files below a directory, up to {@code parallelism} at a time.
+	 * All files are placed into the same folder of the file list.
+	 * @param directory Directory to upload
+	 * @param folder uuid of the folder to place the files into, null for the root folder
+	 * @param listener Receives the progress of every file, may be null
+	 * @return Outcome of every file in the order of the walked files, including the failed uploads
+	 * @throws IOException If the directory cannot be walked or the upload restrictions could not be loaded
+	 */
+	public List<Result> uploadTree(Path directory, String folder, ProgressListener listener) throws IOException {
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(directory)) {
+			files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		maxSize(); // Load once before the workers start
+
+		Result[] results = new Result[files.size()];
+		FanOut.forEach(results.length, parallelism, api.executor(), i -> {
+			try {
+				results[i] = new Result(files.get(i), upload(files.get(i), folder, listener), null);
+			} catch (IOException e) {
+				results[i] = new Result(files.get(i), null, e);
+			}
+		});
+		return List.of(results);
+	}
+}
@@ -0,0 +1,184 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AudioStreamTest {
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Blocks in read until released, then fails
+	 */
+	private static final class FailingChannel implements ReadableByteChannel {
+		private final CountDownLatch reading = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			reading.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw new IOException("connection reset");
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static byte[] audio(int length, int seed) {
+		byte[] audio = new byte[length];
+		for (int i = 0; i < length; i++)
+			audio[i] = (byte) (i * 31 + seed);
+		return audio;
+	}
+
+	private static void write(Pipe pipe, byte[] audio) throws IOException {
+		ByteBuffer src = ByteBuffer.wrap(audio);
+		while (src.hasRemaining())
+			pipe.sink().write(src);
+	}
+
+	private static byte[] readAll(ReadableByteChannel consumer) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteBuffer dst = ByteBuffer.allocate(5000);
+		while (consumer.read(dst) >= 0) {
+			out.write(dst.array(), 0, dst.position());
+			dst.clear();
+		}
+		return out.toByteArray();
+	}
+
+	private static void awaitReceived(AudioStream stream, long bytes) throws InterruptedException {
+		for (int i = 0; i < 500 && stream.received() < bytes; i++)
+			Thread.sleep(10);
+		assertEquals(bytes, stream.received());
+	}
+
+	private static byte[] read(ReadableByteChannel consumer, int length) throws IOException {
+		ByteBuffer dst = ByteBuffer.allocate(length);
+		while (dst.hasRemaining())
+			if (consumer.read(dst) < 0)
+				break;
+		return dst.array();
+	}
+
+	@Test
+	void everyConsumerReceivesTheWholeStream() throws Exception {
+		Pipe pipe = Pipe.open();
+		try (AudioStream stream = new AudioStream(pipe.source(), BUFFER_SIZE)) {
+			AudioStream.Consumer first = stream.subscribe();
+			AudioStream.Consumer second = stream.subscribe();
+			// Wraps around the ring several times, both consumers keep up so nothing is skipped
+			for (int i = 0; i < 12; i++) {
+				byte[] audio = audio(10000, i);
+				write(pipe, audio);
+				assertArrayEquals(audio, read(first, audio.length));
+				assertArrayEquals(audio, read(second, audio.length));
+			}
+			pipe.sink().close();
+			assertEquals(-1, first.read(ByteBuffer.allocate(10)));
+			assertEquals(-1, second.read(ByteBuffer.allocate(10)));
+			assertEquals(0, first.dropped());
+			assertEquals(0, second.dropped());
+		}
+	}
+
+	@Test
+	void laggingConsumerSkipsTheOverwrittenAudio() throws Exception {
+		Pipe pipe = Pipe.open();
+		try (AudioStream stream = new AudioStream(pipe.source(), BUFFER_SIZE)) {
+			AudioStream.Consumer lagging = stream.subscribe();
+			byte[] audio = audio(4 * BUFFER_SIZE, 3);
+			write(pipe, audio);
+			awaitReceived(stream, audio.length);
+			pipe.sink().close();
+			byte[] read = readAll(lagging);
+			assertTrue(lagging.dropped() > 0, "dropped " + lagging.dropped());
+			assertEquals(audio.length, lagging.dropped() + read.length);
+			assertTrue(read.length <= BUFFER_SIZE, "read " + read.length);
+			// What is left is the newest audio, in order
+			byte[] newest = new byte[read.length];
+			System.arraycopy(audio, audio.length - read.length, newest, 0, read.length);
+			assertArrayEquals(newest, read);
+		}
+	}
+
+	@Test
+	void consumerStartsAtTheCurrentPosition() throws Exception {
+		Pipe pipe = Pipe.open();
+		try (AudioStream stream = new AudioStream(pipe.source(), BUFFER_SIZE)) {
+			write(pipe, audio(1000, 1));
+			awaitReceived(stream, 1000);
+			AudioStream.Consumer late = stream.subscribe();
+			byte[] audio = audio(2000, 2);
+			write(pipe, audio);
+			pipe.sink().close();
+			assertArrayEquals(audio, readAll(late));
+		}
+	}
+
+	@Test
+	void closedConsumerCannotRead() throws Exception {
+		Pipe pipe = Pipe.open();
+		try (AudioStream stream = new AudioStream(pipe.source(), BUFFER_SIZE)) {
+			AudioStream.Consumer consumer = stream.subscribe();
+			consumer.close();
+			assertThrows(ClosedChannelException.class, () -> consumer.read(ByteBuffer.allocate(10)));
+			pipe.sink().close();
+		}
+	}
+
+	@Test
+	void failureReachesTheConsumers() throws Exception {
+		FailingChannel source = new FailingChannel();
+		try (AudioStream stream = new AudioStream(source, BUFFER_SIZE)) {
+			AudioStream.Consumer consumer = stream.subscribe();
+			source.release.countDown();
+			IOException failure = assertThrows(IOException.class, () -> consumer.read(ByteBuffer.allocate(10)));
+			assertEquals("connection reset", failure.getCause().getMessage());
+		}
+	}
+
+	@Test
+	void failureAfterCloseIsTheEndOfTheStream() throws Exception {
+		FailingChannel source = new FailingChannel();
+		AudioStream stream = new AudioStream(source, BUFFER_SIZE);
+		AudioStream.Consumer consumer = stream.subscribe();
+		assertTrue(source.reading.await(5, TimeUnit.SECONDS));
+		CompletableFuture<Void> closed = CompletableFuture.runAsync(() -> {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		// close() waits for the read, which fails once the stream is torn down
+		assertEquals(-1, consumer.read(ByteBuffer.allocate(10)));
+		source.release.countDown();
+		closed.get(5, TimeUnit.SECONDS);
+		assertEquals(-1, consumer.read(ByteBuffer.allocate(10)));
+	}
+}
@@ -0,0 +1,187 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterTest {
+	private static InputStream response() {
+		return new ByteArrayInputStream(new byte[0]);
+	}
+
+	@Test
+	void rejectsWhenTheQueueIsFull() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0, Duration.ofSeconds(1));
+		try (InputStream in = limiter.send("getStatus", ConcurrencyLimiterTest::response)) {
+			assertEquals(1, limiter.inflight());
+			assertThrows(ConcurrencyLimiter.RejectedException.class, () -> limiter.send("getStatus", ConcurrencyLimiterTest::response));
+		}
+		assertEquals(0, limiter.inflight());
+		limiter.send("getStatus", ConcurrencyLimiterTest::response).close();
+	}
+
+	@Test
+	void rejectsAfterWaiting() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 1, Duration.ofMillis(50));
+		try (InputStream in = limiter.send("getStatus", ConcurrencyLimiterTest::response)) {
+			assertThrows(ConcurrencyLimiter.RejectedException.class, () -> limiter.send("getStatus", ConcurrencyLimiterTest::response));
+			assertEquals(0, limiter.queued());
+		}
+	}
+
+	@Test
+	void queuedRequestStartsWhenASlotIsFree() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 1, Duration.ofSeconds(10));
+		InputStream first = limiter.send("getStatus", ConcurrencyLimiterTest::response);
+		CompletableFuture<InputStream> second = CompletableFuture.supplyAsync(() -> {
+			try {
+				return limiter.send("getStatus", ConcurrencyLimiterTest::response);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		while (limiter.queued() == 0)
+			Thread.sleep(1);
+		first.close();
+		second.get(5, TimeUnit.SECONDS).close();
+		assertEquals(0, limiter.inflight());
+	}
+
+	@Test
+	void interruptLeavesTheQueue() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 1, Duration.ofSeconds(10));
+		try (InputStream in = limiter.send("getStatus", ConcurrencyLimiterTest::response)) {
+			CompletableFuture<Exception> failure = new CompletableFuture<>();
+			Thread waiting = new Thread(() -> {
+				try {
+					limiter.send("getStatus", ConcurrencyLimiterTest::response).close();
+					failure.complete(null);
+				} catch (Exception e) {
+					failure.complete(e);
+				}
+			});
+			waiting.start();
+			while (limiter.queued() == 0)
+				Thread.sleep(1);
+			waiting.interrupt();
+			assertInstanceOf(InterruptedIOException.class, failure.get(5, TimeUnit.SECONDS));
+			assertEquals(0, limiter.queued());
+		}
+	}
+
+	@Test
+	void slowResponsesDecreaseTheLimit() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(8, 1, 8, 0, Duration.ofSeconds(1));
+		for (int i = 0; i < 10; i++)
+			limiter.send("getStatus", ConcurrencyLimiterTest::response).close();
+		assertEquals(8, limiter.limit());
+		limiter.send("getStatus", () -> {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			}
+			return response();
+		}).close();
+		assertTrue(limiter.limit() < 8, "limit " + limiter.limit());
+	}
+
+	private static ConcurrencyLimiter warmedUp() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(8, 1, 8, 0, Duration.ofSeconds(1));
+		for (int i = 0; i < 10; i++)
+			limiter.send("getStatus", ConcurrencyLimiterTest::response).close();
+		return limiter;
+	}
+
+	@Test
+	void timeoutsDecreaseTheLimit() throws Exception {
+		ConcurrencyLimiter limiter = warmedUp();
+		assertThrows(HttpTimeoutException.class, () -> limiter.send("getStatus", () -> {
+			throw new HttpTimeoutException("timed out");
+		}));
+		assertTrue(limiter.limit() < 8, "limit " + limiter.limit());
+		ConcurrencyLimiter other = warmedUp();
+		assertThrows(SocketTimeoutException.class, () -> other.send("getStatus", () -> {
+			throw new SocketTimeoutException("timed out");
+		}));
+		assertTrue(other.limit() < 8, "limit " + other.limit());
+	}
+
+	@Test
+	void cancelledRequestKeepsTheLimit() throws Exception {
+		ConcurrencyLimiter limiter = warmedUp();
+		// A pause of the test itself may already have lowered the limit a little
+		int limit = limiter.limit();
+		assertThrows(InterruptedIOException.class, () -> limiter.send("getStatus", () -> {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				// Not interrupted
+			}
+			throw new InterruptedIOException("cancelled");
+		}));
+		assertEquals(limit, limiter.limit());
+		assertEquals(0, limiter.inflight());
+		// A slow response after the cancellation still counts
+		limiter.send("getStatus", () -> {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			}
+			return response();
+		}).close();
+		assertTrue(limiter.limit() < limit, "limit " + limiter.limit());
+	}
+
+	@Test
+	void failedRequestFreesItsSlot() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0, Duration.ofSeconds(1));
+		assertThrows(SinusbotTransport.StatusException.class, () -> limiter.send("getStatus", () -> {
+			throw new SinusbotTransport.StatusException(500, "http://127.0.0.1/api/v1/bot/i/a/status");
+		}));
+		assertEquals(0, limiter.inflight());
+		limiter.send("getStatus", ConcurrencyLimiterTest::response).close();
+	}
+
+	@Test
+	void higherPriorityIsServedFirst() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 2, Duration.ofSeconds(10));
+		List<String> order = new CopyOnWriteArrayList<>();
+		InputStream first = limiter.send("getStatus", ConcurrencyLimiterTest::response);
+		List<CompletableFuture<Void>> waiting = new ArrayList<>();
+		for (String endpoint : new String[] { "getFiles", "pause" }) {
+			waiting.add(CompletableFuture.runAsync(() -> {
+				try {
+					limiter.send(endpoint, () -> {
+						order.add(endpoint);
+						return response();
+					}).close();
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}));
+			while (limiter.queued() < waiting.size())
+				Thread.sleep(1);
+		}
+		first.close();
+		for (CompletableFuture<Void> future : waiting)
+			future.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("pause", "getFiles"), order);
+	}
+}
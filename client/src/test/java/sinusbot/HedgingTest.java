@@ -0,0 +1,228 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sinusbot.stub.Latency;
+import sinusbot.stub.SinusbotStub;
+
+class HedgingTest {
+	// Enough fast reads for the first delay to be computed
+	private static final int WARM_UP = 48;
+	private static final long FAST = Duration.ofMillis(5).toNanos();
+
+	private SinusbotStub stub;
+	private SinusbotAPI api;
+	private String instanceId;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	/**
+	 * Response that remembers whether it has been closed
+	 */
+	private static final class Response extends FilterInputStream {
+		final AtomicBoolean closed = new AtomicBoolean();
+
+		Response() {
+			super(new ByteArrayInputStream(new byte[0]));
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed.set(true);
+			super.close();
+		}
+	}
+
+	@BeforeEach
+	void start() throws Exception {
+		stub = new SinusbotStub().seed(1, 0).start();
+		api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot");
+		instanceId = stub.instanceIds().get(0);
+	}
+
+	@AfterEach
+	void stop() {
+		stub.close();
+		executor.shutdownNow();
+	}
+
+	private void warmUp() {
+		stub.faults("getStatus").latency(Latency.fixed(Duration.ofNanos(FAST)));
+		for (int i = 0; i < WARM_UP; i++)
+			assertNotNull(api.getStatus(instanceId));
+	}
+
+	@Test
+	void slowReadIsHedgedAndTheHedgeWins() {
+		Hedging hedging = new Hedging(90, 0.5);
+		api.setHedging(hedging);
+		warmUp();
+		Hedging.Stats stats = hedging.stats().get("getStatus");
+		assertTrue(stats.delayMillis() > 0);
+		// The last reads of the warm-up may have been hedged already
+		long hedged = stats.hedged();
+		long won = stats.won();
+		long requests = stub.requests("getStatus");
+		// Only the next request is slow, the hedge sent after it is fast
+		AtomicInteger slow = new AtomicInteger(1);
+		stub.faults("getStatus").latency(random -> slow.getAndDecrement() > 0 ? Duration.ofSeconds(3).toNanos() : FAST);
+		long start = System.nanoTime();
+		assertNotNull(api.getStatus(instanceId));
+		assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos(), "waited for the slow request");
+		assertEquals(hedged + 1, stats.hedged());
+		assertEquals(won + 1, stats.won());
+		assertEquals(requests + 2, stub.requests("getStatus"));
+	}
+
+	@Test
+	void budgetCapsTheHedges() {
+		Hedging hedging = new Hedging(50, 0.1);
+		api.setHedging(hedging);
+		warmUp();
+		Hedging.Stats stats = hedging.stats().get("getStatus");
+		long qualified = stats.hedged() + stats.denied();
+		long requests = stub.requests("getStatus");
+		stub.faults("getStatus").latency(Latency.fixed(Duration.ofMillis(40)));
+		int reads = 30;
+		for (int i = 0; i < reads; i++)
+			assertNotNull(api.getStatus(instanceId));
+		// Every read qualified, 0.1 hedges per read were added to the budget since the start
+		assertEquals(qualified + reads, stats.hedged() + stats.denied());
+		assertTrue(stats.hedged() >= 1 && stats.hedged() <= (int) ((WARM_UP + reads) * 0.1), stats.toString());
+		assertTrue(stub.requests("getStatus") <= requests + reads + stats.hedged());
+	}
+
+	@Test
+	void mutationsAreNeverHedged() {
+		Hedging hedging = new Hedging(50, 1);
+		api.setHedging(hedging);
+		warmUp();
+		stub.faults("setVolume").latency(Latency.fixed(Duration.ofMillis(40)));
+		stub.faults("increaseVolume").latency(Latency.fixed(Duration.ofMillis(40)));
+		for (int i = 0; i < 40; i++) {
+			assertNotNull(api.setVolume(instanceId, i));
+			assertNotNull(api.increaseVolume(instanceId));
+		}
+		assertEquals(40, stub.requests("setVolume"));
+		assertEquals(40, stub.requests("increaseVolume"));
+		assertEquals(1, hedging.stats().size());
+	}
+
+	@Test
+	void streamsAreNeverHedged() throws Exception {
+		assertFalse(Hedging.hedgeable(Endpoints.of("getStream")));
+		Hedging hedging = new Hedging(50, 1);
+		AtomicInteger sent = new AtomicInteger();
+		for (int i = 0; i < WARM_UP + 8; i++) {
+			int n = i;
+			hedging.send("getStream", () -> {
+				sent.incrementAndGet();
+				sleep(n < WARM_UP ? 1 : 30);
+				return new Response();
+			}, executor).close();
+		}
+		assertEquals(WARM_UP + 8, sent.get());
+		assertNull(hedging.stats().get("getStream"));
+	}
+
+	/**
+	 * Waits without giving in to an interrupt, like a response that arrives just as its request is cancelled
+	 */
+	private static void sleep(long millis) {
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		boolean interrupted = false;
+		while (System.nanoTime() < end) {
+			try {
+				Thread.sleep(Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime())));
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private static void warmUp(Hedging hedging, ExecutorService executor) throws IOException {
+		for (int i = 0; i < WARM_UP; i++)
+			hedging.send("getStatus", () -> {
+				sleep(2);
+				return new Response();
+			}, executor).close();
+	}
+
+	@Test
+	void losingResponseIsClosed() throws Exception {
+		Hedging hedging = new Hedging(90, 1);
+		warmUp(hedging, executor);
+		long won = hedging.stats().get("getStatus").won();
+		Response slow = new Response();
+		Response fast = new Response();
+		AtomicInteger attempt = new AtomicInteger();
+		CountDownLatch slowDone = new CountDownLatch(1);
+		InputStream in = hedging.send("getStatus", () -> {
+			if (attempt.getAndIncrement() == 0) {
+				sleep(300);
+				slowDone.countDown();
+				return slow;
+			}
+			return fast;
+		}, executor);
+		assertTrue(in == fast);
+		assertTrue(slowDone.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < 100 && !slow.closed.get(); i++)
+			Thread.sleep(10);
+		assertTrue(slow.closed.get(), "the response of the cancelled request is left open");
+		assertFalse(fast.closed.get());
+		in.close();
+		assertEquals(won + 1, hedging.stats().get("getStatus").won());
+	}
+
+	@Test
+	void hedgeIsClosedWhenThePrimaryWins() throws Exception {
+		Hedging hedging = new Hedging(90, 1);
+		warmUp(hedging, executor);
+		// The last reads of the warm-up may have been hedged already
+		Hedging.Stats stats = hedging.stats().get("getStatus");
+		long hedged = stats.hedged();
+		long won = stats.won();
+		Response primary = new Response();
+		Response hedge = new Response();
+		AtomicInteger attempt = new AtomicInteger();
+		CountDownLatch hedgeDone = new CountDownLatch(1);
+		InputStream in = hedging.send("getStatus", () -> {
+			if (attempt.getAndIncrement() == 0) {
+				sleep(60);
+				return primary;
+			}
+			sleep(300);
+			hedgeDone.countDown();
+			return hedge;
+		}, executor);
+		assertTrue(in == primary);
+		assertTrue(hedgeDone.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < 100 && !hedge.closed.get(); i++)
+			Thread.sleep(10);
+		assertTrue(hedge.closed.get(), "the response of the cancelled hedge is left open");
+		assertEquals(hedged + 1, stats.hedged());
+		assertEquals(won, stats.won());
+	}
+}
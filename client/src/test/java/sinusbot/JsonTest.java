@@ -0,0 +1,88 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class JsonTest {
+	private static final String TEXT = "quote \" backslash \\ newline \n tab \t control \u0001 umlaut ä emoji 🎵";
+
+	private static JsonReader reader(String json) {
+		return new JsonReader(new StringReader(json));
+	}
+
+	@Test
+	void writtenObjectReadsBack() throws IOException {
+		byte[] json = JsonWriter.object().field("text", TEXT).field("skipped", (String) null).field("long", -9007199254740993L)
+				.field("double", 0.25).field("flag", true).field("list", new Object[] { "a", 1, null, List.of(2, 3) }).toByteArray();
+		try (JsonReader reader = reader(new String(json, StandardCharsets.UTF_8))) {
+			reader.beginObject();
+			assertEquals("text", reader.nextName());
+			assertEquals(TEXT, reader.nextString());
+			assertEquals("long", reader.nextName());
+			assertEquals(-9007199254740993L, reader.nextLong());
+			assertEquals("double", reader.nextName());
+			assertEquals(0.25, reader.nextDouble(), 0);
+			assertEquals("flag", reader.nextName());
+			assertTrue(reader.nextBoolean());
+			assertEquals("list", reader.nextName());
+			assertEquals("[\"a\",1,null,[2,3]]", reader.nextValue().toString());
+			assertFalse(reader.hasNext());
+			reader.endObject();
+		}
+	}
+
+	@Test
+	void readsEscapes() throws IOException {
+		try (JsonReader reader = reader("[\"\\u00e4\\ud83c\\udfb5\\/\\\"\", \"\"]")) {
+			assertEquals(List.of("ä🎵/\"", ""), reader.readList(JsonReader::nextString));
+		}
+	}
+
+	@Test
+	void skipsUnknownValues() throws IOException {
+		try (JsonReader reader = reader("{\"a\":{\"b\":[1,{\"c\":\"}\"}]},\"d\":null,\"e\":2}")) {
+			reader.beginObject();
+			assertEquals("a", reader.nextName());
+			reader.skipValue();
+			assertEquals("d", reader.nextName());
+			assertTrue(reader.skipNull());
+			assertEquals("e", reader.nextName());
+			assertEquals(2, reader.nextLong());
+			reader.endObject();
+		}
+	}
+
+	@Test
+	void unmodifiableValuesCannotChange() throws IOException {
+		try (JsonReader reader = reader("{\"a\":[1,2],\"b\":{\"c\":true}}")) {
+			@SuppressWarnings("unchecked")
+			Map<String, Object> value = (Map<String, Object>) reader.nextUnmodifiableValue();
+			assertEquals(List.of(1, 2), value.get("a"));
+			assertThrows(UnsupportedOperationException.class, () -> value.put("d", 1));
+			@SuppressWarnings("unchecked")
+			List<Object> list = (List<Object>) value.get("a");
+			assertThrows(UnsupportedOperationException.class, () -> list.add(3));
+		}
+	}
+
+	@Test
+	void reportsTruncatedInput() {
+		assertThrows(IOException.class, () -> {
+			try (JsonReader reader = reader("{\"a\":\"unterminated")) {
+				reader.beginObject();
+				reader.nextName();
+				reader.nextString();
+			}
+		});
+	}
+}
@@ -0,0 +1,136 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LibrarySnapshotTest {
+	private Path directory;
+	private Path file;
+
+	@BeforeEach
+	void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("snapshot");
+		file = directory.resolve("library.snapshot");
+	}
+
+	@AfterEach
+	void deleteDirectory() throws IOException {
+		try (var files = Files.list(directory)) {
+			for (Path path : files.toList())
+				Files.delete(path);
+		}
+		Files.delete(directory);
+	}
+
+	private static List<SinusbotAPI.Track> tracks() {
+		List<SinusbotAPI.Track> tracks = new ArrayList<>();
+		tracks.add(MediaLibraryTest.track("a", "", "Never Gonna Give You Up", "Rick Astley", "Whenever You Need Somebody"));
+		tracks.add(MediaLibraryTest.track("b", "f", "Café del Mar ☕", "Energy 52", null));
+		tracks.add(new SinusbotAPI.Track("f", "", "folder", null, "Folder", null, null, null, null, null, 0, 0, null, null, null, null,
+				0, 0, 0, 0, 0));
+		tracks.add(new SinusbotAPI.Track("c", "", "", "audio/mpeg", "x".repeat(300), "", null, null, "", null, 0, 0, null, null,
+				"thumb.jpg", "mp3", Long.MAX_VALUE, 0, 0, 0, 1L << 40));
+		return tracks;
+	}
+
+	private static void corrupt(Path file, int position) throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[position] ^= 1;
+		Files.write(file, bytes);
+	}
+
+	@Test
+	void readsBackTheKeptFields() throws Exception {
+		List<SinusbotAPI.Track> tracks = tracks();
+		long before = System.currentTimeMillis();
+		LibrarySnapshot.write(file, tracks);
+		LibrarySnapshot snapshot = LibrarySnapshot.open(file);
+		assertEquals(4, snapshot.size());
+		assertTrue(snapshot.created() >= before && snapshot.created() <= System.currentTimeMillis());
+		for (int i = 0; i < tracks.size(); i++)
+			assertEquals(LibrarySnapshot.keptFields(tracks.get(i)), snapshot.get(i));
+		assertEquals(tracks.stream().map(LibrarySnapshot::keptFields).toList(), snapshot.tracks());
+		SinusbotAPI.Track folder = snapshot.get(2);
+		assertNull(folder.artist());
+		assertNull(folder.mimeType());
+		assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(4));
+		// Only the snapshot is left, the temporary file has been moved into place
+		try (var files = Files.list(directory)) {
+			assertEquals(List.of(file), files.toList());
+		}
+	}
+
+	@Test
+	void leavesOutTracksWithoutUuid() throws Exception {
+		List<SinusbotAPI.Track> tracks = new ArrayList<>(tracks());
+		tracks.add(1, null);
+		tracks.add(MediaLibraryTest.track(null, "", "No uuid", "", ""));
+		LibrarySnapshot.write(file, tracks);
+		assertEquals(List.of("a", "b", "f", "c"), LibrarySnapshot.open(file).tracks().stream().map(SinusbotAPI.Track::uuid).toList());
+	}
+
+	@Test
+	void emptySnapshot() throws Exception {
+		LibrarySnapshot.write(file, List.of());
+		assertEquals(List.of(), LibrarySnapshot.open(file).tracks());
+	}
+
+	@Test
+	void rejectsAChangedByte() throws Exception {
+		LibrarySnapshot.write(file, tracks());
+		int size = (int) Files.size(file);
+		// In a track, in the offset index and in the stored checksum
+		for (int position : new int[] { size - 5, 28, 12 }) {
+			LibrarySnapshot.write(file, tracks());
+			corrupt(file, position);
+			IOException e = assertThrows(IOException.class, () -> LibrarySnapshot.open(file));
+			assertTrue(e.getMessage().startsWith("Damaged library snapshot"), e.getMessage());
+		}
+	}
+
+	@Test
+	void rejectsOtherFiles() throws Exception {
+		LibrarySnapshot.write(file, tracks());
+		byte[] bytes = Files.readAllBytes(file);
+		ByteBuffer.wrap(bytes).putInt(4, LibrarySnapshot.VERSION + 1);
+		Files.write(file, bytes);
+		IOException version = assertThrows(IOException.class, () -> LibrarySnapshot.open(file));
+		assertTrue(version.getMessage().contains("has version " + (LibrarySnapshot.VERSION + 1)), version.getMessage());
+		Files.write(file, Arrays.copyOf(bytes, 20));
+		assertThrows(IOException.class, () -> LibrarySnapshot.open(file));
+		Files.writeString(file, "[{\"uuid\":\"a\"}] and more text to pass the header length");
+		assertThrows(IOException.class, () -> LibrarySnapshot.open(file));
+		LibrarySnapshot.write(file, tracks());
+		Files.write(file, Arrays.copyOf(Files.readAllBytes(file), (int) Files.size(file) - 1));
+		assertThrows(IOException.class, () -> LibrarySnapshot.open(file));
+	}
+
+	@Test
+	void libraryLoadsItsSavedSnapshot() throws Exception {
+		MediaLibrary saved = new MediaLibrary(null);
+		saved.apply(tracks());
+		assertTrue(saved.save(file));
+		MediaLibrary loaded = new MediaLibrary(null);
+		assertEquals(4, loaded.load(file));
+		assertEquals(List.of("b"), loaded.search("cafe", 10).stream().map(SinusbotAPI.Track::uuid).toList());
+		// The same tracks from the file list only differ in fields the snapshot leaves out, nothing changes
+		assertEquals(0, loaded.apply(tracks()));
+		corrupt(file, (int) Files.size(file) - 1);
+		assertEquals(-1, new MediaLibrary(null).load(file));
+		assertEquals(-1, new MediaLibrary(null).load(directory.resolve("missing")));
+	}
+}
@@ -0,0 +1,69 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sinusbot.stub.SinusbotStub;
+
+class LogTailTest {
+	private static final String LOG = "[{\"message\":\"started\",\"severity\":3,\"time\":1000},{\"message\":\"playing\",\"severity\":3,\"time\":2000}]";
+
+	private SinusbotStub stub;
+	private LogTail tail;
+
+	@BeforeEach
+	void start() throws Exception {
+		stub = new SinusbotStub().seed(2, 0).fixture("getBotLog", LOG).fixture("getInstanceLog", LOG).start();
+		tail = new LogTail(new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot"), true, 100);
+	}
+
+	@AfterEach
+	void stop() {
+		tail.close();
+		stub.close();
+	}
+
+	@Test
+	void emitsEveryEntryOnce() {
+		assertEquals(6, tail.poll().size());
+		assertEquals(0, tail.poll().size());
+		assertEquals(6, tail.recent().size());
+	}
+
+	@Test
+	void failedInstanceListKeepsCursors() {
+		assertEquals(6, tail.poll().size());
+		stub.faults("getInstances").errors(1, 500);
+		assertEquals(0, tail.poll().size());
+		stub.faults("getInstances").clear();
+		assertEquals(0, tail.poll().size(), "entries of the instances are emitted again");
+	}
+
+	@Test
+	void failedLogIsReadAgain() {
+		stub.faults("getInstanceLog").errors(1, 503);
+		assertEquals(2, tail.poll().size());
+		stub.faults("getInstanceLog").clear();
+		assertEquals(4, tail.poll().size());
+		assertEquals(0, tail.poll().size());
+	}
+
+	@Test
+	void entriesWithTheSameTimeAreKeptApart() {
+		LogTail tail = new LogTail(new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot"), false, 100);
+		stub.fixture("getBotLog", "[{\"message\":\"Aa\",\"severity\":3,\"time\":3000}]");
+		assertEquals(1, tail.poll().size());
+		// "Aa" and "BB" have the same hash code, a repeated "Aa" and another severity are new entries as well
+		stub.fixture("getBotLog", "[{\"message\":\"BB\",\"severity\":3,\"time\":3000},{\"message\":\"Aa\",\"severity\":3,\"time\":3000},"
+				+ "{\"message\":\"Aa\",\"severity\":3,\"time\":3000},{\"message\":\"Aa\",\"severity\":2,\"time\":3000}]");
+		List<LogTail.Entry> entries = tail.poll();
+		assertEquals(List.of("BB", "Aa", "Aa"), entries.stream().map(e -> e.entry().message()).toList());
+		assertEquals(0, tail.poll().size());
+		tail.close();
+	}
+}
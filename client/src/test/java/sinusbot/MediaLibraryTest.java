@@ -0,0 +1,106 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import sinusbot.stub.SinusbotStub;
+
+class MediaLibraryTest {
+	private final MediaLibrary library = new MediaLibrary(null);
+
+	static SinusbotAPI.Track track(String uuid, String parent, String title, String artist, String album) {
+		return new SinusbotAPI.Track(uuid, parent, "", "audio/mpeg", title, artist, null, null, album, null, 1, 10, null, "Pop", null, "mp3",
+				180000, 320000, 2, 44100, 5000000);
+	}
+
+	private static List<String> uuids(List<SinusbotAPI.Track> tracks) {
+		List<String> uuids = new ArrayList<>();
+		for (SinusbotAPI.Track track : tracks)
+			uuids.add(track.uuid());
+		return uuids;
+	}
+
+	private List<SinusbotAPI.Track> songs() {
+		return List.of(track("a", "", "Never Gonna Give You Up", "Rick Astley", "Whenever You Need Somebody"),
+				track("b", "", "Together Forever", "Rick Astley", "Whenever You Need Somebody"),
+				track("c", "f", "Café del Mar", "Energy 52", "Café del Mar"),
+				track("d", "f", "Nevermind", "Nirvana", "Nevermind"));
+	}
+
+	@Test
+	void findsAllWordsWithTheLastAsPrefix() {
+		library.apply(songs());
+		assertEquals(List.of("a", "b"), uuids(library.search("rick astley", 10)));
+		assertEquals(List.of("a", "d"), uuids(library.search("nev", 10)));
+		assertEquals(List.of("a"), uuids(library.search("astley nev", 10)));
+		assertEquals(List.of("b"), uuids(library.search("forever rick", 10)));
+		assertEquals(List.of(), uuids(library.search("nirvana rick", 10)));
+	}
+
+	@Test
+	void ignoresCaseAndAccents() {
+		library.apply(songs());
+		assertEquals(List.of("c"), uuids(library.search("CAFE", 10)));
+		assertEquals(List.of("c"), uuids(library.search("café del", 10)));
+	}
+
+	@Test
+	void singleCharacterIsNoPrefix() {
+		library.apply(List.of(track("a", "", "A Day", "", ""), track("b", "", "Ab", "", "")));
+		assertEquals(List.of("a"), uuids(library.search("a", 10)));
+	}
+
+	@Test
+	void totalCountsEveryMatchOfAShortPrefix() {
+		List<SinusbotAPI.Track> tracks = new ArrayList<>();
+		for (int i = 0; i < 300; i++)
+			tracks.add(track("t" + i, "", String.format("word%03d", i), i % 2 == 0 ? "even" : "odd", ""));
+		library.apply(tracks);
+		MediaLibrary.SearchResult all = library.find("wo", 10);
+		assertEquals(10, all.tracks().size());
+		assertEquals(300, all.total());
+		assertFalse(all.complete());
+		MediaLibrary.SearchResult even = library.find("even wo", 1000);
+		assertEquals(150, even.total());
+		assertTrue(even.complete());
+		assertEquals(List.of("t10", "t12", "t14", "t16", "t18"), uuids(library.find("even word01", 5).tracks()));
+	}
+
+	@Test
+	void applyOnlyChangesTheDifferences() {
+		assertEquals(4, library.apply(songs()));
+		assertEquals(0, library.apply(songs()));
+		List<SinusbotAPI.Track> changed = new ArrayList<>(songs());
+		changed.set(1, track("b", "", "Together Again", "Rick Astley", ""));
+		changed.remove(3);
+		changed.add(track("e", "f", "Smells Like Teen Spirit", "Nirvana", "Nevermind"));
+		assertEquals(3, library.apply(changed));
+		assertEquals(4, library.size());
+		assertNull(library.get("d"));
+		assertEquals("Together Again", library.get("b").title());
+		assertEquals(List.of(), uuids(library.search("forever", 10)));
+		assertEquals(List.of("b"), uuids(library.search("again", 10)));
+		assertEquals(List.of("e"), uuids(library.search("nevermind", 10)));
+		assertEquals(List.of("c", "e"), uuids(library.children("f")));
+	}
+
+	@Test
+	void refreshLoadsTheFileListOfTheSinusbot() throws Exception {
+		try (SinusbotStub stub = new SinusbotStub().seed(0, 40).start()) {
+			MediaLibrary library = new MediaLibrary(new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot"));
+			assertEquals(40, library.refresh());
+			assertEquals(0, library.refresh());
+			stub.addFile(new JSONObject().put("uuid", "new").put("parent", "").put("type", "").put("title", "Brand New Song"));
+			assertEquals(1, library.refresh());
+			assertEquals(List.of("new"), uuids(library.search("brand new", 10)));
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sinusbot.stub.Latency;
+import sinusbot.stub.SinusbotStub;
+
+class MetricsTest {
+	private static final String STATUS = "POST /bot/i/:instanceId/status";
+
+	private SinusbotStub stub;
+	private SinusbotAPI api;
+	private final Metrics metrics = new Metrics();
+
+	@BeforeEach
+	void start() throws Exception {
+		stub = new SinusbotStub().seed(2, 10).start();
+		api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot");
+		api.setMetrics(metrics);
+	}
+
+	@AfterEach
+	void stop() {
+		stub.close();
+	}
+
+	@Test
+	void histogramKeepsPercentilesWithinABucket() {
+		Metrics.Stats stats = new Metrics.Stats("test");
+		assertEquals(0, stats.percentileMicros(50));
+		for (int i = 1; i <= 1000; i++)
+			stats.record(i * 1_000_000L);
+		// 8 buckets per power of two, a percentile is at most 12.5% above the exact value
+		for (double percentile : new double[] { 50, 90, 99, 99.9 }) {
+			long exact = (long) Math.ceil(percentile * 10) * 1000;
+			long value = stats.percentileMicros(percentile);
+			assertTrue(value >= exact && value <= exact * 1.125, percentile + "th percentile " + value + " for " + exact);
+		}
+		assertEquals(1_000_000, stats.percentileMicros(100));
+		assertEquals(1000, stats.getMaxMillis(), 0);
+		Metrics.Stats small = new Metrics.Stats("small");
+		for (int i = 0; i < 8; i++)
+			small.record(i * 1000L);
+		assertEquals(3, small.percentileMicros(50));
+		assertEquals(7, small.percentileMicros(100));
+	}
+
+	@Test
+	void countsEveryRequestPerEndpointTemplate() {
+		for (String instanceId : stub.instanceIds()) {
+			assertNotNull(api.getStatus(instanceId));
+			assertNotNull(api.getStatus(instanceId));
+		}
+		assertNotNull(api.getFiles());
+		Metrics.Stats status = metrics.stats(STATUS);
+		assertEquals(4, status.getRequests());
+		assertEquals(0, status.getErrors());
+		assertEquals(0, status.getInFlight());
+		assertTrue(status.getResponseBytes() > 0);
+		assertEquals(1, metrics.stats("GET /bot/files").getRequests());
+		assertEquals(List.of("GET /bot/files", STATUS), List.copyOf(metrics.stats().keySet()));
+	}
+
+	@Test
+	void latencyOfTheSinusbotIsRecorded() {
+		stub.faults("getStatus").latency(Latency.fixed(Duration.ofMillis(100)));
+		String instanceId = stub.instanceIds().get(0);
+		for (int i = 0; i < 3; i++)
+			api.getStatus(instanceId);
+		Metrics.Stats status = metrics.stats(STATUS);
+		assertTrue(status.percentileMicros(50) >= 100_000, "p50 " + status.getP50Millis());
+		assertTrue(status.getMeanMillis() >= 100, "mean " + status.getMeanMillis());
+		assertTrue(status.getMaxMillis() < 1000, "max " + status.getMaxMillis());
+	}
+
+	@Test
+	void errorResponsesAndDisconnectsAreErrors() {
+		List<Metrics.Sample> samples = new CopyOnWriteArrayList<>();
+		metrics.addListener(samples::add);
+		String instanceId = stub.instanceIds().get(0);
+		stub.faults("getStatus").errors(1, 500);
+		assertNull(api.getStatus(instanceId));
+		stub.faults("getStatus").clear().disconnects(1);
+		assertNull(api.getStatus(instanceId));
+		// getStatus is idempotent, the request the connection failed for is sent once more and counted again
+		Metrics.Stats status = metrics.stats(STATUS);
+		assertEquals(3, status.getRequests());
+		assertEquals(3, status.getErrors());
+		assertEquals(0, status.getCancelled());
+		assertEquals(0, status.getTimeouts());
+		assertTrue(status.percentileMicros(100) > 0);
+		List<Metrics.Sample> failed = samples.stream().filter(s -> s.endpoint().equals(STATUS)).toList();
+		assertEquals(3, failed.size());
+		assertEquals(500, assertInstanceOf(SinusbotTransport.StatusException.class, failed.get(0).error()).statusCode());
+		assertNotNull(failed.get(1).error());
+		assertNotNull(failed.get(2).error());
+	}
+
+	@Test
+	void timeoutsAreErrors() {
+		SinusbotAPI api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot",
+				new HttpClientTransport(Duration.ofSeconds(1), Duration.ofMillis(100), 10, 10));
+		assertNotNull(api.getInstances()); // Log in before the latency applies
+		api.setMetrics(metrics);
+		List<Metrics.Sample> samples = new CopyOnWriteArrayList<>();
+		metrics.addListener(samples::add);
+		stub.faults("getStatus").latency(Latency.fixed(Duration.ofMillis(500)));
+		assertNull(api.getStatus(stub.instanceIds().get(0)));
+		Metrics.Stats status = metrics.stats(STATUS);
+		assertEquals(1, status.getTimeouts());
+		assertEquals(1, status.getErrors());
+		assertTrue(status.percentileMicros(100) >= 100_000, "max " + status.getMaxMillis());
+		assertInstanceOf(HttpTimeoutException.class, samples.get(samples.size() - 1).error());
+	}
+
+	@Test
+	void cancelledRequestIsNeitherErrorNorLatency() throws Exception {
+		api.getInstances(); // Log in first
+		stub.faults("getStatus").latency(Latency.fixed(Duration.ofSeconds(5)));
+		Thread caller = new Thread(() -> api.getStatus(stub.instanceIds().get(0)));
+		caller.start();
+		for (int i = 0; i < 500 && (metrics.stats(STATUS) == null || metrics.stats(STATUS).getInFlight() == 0); i++)
+			Thread.sleep(10);
+		caller.interrupt();
+		caller.join(5000);
+		Metrics.Stats status = metrics.stats(STATUS);
+		assertEquals(1, status.getRequests());
+		assertEquals(1, status.getCancelled());
+		assertEquals(0, status.getErrors());
+		assertEquals(0, status.getInFlight());
+		assertEquals(0, status.percentileMicros(100));
+		assertEquals(0, status.getMeanMillis(), 0);
+	}
+
+	@Test
+	void pipelinedRequestsAreRecordedEach() {
+		String instanceId = stub.instanceIds().get(0);
+		String uuid = api.getFiles().getJSONObject(0).getString("uuid");
+		List<QueueBatch.Result> results = new QueueBatch(api, instanceId).append(uuid).append(uuid).prepend(uuid).remove(5).send();
+		assertEquals(4, results.size());
+		Metrics.Stats append = metrics.stats("POST /bot/i/:instanceId/queue/append/:uuid");
+		assertEquals(2, append.getRequests());
+		assertEquals(0, append.getErrors());
+		assertEquals(1, metrics.stats("POST /bot/i/:instanceId/queue/prepend/:uuid").getRequests());
+		// Position 5 is past the end of the queue, which is empty when removals run first
+		Metrics.Stats remove = metrics.stats("DELETE /bot/i/:instanceId/queue/:queuePos");
+		assertEquals(1, remove.getRequests());
+		assertEquals(1, remove.getErrors());
+		assertEquals(0, remove.getInFlight());
+		assertTrue(append.getResponseBytes() > 0);
+	}
+}
@@ -0,0 +1,119 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sinusbot.stub.SinusbotStub;
+
+class QueueBatchTest {
+	private SinusbotStub stub;
+	private SinusbotAPI api;
+	private String instanceId;
+	private final List<String> tracks = new ArrayList<>();
+
+	@BeforeEach
+	void start() throws Exception {
+		stub = new SinusbotStub().seed(1, 30).start();
+		api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot");
+		instanceId = stub.instanceIds().get(0);
+		for (SinusbotAPI.Track track : api.getFilesTyped())
+			if (!"folder".equals(track.type()))
+				tracks.add(track.uuid());
+	}
+
+	@AfterEach
+	void stop() {
+		stub.close();
+	}
+
+	private List<String> queue() {
+		List<String> queue = new ArrayList<>();
+		for (SinusbotAPI.Track track : api.getQueueTyped(instanceId))
+			queue.add(track.uuid());
+		return queue;
+	}
+
+	@Test
+	void appendsInOrder() {
+		List<QueueBatch.Result> results = new QueueBatch(api, instanceId).appendAll(tracks.subList(0, 6)).send();
+		assertEquals(6, results.size());
+		assertTrue(results.stream().allMatch(QueueBatch.Result::success));
+		assertEquals(tracks.subList(0, 6), queue());
+		assertEquals(6, stub.requests("appendQueue"));
+	}
+
+	@Test
+	void responsesArrivingInPiecesKeepTheirOrder() {
+		stub.faults("appendQueue").slowBody(4000);
+		QueueBatch batch = new QueueBatch(api, instanceId).appendAll(tracks.subList(0, 4)).prepend(tracks.get(4));
+		assertTrue(batch.send().stream().allMatch(QueueBatch.Result::success));
+		assertEquals(List.of(tracks.get(4), tracks.get(0), tracks.get(1), tracks.get(2), tracks.get(3)), queue());
+	}
+
+	@Test
+	void removalsReferToTheQueueBeforeTheBatch() {
+		new QueueBatch(api, instanceId).appendAll(tracks.subList(0, 6)).send();
+		List<QueueBatch.Result> results = new QueueBatch(api, instanceId).remove(1).prepend(tracks.get(10)).remove(4).append(tracks.get(11))
+				.remove(2).send();
+		assertEquals(List.of("removeFromQueue", "prependQueue", "removeFromQueue", "appendQueue", "removeFromQueue"),
+				results.stream().map(QueueBatch.Result::operation).toList());
+		assertTrue(results.stream().allMatch(QueueBatch.Result::success));
+		assertEquals(List.of(tracks.get(10), tracks.get(0), tracks.get(3), tracks.get(5), tracks.get(11)), queue());
+	}
+
+	@Test
+	void failedRemovalDoesNotShiftOthers() {
+		new QueueBatch(api, instanceId).appendAll(tracks.subList(0, 6)).send();
+		List<QueueBatch.Result> results = new QueueBatch(api, instanceId).remove(9).remove(1).remove(4).send();
+		assertFalse(results.get(0).success());
+		assertTrue(results.get(1).success());
+		assertTrue(results.get(2).success());
+		assertEquals(List.of(tracks.get(0), tracks.get(2), tracks.get(3), tracks.get(5)), queue());
+	}
+
+	@Test
+	void failedAppendIsReported() {
+		new QueueBatch(api, instanceId).appendAll(tracks.subList(0, 3)).send();
+		stub.faults("appendQueue").errors(1, 500);
+		List<QueueBatch.Result> results = new QueueBatch(api, instanceId).append(tracks.get(3)).remove(0).send();
+		SinusbotTransport.StatusException error = assertInstanceOf(SinusbotTransport.StatusException.class, results.get(0).error());
+		assertEquals(500, error.statusCode());
+		assertTrue(results.get(1).success());
+		assertEquals(tracks.subList(1, 3), queue());
+	}
+
+	@Test
+	void rejectsInvalidPositions() {
+		QueueBatch batch = new QueueBatch(api, instanceId).remove(2);
+		assertThrows(IllegalArgumentException.class, () -> batch.remove(2));
+		assertThrows(IllegalArgumentException.class, () -> batch.remove(-1));
+		assertEquals(1, batch.size());
+	}
+
+	@Test
+	void otherTransportsSendOneAfterTheOther() {
+		AtomicInteger sent = new AtomicInteger();
+		SinusbotTransport http = new HttpClientTransport();
+		SinusbotTransport sequential = (requestMethod, url, token, body) -> {
+			sent.incrementAndGet();
+			return http.send(requestMethod, url, token, body);
+		};
+		SinusbotAPI api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot", sequential);
+		int before = sent.get();
+		List<QueueBatch.Result> results = new QueueBatch(api, instanceId).appendAll(tracks.subList(0, 3)).prepend(tracks.get(3)).send();
+		assertTrue(results.stream().allMatch(QueueBatch.Result::success));
+		assertEquals(4, sent.get() - before);
+		assertEquals(List.of(tracks.get(3), tracks.get(0), tracks.get(1), tracks.get(2)), queue());
+	}
+}
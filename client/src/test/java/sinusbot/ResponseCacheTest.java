@@ -0,0 +1,116 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import sinusbot.stub.SinusbotStub;
+
+class ResponseCacheTest {
+	private static final String HOST = "http://10.0.0.1:8087/api/v1";
+	private static final String OTHER_HOST = "http://10.0.0.2:8087/api/v1";
+	private static final String FILES = HOST + "/bot/files";
+
+	private final ResponseCache cache = new ResponseCache(2, Duration.ofMinutes(1));
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private String load() {
+		return "response " + loads.incrementAndGet();
+	}
+
+	private static String status(String host, String instanceId) {
+		return host + "/bot/i/" + instanceId + "/status";
+	}
+
+	@Test
+	void cachesUntilInvalidated() {
+		assertEquals("response 1", cache.get("getFiles", FILES, this::load));
+		assertEquals("response 1", cache.get("getFiles", FILES, this::load));
+		cache.invalidate("setVolume", HOST + "/bot/i/a/volume/set/10");
+		assertEquals("response 1", cache.get("getFiles", FILES, this::load));
+		cache.invalidate("deleteFile", HOST + "/bot/files/f");
+		assertEquals("response 2", cache.get("getFiles", FILES, this::load));
+		assertEquals(1, cache.stats().get("getFiles").invalidations());
+	}
+
+	@Test
+	void mutationWhileLoadingIsNotCached() {
+		assertEquals("response 1", cache.get("getFiles", FILES, () -> {
+			cache.invalidate("deleteFile", HOST + "/bot/files/f");
+			return load();
+		}));
+		assertEquals("response 2", cache.get("getFiles", FILES, this::load));
+		assertEquals("response 2", cache.get("getFiles", FILES, this::load));
+	}
+
+	@Test
+	void failedLoadIsNotCached() {
+		assertNull(cache.get("getFiles", FILES, () -> null));
+		assertEquals("response 1", cache.get("getFiles", FILES, this::load));
+	}
+
+	@Test
+	void onlyCachesCacheableEndpoints() {
+		cache.get("login", HOST + "/bot/login", this::load);
+		cache.get("login", HOST + "/bot/login", this::load);
+		assertEquals(2, loads.get());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsed() {
+		cache.get("getStatus", status(HOST, "a"), this::load);
+		cache.get("getStatus", status(HOST, "b"), this::load);
+		cache.get("getStatus", status(HOST, "a"), this::load);
+		cache.get("getStatus", status(HOST, "c"), this::load);
+		assertEquals(2, cache.size());
+		assertEquals("response 1", cache.get("getStatus", status(HOST, "a"), this::load));
+		assertEquals("response 4", cache.get("getStatus", status(HOST, "b"), this::load));
+	}
+
+	@Test
+	void instancesAndHostsAreInvalidatedIndependently() {
+		ResponseCache cache = new ResponseCache(10, Duration.ofMinutes(1));
+		cache.get("getStatus", status(HOST, "a"), this::load);
+		cache.get("getStatus", status(HOST, "b"), this::load);
+		cache.get("getStatus", status(OTHER_HOST, "a"), this::load);
+		cache.invalidate("setVolume", HOST + "/bot/i/a/volume/set/10");
+		assertEquals("response 4", cache.get("getStatus", status(HOST, "a"), this::load));
+		assertEquals("response 2", cache.get("getStatus", status(HOST, "b"), this::load));
+		assertEquals("response 3", cache.get("getStatus", status(OTHER_HOST, "a"), this::load));
+	}
+
+	@Test
+	void hostWideCallInvalidatesEveryInstance() {
+		ResponseCache cache = new ResponseCache(10, Duration.ofMinutes(1));
+		cache.get("getQueue", HOST + "/bot/i/a/queue", this::load);
+		cache.get("getQueue", HOST + "/bot/i/b/queue", this::load);
+		cache.get("getInstances", HOST + "/bot/instances", this::load);
+		cache.invalidate("deleteFile", HOST + "/bot/files/f");
+		assertEquals("response 4", cache.get("getQueue", HOST + "/bot/i/a/queue", this::load));
+		assertEquals("response 5", cache.get("getQueue", HOST + "/bot/i/b/queue", this::load));
+		// A call for an instance invalidates the reads of its host
+		cache.invalidate("kill", HOST + "/bot/i/a/kill");
+		assertEquals("response 6", cache.get("getInstances", HOST + "/bot/instances", this::load));
+	}
+
+	@Test
+	void mutationOfOneInstanceKeepsTheStatusOfOthers() throws Exception {
+		try (SinusbotStub stub = new SinusbotStub().seed(2, 0).start()) {
+			SinusbotAPI api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot");
+			api.setCache(new ResponseCache(100, Duration.ofMinutes(1)));
+			String first = stub.instanceIds().get(0);
+			String second = stub.instanceIds().get(1);
+			api.getStatus(first);
+			api.getStatus(second);
+			api.setVolume(first, 20);
+			assertEquals(20, api.getStatus(first).getLong("volume"));
+			assertEquals(50, api.getStatus(second).getLong("volume"));
+			assertEquals(3, stub.requests("getStatus"));
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sinusbot.stub.Latency;
+import sinusbot.stub.SinusbotStub;
+
+class SinusbotAPITest {
+	private SinusbotStub stub;
+	private SinusbotAPI api;
+
+	/**
+	 * Replaces the tokens issued before {@link #revoke()} with an unknown one, so the stub answers with 401
+	 */
+	private static final class RevokingTransport implements SinusbotTransport {
+		private final SinusbotTransport transport = new HttpClientTransport();
+		private final Set<String> seen = ConcurrentHashMap.newKeySet();
+		private final Set<String> revoked = ConcurrentHashMap.newKeySet();
+
+		void revoke() {
+			revoked.addAll(seen);
+		}
+
+		@Override
+		public InputStream send(String requestMethod, String url, String token, byte[] body) throws IOException {
+			if (token == null)
+				return transport.send(requestMethod, url, null, body);
+			seen.add(token);
+			return transport.send(requestMethod, url, revoked.contains(token) ? "revoked" : token, body);
+		}
+	}
+
+	@BeforeEach
+	void start() throws Exception {
+		stub = new SinusbotStub().seed(8, 40).start();
+		api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot");
+	}
+
+	@AfterEach
+	void stop() {
+		stub.close();
+	}
+
+	/**
+	 * Calls the function for each argument at the same time
+	 */
+	static <T> List<T> concurrently(List<String> arguments, Function<String, T> call) throws Exception {
+		CountDownLatch ready = new CountDownLatch(1);
+		List<CompletableFuture<T>> futures = new ArrayList<>();
+		for (String argument : arguments) {
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					ready.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return call.apply(argument);
+			}, r -> new Thread(r).start()));
+		}
+		ready.countDown();
+		List<T> results = new ArrayList<>();
+		for (CompletableFuture<T> future : futures)
+			results.add(future.get(10, TimeUnit.SECONDS));
+		return results;
+	}
+
+	@Test
+	void coalescesConcurrentReads() throws Exception {
+		String instanceId = stub.instanceIds().get(0);
+		stub.faults("getStatus").latency(Latency.fixed(Duration.ofMillis(300)));
+		for (JSONObject status : concurrently(Collections.nCopies(8, instanceId), api::getStatus))
+			assertNotNull(status);
+		assertEquals(1, stub.requests("getStatus"));
+		for (SinusbotAPI.InstanceStatus status : concurrently(Collections.nCopies(8, instanceId), api::getStatusTyped))
+			assertNotNull(status);
+		assertEquals(2, stub.requests("getStatus"));
+	}
+
+	@Test
+	void readsOfDifferentInstancesAreNotCoalesced() throws Exception {
+		stub.faults("getStatus").latency(Latency.fixed(Duration.ofMillis(100)));
+		for (JSONObject status : concurrently(stub.instanceIds(), api::getStatus))
+			assertNotNull(status);
+		assertEquals(8, stub.requests("getStatus"));
+	}
+
+	@Test
+	void mutationsAreNotCoalesced() throws Exception {
+		String instanceId = stub.instanceIds().get(0);
+		stub.faults("increaseVolume").latency(Latency.fixed(Duration.ofMillis(100)));
+		concurrently(Collections.nCopies(4, instanceId), api::increaseVolume);
+		assertEquals(4, stub.requests("increaseVolume"));
+		assertEquals(70, api.getStatus(instanceId).getLong("volume"));
+	}
+
+	@Test
+	void rejectedTokenIsRenewedOnce() throws Exception {
+		RevokingTransport transport = new RevokingTransport();
+		SinusbotAPI api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot", transport);
+		assertNotNull(api.getInstances());
+		long logins = stub.requests("login");
+		transport.revoke();
+		stub.faults("login").latency(Latency.fixed(Duration.ofMillis(100)));
+		for (JSONObject status : concurrently(stub.instanceIds(), api::getStatus))
+			assertNotNull(status);
+		assertEquals(logins + 1, stub.requests("login"));
+	}
+
+	@Test
+	void expiringTokenIsRenewedInTheBackground() throws Exception {
+		// Tokens live shorter than the renewal margin, so every call after a login renews the token
+		stub.tokenLifetime(Duration.ofSeconds(30));
+		SinusbotAPI api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot");
+		long logins = stub.requests("login");
+		assertNotNull(api.getInstances());
+		for (int i = 0; i < 100 && stub.requests("login") == logins; i++)
+			Thread.sleep(10);
+		assertEquals(logins + 1, stub.requests("login"));
+		assertNotNull(api.getInstances());
+	}
+
+	@Test
+	void idempotentMutationIsSentOnceMore() throws Exception {
+		String file = api.getFilesTyped().get(1).uuid();
+		stub.faults("deleteFile").disconnects(1);
+		assertNull(api.deleteFile(file));
+		assertEquals(2, stub.requests("deleteFile"));
+		stub.faults("deleteFile").clear();
+		assertNotNull(api.deleteFile(file));
+	}
+
+	@Test
+	void otherMutationsAreNotSentAgain() throws Exception {
+		String instanceId = stub.instanceIds().get(0);
+		stub.faults("increaseVolume").disconnects(1);
+		assertNull(api.increaseVolume(instanceId));
+		assertEquals(1, stub.requests("increaseVolume"));
+		// The sinusbot may still be working on a request that timed out
+		SinusbotAPI api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot",
+				new HttpClientTransport(Duration.ofSeconds(1), Duration.ofMillis(100), 10, 10));
+		stub.faults("setVolume").latency(Latency.fixed(Duration.ofMillis(300)));
+		assertNull(api.setVolume(instanceId, 20));
+		assertEquals(1, stub.requests("setVolume"));
+	}
+}
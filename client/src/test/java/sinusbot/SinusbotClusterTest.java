@@ -0,0 +1,105 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sinusbot.stub.Latency;
+import sinusbot.stub.SinusbotStub;
+
+class SinusbotClusterTest {
+	private SinusbotStub first;
+	private SinusbotStub second;
+	private SinusbotCluster cluster;
+
+	@BeforeEach
+	void start() throws Exception {
+		first = new SinusbotStub().addInstance("one", "One").start();
+		second = new SinusbotStub().addInstance("two", "Two").start();
+		cluster = new SinusbotCluster(Duration.ofSeconds(2));
+		cluster.addHost("first", new SinusbotAPI("127.0.0.1", first.port(), "admin", "password", "bot"));
+		cluster.addHost("second", new SinusbotAPI("127.0.0.1", second.port(), "admin", "password", "bot"));
+	}
+
+	@AfterEach
+	void stop() {
+		first.close();
+		second.close();
+	}
+
+	@Test
+	void routesToTheHostRunningTheInstance() {
+		assertEquals(2, cluster.refreshRoutes());
+		assertEquals("first", cluster.hostOf("one"));
+		assertNotNull(cluster.getStatus("two"));
+		assertEquals(0, first.requests("getStatus"));
+		assertEquals(1, second.requests("getStatus"));
+	}
+
+	@Test
+	void followsAnInstanceMovedToAnotherHost() {
+		cluster.refreshRoutes();
+		first.removeInstance("one");
+		second.addInstance("one", "One");
+		assertEquals(2, cluster.refreshRoutes());
+		assertEquals("second", cluster.hostOf("one"));
+		assertNotNull(cluster.getStatus("one"));
+		assertEquals(1, second.requests("getStatus"));
+	}
+
+	@Test
+	void burstOfUnknownLookupsReloadsOnce() throws Exception {
+		first.faults("getInstances").latency(Latency.fixed(Duration.ofMillis(200)));
+		for (String host : SinusbotAPITest.concurrently(Collections.nCopies(50, "ghost"), cluster::hostOf))
+			assertNull(host);
+		assertEquals(1, first.requests("getInstances"));
+		assertEquals(1, second.requests("getInstances"));
+		// Neither the unknown instance nor another one reloads again right away
+		assertNull(cluster.getStatus("ghost"));
+		assertNull(cluster.hostOf("other"));
+		assertEquals(1, first.requests("getInstances"));
+		assertEquals("first", cluster.hostOf("one"));
+	}
+
+	@Test
+	void knownInstancesAreRoutedDuringAReload() throws Exception {
+		cluster.refreshRoutes();
+		first.faults("getInstances").latency(Latency.fixed(Duration.ofMillis(500)));
+		Thread reload = new Thread(cluster::refreshRoutes);
+		reload.start();
+		while (first.requests("getInstances") < 2)
+			Thread.sleep(1);
+		long start = System.nanoTime();
+		assertEquals("first", cluster.hostOf("one"));
+		assertTrue(System.nanoTime() - start < Duration.ofMillis(200).toNanos());
+		reload.join();
+	}
+
+	@Test
+	void failedHostKeepsItsRoutes() {
+		cluster.refreshRoutes();
+		first.faults("getInstances").errors(1, 500);
+		second.addInstance("three", "Three");
+		assertEquals(3, cluster.refreshRoutes());
+		assertEquals("first", cluster.hostOf("one"));
+		assertEquals("second", cluster.hostOf("three"));
+	}
+
+	@Test
+	void gatherLeavesOutSlowHosts() {
+		second.faults("getInstances").latency(Latency.fixed(Duration.ofMillis(500)));
+		Map<String, ?> instances = cluster.gather(SinusbotAPI::getInstancesTyped, Duration.ofMillis(200));
+		assertEquals(Set.of("first"), instances.keySet());
+		assertEquals(Set.of("first", "second"), cluster.getInstances().keySet());
+	}
+}
@@ -0,0 +1,119 @@
+package sinusbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sinusbot.stub.SinusbotStub;
+
+class UploaderTest {
+	private SinusbotStub stub;
+	private SinusbotAPI api;
+	private Path directory;
+
+	@BeforeEach
+	void start() throws Exception {
+		stub = new SinusbotStub().seed(0, 0).fixture("uploadInfo", "{\"maxSize\":1000}").start();
+		api = new SinusbotAPI("127.0.0.1", stub.port(), "admin", "password", "bot");
+		directory = Files.createTempDirectory("uploader");
+	}
+
+	@AfterEach
+	void stop() throws IOException {
+		stub.close();
+		try (var walk = Files.walk(directory)) {
+			for (Path path : walk.sorted((a, b) -> b.compareTo(a)).toList())
+				Files.delete(path);
+		}
+	}
+
+	private Path file(String name, int size) throws IOException {
+		Path file = directory.resolve(name);
+		Files.createDirectories(file.getParent());
+		return Files.write(file, new byte[size]);
+	}
+
+	private List<String> titles() {
+		List<String> titles = new ArrayList<>();
+		for (Object file : api.getFiles())
+			titles.add(((JSONObject) file).getString("title"));
+		return titles;
+	}
+
+	@Test
+	void uploadsTheFileWithItsName() throws Exception {
+		Path file = file("Rock & Roll + 100%.mp3", 600);
+		AtomicLong progress = new AtomicLong();
+		SinusbotAPI.Track track = new Uploader(api, 1).upload(file, "folder/1", (f, sent, size) -> {
+			assertEquals(file, f);
+			assertEquals(600, size);
+			progress.set(sent);
+		});
+		assertEquals("Rock & Roll + 100%.mp3", track.title());
+		assertEquals("folder/1", track.parent());
+		assertEquals(600, track.filesize());
+		assertEquals(600, progress.get());
+		assertEquals(List.of("Rock & Roll + 100%.mp3"), titles());
+	}
+
+	@Test
+	void rejectsFilesAboveTheMaximumSizeWithoutSending() throws Exception {
+		Uploader uploader = new Uploader(api, 1);
+		assertEquals(1000, uploader.maxSize());
+		assertThrows(IOException.class, () -> uploader.upload(file("large.mp3", 1001), null, null));
+		assertEquals(0, stub.requests("uploadFile"));
+		uploader.upload(file("small.mp3", 1000), null, null);
+		assertEquals(1, stub.requests("uploadFile"));
+		assertEquals(1, stub.requests("uploadInfo"));
+	}
+
+	@Test
+	void treeReportsEveryFileIncludingFailures() throws Exception {
+		file("a.mp3", 100);
+		file("b/large.mp3", 2000);
+		file("b/c.mp3", 200);
+		file("d/e/f.mp3", 300);
+		List<Uploader.Result> results = new Uploader(api, 2).uploadTree(directory, null, null);
+		assertEquals(4, results.size());
+		assertEquals(List.of(directory.resolve("a.mp3"), directory.resolve("b/c.mp3"), directory.resolve("b/large.mp3"),
+				directory.resolve("d/e/f.mp3")), results.stream().map(Uploader.Result::file).toList());
+		Uploader.Result large = results.get(2);
+		assertFalse(large.success());
+		assertNull(large.track());
+		for (Uploader.Result result : List.of(results.get(0), results.get(1), results.get(3))) {
+			assertTrue(result.success(), result.file() + " failed: " + result.error());
+			assertEquals(result.file().getFileName().toString(), result.track().title());
+		}
+		assertEquals(3, stub.requests("uploadFile"));
+		assertEquals(3, titles().size());
+	}
+
+	@Test
+	void failedUploadsDoNotStopTheOthers() throws Exception {
+		for (int i = 0; i < 6; i++)
+			file("file" + i + ".mp3", 100);
+		stub.faults("uploadFile").errors(1, 500);
+		List<Uploader.Result> results = new Uploader(api, 3).uploadTree(directory, null, null);
+		assertEquals(6, results.size());
+		for (Uploader.Result result : results)
+			assertInstanceOf(SinusbotTransport.StatusException.class, result.error());
+		stub.faults("uploadFile").clear();
+		assertTrue(new Uploader(api, 3).uploadTree(directory, null, null).stream().allMatch(Uploader.Result::success));
+		assertEquals(6, titles().size());
+	}
+}
@@ -1,32 +1,70 @@
 import urllib.request
 import json
+import os
 import re
 
 apiJsonUrl = 'https://www.sinusbot.com/api/api_data.js'
 
-classFrame = """
+classFrame = """package sinusbot;
+
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.ProtocolException;
-import java.net.URL;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.StringJoiner;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 public class SinusbotAPI {
 	private final String APISTR = "/api/v1";
-	private String token;
-	private String ip;
-	private int port;
+	private static final boolean[] SAFE_PATH = safeChars("-._~!$&'()*+,;=:@");
+	private static final boolean[] SAFE_QUERY = safeChars("-._~!$'()*,;:@/?");
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+	private static final long REFRESH_MARGIN_MILLIS = 60000;
+	private volatile String token;
+	// Time the token is renewed in the background, 0 if its expiry is unknown or a renewal is running
+	private final AtomicLong refreshAt = new AtomicLong();
+	private final Object loginLock = new Object();
+	private final String username;
+	private final String password;
+	private final String botId;
+	private final String baseUrl;
+	private final SinusbotTransport transport;
+	private volatile Executor executor;
+	private volatile ResponseCache cache;
+	private volatile ConcurrencyLimiter limiter;
+	private volatile Metrics metrics;
+	private volatile Hedging hedging;
+	// Reads currently being sent, identical concurrent requests wait for these instead of sending their own
+	private final ConcurrentHashMap<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
 	
 	/**
 	 * Constructor automatically logs in and grabs token
@@ -37,75 +75,513 @@ public class SinusbotAPI {
 	 * @param botId Bot id - get via /api/v1/botId
 	 */
 	public SinusbotAPI(String ip, int port, String username, String password, String botId) {
-		this.ip = ip;
-		this.port = port;
-		JSONObject loginObj = login(username, password, botId);
-		if (loginObj == null) {
+		this(ip, port, username, password, botId, new HttpClientTransport());
+	}
+	
+	/**
+	 * Constructor automatically logs in and grabs token.
+	 * The credentials are kept to log in again when the token expires.
+	 * @param ip Address of sinusbot
+	 * @param port Port of sinusbot
+	 * @param username Username to web interface
+	 * @param password Password to web interface
+	 * @param botId Bot id - get via /api/v1/botId
+	 * @param transport Transport used for every request, e.g. a HttpClientTransport with custom timeouts and connection limits
+	 */
+	public SinusbotAPI(String ip, int port, String username, String password, String botId, SinusbotTransport transport) {
+		this(ip, port, username, password, botId, transport, true);
+	}
+	
+	private SinusbotAPI(String ip, int port, String username, String password, String botId, SinusbotTransport transport, boolean login) {
+		this.baseUrl = "http://" + (ip.indexOf(':') >= 0 && !ip.startsWith("[") ? "[" + ip + "]" : ip) + ":" + port + APISTR;
+		this.transport = transport;
+		this.username = username;
+		this.password = password;
+		this.botId = botId;
+		if (login && !refreshToken(null))
 			throw new RuntimeException("Login failed!");
-		} else {
-			this.token = loginObj.getString("token");
+	}
+	
+	/**
+	 * Creates a client that logs in with its first call instead of in the constructor, so creating it neither blocks
+	 * nor fails if the sinusbot is unreachable. Concurrent first calls share one login, a failed login makes the call
+	 * fail and the next call tries again. {@link #warmUp()} logs in ahead of the first call.
+	 * @param ip Address of sinusbot
+	 * @param port Port of sinusbot
+	 * @param username Username to web interface
+	 * @param password Password to web interface
+	 * @param botId Bot id - get via /api/v1/botId
+	 * @param transport Transport used for every request
+	 * @return Client that has not logged in yet
+	 */
+	public static SinusbotAPI lazy(String ip, int port, String username, String password, String botId, SinusbotTransport transport) {
+		return new SinusbotAPI(ip, port, username, password, botId, transport, false);
+	}
+	
+	/**
+	 * Logs in on the executor of the asynchronous calls unless there already is a token. The login opens a connection
+	 * that stays in the pool, so the first call neither waits for the login nor for a connection.
+	 * @return Future completed with true once logged in, false if the login failed
+	 */
+	public CompletableFuture<Boolean> warmUp() {
+		return CompletableFuture.supplyAsync(() -> token != null || refreshToken(null), executor());
+	}
+	
+	/**
+	 * Logs in again unless another thread already replaced the token, concurrent callers wait for the running login
+	 * @param expired Token that has been rejected or is about to expire
+	 * @return True if a new token is available
+	 */
+	private boolean refreshToken(String expired) {
+		synchronized (loginLock) {
+			if (!Objects.equals(token, expired))
+				return true;
+			JSONObject loginObj = login(username, password, botId);
+			if (loginObj == null || !loginObj.has("token"))
+				return false;
+			String newToken = loginObj.getString("token");
+			long expiry = tokenExpiry(newToken);
+			token = newToken;
+			refreshAt.set(expiry > 0 ? Math.max(expiry - REFRESH_MARGIN_MILLIS, 1) : 0);
+			return true;
 		}
 	}
+	
+	/**
+	 * @return Expiry of a JWT token in milliseconds since the epoch, 0 if unknown
+	 */
+	private static long tokenExpiry(String token) {
+		String[] parts = token.split("[.]");
+		if (parts.length != 3)
+			return 0;
+		try {
+			String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+			return new JSONObject(payload).optLong("exp", 0) * 1000;
+		} catch (IllegalArgumentException | JSONException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Sets the executor the asynchronous *Async methods block on.
+	 * Defaults to a shared cached pool of daemon threads, on Java 21+ Executors.newVirtualThreadPerTaskExecutor() is a good fit.
+	 * @param executor Executor for asynchronous calls, null to use the default
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+	
+	/**
+	 * Enables caching of GET responses, mutating calls through this instance invalidate the affected entries
+	 * @param cache Cache to use, null to disable caching
+	 */
+	public void setCache(ResponseCache cache) {
+		this.cache = cache;
+	}
+	
+	/**
+	 * Limits the concurrent requests to the sinusbot, share the limiter between all instances connected to the same host
+	 * @param limiter Limiter to use, null to send every request right away
+	 */
+	public void setLimiter(ConcurrencyLimiter limiter) {
+		this.limiter = limiter;
+	}
+	
+	/**
+	 * Records latency, bytes and errors of every request sent, share the metrics between instances to aggregate them
+	 * @param metrics Metrics to record to, null to disable recording
+	 */
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Sends a second request for idempotent reads that take longer than most, the request answered first is used.
+	 * The requests run on the executor of the asynchronous calls while the caller waits, so a bounded executor needs
+	 * room for two requests per concurrent read.
+	 * @param hedging Hedging policy, null to send every request once
+	 */
+	public void setHedging(Hedging hedging) {
+		this.hedging = hedging;
+	}
+	
+	/**
+	 * @return Executor of the asynchronous calls, also used by companion classes like FleetMonitor
+	 */
+	Executor executor() {
+		Executor e = executor;
+		return e != null ? e : DefaultExecutor.INSTANCE;
+	}
+	
+	private static final class DefaultExecutor {
+		static final ExecutorService INSTANCE = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "sinusbot-async");
+			t.setDaemon(true);
+			return t;
+		});
+	}
 
-	private String apicall(String api, Map<String, String> args, String requestMethod) {
-		StringJoiner sj = new StringJoiner(",");
-		for (Map.Entry<String, String> arg : args.entrySet()) {
-			sj.add("\\"" + arg.getKey() + "\\":\\"" + arg.getValue() + "\\"");
-		    
-			if (api.contains(":" + arg.getKey()))
-				api = api.replace(":" + arg.getKey(), arg.getValue());
+	private static boolean[] safeChars(String extra) {
+		boolean[] safe = new boolean[128];
+		for (char c = 'a'; c <= 'z'; c++)
+			safe[c] = true;
+		for (char c = 'A'; c <= 'Z'; c++)
+			safe[c] = true;
+		for (char c = '0'; c <= '9'; c++)
+			safe[c] = true;
+		for (char c : extra.toCharArray())
+			safe[c] = true;
+		return safe;
+	}
+	
+	static String pathSegment(String value) {
+		return percentEncode(value, SAFE_PATH);
+	}
+	
+	static String queryValue(String value) {
+		return percentEncode(value, SAFE_QUERY);
+	}
+	
+	private static String percentEncode(String value, boolean[] safe) {
+		int i = 0;
+		while (i < value.length() && value.charAt(i) < 128 && safe[value.charAt(i)])
+			i++;
+		if (i == value.length())
+			return value;
+		StringBuilder sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+		for (byte b : value.substring(i).getBytes(StandardCharsets.UTF_8)) {
+			int c = b & 0xff;
+			if (c < 128 && safe[c])
+				sb.append((char) c);
+			else
+				sb.append('%').append(HEX[c >> 4]).append(HEX[c & 0xf]);
 		}
-		byte[] body = ("{" + sj.toString() + "}").getBytes(StandardCharsets.UTF_8);
-		int length = body.length;
-		
-		String URL = "http://"+ip+":"+port+APISTR+api;
-		
+		return sb.toString();
+	}
+
+	private InputStream apirequest(String endpoint, String url, byte[] body, String requestMethod) throws IOException {
+		return authorized(endpoint, body == null ? 0 : body.length, t -> transport.send(requestMethod, url, t, body));
+	}
+	
+	/**
+	 * Sends a request with the current token, logs in again and repeats it once if the token has been rejected
+	 */
+	private InputStream authorized(String endpoint, long requestBytes, TokenRequest request) throws IOException {
+		String t = token != null || endpoint.equals("login") ? token : firstLogin();
+		long r = refreshAt.get();
+		if (r != 0 && System.currentTimeMillis() >= r && refreshAt.compareAndSet(r, 0))
+			CompletableFuture.runAsync(() -> refreshToken(t), executor());
 		try {
-			URL url = new URL(URL);
-			HttpURLConnection http = (HttpURLConnection)url.openConnection();
+			return limited(endpoint, requestBytes, () -> request.send(t));
+		} catch (SinusbotTransport.StatusException e) {
+			if (e.statusCode() != 401 || endpoint.equals("login") || !refreshToken(t))
+				throw e;
+		} catch (IOException e) {
+			if (!retriable(endpoint, e))
+				throw e;
+		}
+		// Replay once with the new token, or after the connection failed
+		String renewed = token;
+		return limited(endpoint, requestBytes, () -> request.send(renewed));
+	}
 	
-			http.setRequestMethod(requestMethod);
-			http.setRequestProperty("Authorization", "bearer " + token);
-			
-			if (!args.isEmpty()) {
-				http.setDoOutput(true);
-				http.setFixedLengthStreamingMode(length);
-				http.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
-				http.connect();
-				try(OutputStream os = http.getOutputStream()) {    
-					os.write(body);
-				}
+	private InputStream limited(String endpoint, long requestBytes, ConcurrencyLimiter.Request request) throws IOException {
+		Metrics m = metrics;
+		ConcurrencyLimiter l = limiter;
+		Hedging h = hedging;
+		ConcurrencyLimiter.Request measured = m == null ? request : () -> m.record(Endpoints.of(endpoint), requestBytes, request);
+		ConcurrencyLimiter.Request attempt = l == null ? measured : () -> {
+			try {
+				return l.send(endpoint, measured);
+			} catch (ConcurrencyLimiter.RejectedException e) {
+				if (m != null)
+					m.rejected(Endpoints.of(endpoint).template());
+				throw e;
+			}
+		};
+		return h == null ? attempt.send() : h.send(endpoint, attempt, executor());
+	}
+	
+	/**
+	 * Sends a file as the body of a POST request and decodes the response, used by Uploader
+	 * @param endpoint Name of the API function
+	 * @param path Request path below the API url, including the query
+	 * @param progress Receives the number of bytes sent so far, may be null
+	 */
+	<T> T postFile(String endpoint, String path, Path file, LongConsumer progress, JsonReader.Decoder<T> decoder) throws IOException {
+		ResponseCache c = cache;
+		try (JsonReader reader = new JsonReader(new InputStreamReader(
+				authorized(endpoint, Files.size(file), t -> transport.send("POST", baseUrl + path, t, file, progress)), StandardCharsets.UTF_8))) {
+			return decoder.read(reader);
+		} finally {
+			if (c != null)
+				c.invalidate(endpoint, baseUrl + path);
+		}
+	}
+	
+	/**
+	 * Sends requests in order without waiting for each response, used by QueueBatch.
+	 * Requests rejected with 401 are repeated once with a new token. The limiter does not apply, the transport opens a
+	 * connection of its own for the batch, see {@link SinusbotTransport#sendPipelined}. Over https the requests are sent
+	 * one after the other. Metrics record every request with the time of the batch split evenly between them.
+	 * @param endpoints Name of the API function of each call
+	 * @param calls Requests in the order the sinusbot has to process them
+	 * @return Response of each call, in the same order
+	 */
+	List<SinusbotTransport.Reply> pipelined(List<String> endpoints, List<SinusbotTransport.Call> calls) {
+		if (token == null)
+			refreshToken(null);
+		String t = token;
+		long start = System.nanoTime();
+		List<SinusbotTransport.Reply> replies = new ArrayList<>(transport.sendPipelined(calls, t));
+		List<Integer> rejected = new ArrayList<>();
+		for (int i = 0; i < replies.size(); i++)
+			if (replies.get(i).error() instanceof SinusbotTransport.StatusException e && e.statusCode() == 401)
+				rejected.add(i);
+		if (!rejected.isEmpty() && refreshToken(t)) {
+			List<SinusbotTransport.Call> again = new ArrayList<>(rejected.size());
+			for (int i : rejected)
+				again.add(calls.get(i));
+			List<SinusbotTransport.Reply> retried = transport.sendPipelined(again, token);
+			for (int i = 0; i < rejected.size(); i++)
+				replies.set(rejected.get(i), retried.get(i));
+		}
+		Metrics m = metrics;
+		if (m != null) {
+			long nanos = (System.nanoTime() - start) / Math.max(calls.size(), 1);
+			for (int i = 0; i < calls.size(); i++) {
+				SinusbotTransport.Reply reply = replies.get(i);
+				byte[] body = calls.get(i).body();
+				m.record(Endpoints.of(endpoints.get(i)).template(), nanos, body == null ? 0 : body.length,
+						reply.body() == null ? 0 : reply.body().length, reply.error());
 			}
+		}
+		ResponseCache c = cache;
+		if (c != null)
+			for (int i = 0; i < calls.size(); i++)
+				c.invalidate(endpoints.get(i), calls.get(i).url());
+		return replies;
+	}
+	
+	/**
+	 * @param path Request path below the API url, e.g. /bot/files
+	 * @return Full request url
+	 */
+	String url(String path) {
+		return baseUrl + path;
+	}
+	
+	/**
+	 * Idempotent requests are sent again after a connection failure, e.g. a kept-alive connection the sinusbot had closed.
+	 * GET requests are left out, the HttpClient already repeats them, and so are reads sent by {@link Hedging}, whose
+	 * second request is the repetition. Timeouts are not repeated, the sinusbot may still be working on the request.
+	 */
+	private boolean retriable(String endpoint, IOException e) {
+		Endpoints.Endpoint descriptor = Endpoints.of(endpoint);
+		return descriptor.idempotent() && !descriptor.method().equals("GET") && (hedging == null || !Hedging.hedgeable(descriptor))
+				&& !(e instanceof HttpTimeoutException || e instanceof InterruptedIOException || e instanceof ConcurrencyLimiter.RejectedException);
+	}
+	
+	/**
+	 * Logs in for the first call of a client created with {@link #lazy}
+	 * @return The new token
+	 */
+	private String firstLogin() throws IOException {
+		if (!refreshToken(null))
+			throw new IOException("Login failed!");
+		return token;
+	}
+	
+	@FunctionalInterface
+	private interface TokenRequest {
+		InputStream send(String token) throws IOException;
+	}
 
-			BufferedReader br = new BufferedReader(new InputStreamReader(http.getInputStream()));
+	private String apicall(String endpoint, String url, byte[] body, String requestMethod) {
+		ResponseCache c = cache;
+		if (Endpoints.of(endpoint).read()) {
+			Supplier<String> call = () -> coalesce(flightKey("S", url, body), () -> apicallUncached(endpoint, url, body, requestMethod));
+			return c == null ? call.get() : c.get(endpoint, url, call);
+		}
+		if (c == null)
+			return apicallUncached(endpoint, url, body, requestMethod);
+		try {
+			return apicallUncached(endpoint, url, body, requestMethod);
+		} finally {
+			c.invalidate(endpoint, url);
+		}
+	}
+	
+	private String apicallUncached(String endpoint, String url, byte[] body, String requestMethod) {
+		try (InputStream in = apirequest(endpoint, url, body, requestMethod)) {
+			BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
 			
 			return br.lines().collect(Collectors.joining());
 			
-		} catch (MalformedURLException e) {
-			e.printStackTrace();
-		} catch (ProtocolException e) {
-			e.printStackTrace();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 		return null;
 	}
 	
-	private JSONObject apicallObject(String api, Map<String, String> args, String requestMethod) {
-		String jsonStr = apicall(api, args, requestMethod);
+	private JSONObject apicallObject(String endpoint, String url, byte[] body, String requestMethod) {
+		String jsonStr = apicall(endpoint, url, body, requestMethod);
 		if (jsonStr != null)
 			return new JSONObject(jsonStr);
 		return null;
 	}
 	
-	private JSONArray apicallArray(String api, Map<String, String> args, String requestMethod) {
-		String jsonStr = apicall(api, args, requestMethod);
+	private JSONArray apicallArray(String endpoint, String url, byte[] body, String requestMethod) {
+		String jsonStr = apicall(endpoint, url, body, requestMethod);
 		if (jsonStr != null)
 			return new JSONArray(jsonStr);
 		return null;
 	}
 	
-	[api]
+	private InputStream apicallRaw(String endpoint, String url, byte[] body, String requestMethod) {
+		try {
+			return apirequest(endpoint, url, body, requestMethod);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+	
+	private Stream<JSONObject> apicallStream(String endpoint, String url, byte[] body, String requestMethod) {
+		InputStream in;
+		try {
+			in = apirequest(endpoint, url, body, requestMethod);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+		JSONArrayIterator it = new JSONArrayIterator(in);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(it::close);
+	}
+	
+	private <T> T apicallTyped(String endpoint, String url, byte[] body, String requestMethod, JsonReader.Decoder<T> decoder) {
+		ResponseCache c = cache;
+		if (c != null && (!Endpoints.of(endpoint).read() || c.caches(endpoint))) {
+			String jsonStr = apicall(endpoint, url, body, requestMethod);
+			if (jsonStr == null)
+				return null;
+			try (JsonReader reader = new JsonReader(new StringReader(jsonStr))) {
+				return decoder.read(reader);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			return null;
+		}
+		if (Endpoints.of(endpoint).read())
+			return coalesce(flightKey("T", url, body), () -> apicallDecoded(endpoint, url, body, requestMethod, decoder));
+		return apicallDecoded(endpoint, url, body, requestMethod, decoder);
+	}
+	
+	private <T> T apicallDecoded(String endpoint, String url, byte[] body, String requestMethod, JsonReader.Decoder<T> decoder) {
+		try (JsonReader reader = new JsonReader(new InputStreamReader(apirequest(endpoint, url, body, requestMethod), StandardCharsets.UTF_8))) {
+			return decoder.read(reader);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+	
+	private static String flightKey(String kind, String url, byte[] body) {
+		return body == null ? kind + " " + url : kind + " " + url + " " + new String(body, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Sends a request only if no identical one is in flight, otherwise waits for the result of the running one.
+	 * Only used for reads, whose results are either immutable or the raw response text.
+	 * @param key Key of the request, raw and decoded results must not share keys
+	 * @param call Sends the request
+	 * @return Result of the request that has been sent
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T coalesce(String key, Supplier<T> call) {
+		CompletableFuture<Object> own = new CompletableFuture<>();
+		CompletableFuture<Object> running = inflight.putIfAbsent(key, own);
+		if (running != null)
+			return (T) running.join();
+		try {
+			T result = call.get();
+			own.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			inflight.remove(key, own);
+		}
+	}
+	
+	/**
+	 * Parses the objects of a JSON array one at a time off the response stream.
+	 * The response is closed as soon as the closing bracket has been read.
+	 */
+	private static final class JSONArrayIterator implements Iterator<JSONObject> {
+		private final InputStream in;
+		private final JSONTokener tokener;
+		private JSONObject next;
+		private boolean done;
+		
+		JSONArrayIterator(InputStream in) {
+			this.in = in;
+			this.tokener = new JSONTokener(new InputStreamReader(in, StandardCharsets.UTF_8));
+			try {
+				if (tokener.nextClean() != '[')
+					throw tokener.syntaxError("A JSONArray text must start with '['");
+				if (tokener.nextClean() == ']')
+					close();
+				else
+					tokener.back();
+			} catch (JSONException e) {
+				close();
+				throw e;
+			}
+		}
+		
+		@Override
+		public boolean hasNext() {
+			if (next == null && !done) {
+				try {
+					next = new JSONObject(tokener);
+					char c = tokener.nextClean();
+					if (c == ']')
+						close();
+					else if (c != ',')
+						throw tokener.syntaxError("Expected a ',' or ']'");
+				} catch (JSONException e) {
+					close();
+					throw e;
+				}
+			}
+			return next != null;
+		}
+		
+		@Override
+		public JSONObject next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			JSONObject obj = next;
+			next = null;
+			return obj;
+		}
+		
+		void close() {
+			if (done)
+				return;
+			done = true;
+			try {
+				in.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	[api][records]
 }
 """
 
@@ -115,15 +591,408 @@ funFrame = """
 	 * @return [ret]
 	 */
 	public JSON[rettype] [name]([args]) {
-		@SuppressWarnings("serial")
-		HashMap<String,String> arguments = new HashMap<String,String>() {{[puts]
-		}};
+		[body]return apicall[rettype]("[name]", [url], [bodyarg], "[type]");
+	}
+
+	/**
+	 * [title] - asynchronous variant of {@link #[name]}
+	 * @return Future completed with the result of {@link #[name]}
+	 */
+	public CompletableFuture<JSON[rettype]> [name]Async([args]) {
+		return CompletableFuture.supplyAsync(() -> [name]([argnames]), executor());
+	}
+"""
+
+rawFrame = """
+	/**
+	 * [title] [description]
+	 * @return Response body as it is received, has to be closed by the caller - null if the request failed
+	 */
+	public InputStream [name]([args]) {
+		[body]return apicallRaw("[name]", [url], [bodyarg], "[type]");
+	}
+"""
+
+clusterFunFrame = """
+	/**
+	 * [title] - sent to the host running the instance [description]
+	 * @return Response of {@link SinusbotAPI#[name]}, null if the instance is unknown or the request failed
+	 */
+	public JSON[rettype] [name]([args]) {
+		SinusbotAPI api = api(instanceId);
+		return api == null ? null : api.[name]([argnames]);
+	}
+"""
+
+streamFrame = """
+	/**
+	 * [title] - streaming variant of {@link #[name]}, entries are parsed one by one while the response is received.
+	 * Close the stream (e.g. with try-with-resources) if it is not consumed completely.
+	 * @return Stream of the returned entries, null if the request failed
+	 */
+	public Stream<JSONObject> [name]Stream([args]) {
+		[body]return apicallStream("[name]", [url], [bodyarg], "[type]");
+	}
+"""
+
+typedFrame = """
+	/**
+	 * [title] - typed variant of {@link #[name]}, decoded straight from the response stream
+	 * @return Decoded response, null if the request failed
+	 */
+	public [typedret] [name]Typed([args]) {
+		[body]return apicallTyped("[name]", [url], [bodyarg], "[type]", [decoder]);
+	}
+"""
+
+recordFrame = """
+	/**
+	 * [doc][params]
+	 */
+	public record [record]([components]) {
+		static [record] read(JsonReader reader) throws IOException {
+			if (reader.skipNull())
+				return null;[locals]
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {[cases]
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return new [record]([names]);
+		}
+	}
+"""
+
+caseFrame = """
+				case "[field]":
+					[component] = [read];
+					break;"""
+
+bodyFrame = """byte[] body = JsonWriter.object()[fields]
+				.toByteArray();
 		
-		return apicall[rettype]("[url]", arguments, "[type]");
+		"""
+fieldFrame = """
+				.field("[paramName]", [paramName])"""
+clusterFrame = """package sinusbot;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Client for several sinusbot hosts.
+ * Functions of an instance are sent to the host running it, found in a routing table built from the
+ * instance lists of all hosts. The table is loaded again when an unknown instance is requested, at most every
+ * 5 seconds, and an instance that was not found is not looked up again for a minute. Concurrent lookups share one
+ * reload and routing of known instances goes on while it runs.
+ * Other functions can be called on every host at once with {@link #gather(Function)}.
+ */
+public class SinusbotCluster {
+	private static final long MIN_REFRESH_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+	private static final long UNKNOWN_TTL = TimeUnit.MINUTES.toNanos(1);
+
+	private final Duration timeout;
+	private volatile Map<String, SinusbotAPI> hosts = Collections.emptyMap();
+	// instanceId to host name, replaced as a whole
+	private volatile Map<String, String> routes = Collections.emptyMap();
+	// Reload of the routing table in progress, shared by all callers
+	private final AtomicReference<CompletableFuture<Integer>> refreshing = new AtomicReference<>();
+	private volatile long lastRefresh = System.nanoTime() - MIN_REFRESH_INTERVAL;
+	// instanceId not found by a reload to the time of that reload
+	private final Map<String, Long> unknown = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param timeout Time to wait for the hosts in {@link #gather(Function)} and when loading the routing table
+	 */
+	public SinusbotCluster(Duration timeout) {
+		this.timeout = timeout;
+	}
+	
+	/**
+	 * Adds a host, its instances are routed after the next {@link #refreshRoutes()}
+	 * @param name Name of the host, e.g. its address
+	 * @param api Logged in connection to the host
+	 */
+	public synchronized void addHost(String name, SinusbotAPI api) {
+		Map<String, SinusbotAPI> copy = new LinkedHashMap<>(hosts);
+		copy.put(name, api);
+		hosts = Collections.unmodifiableMap(copy);
+	}
+	
+	/**
+	 * Removes a host and the routes to its instances
+	 * @param name Name of the host
+	 */
+	public synchronized void removeHost(String name) {
+		Map<String, SinusbotAPI> copy = new LinkedHashMap<>(hosts);
+		copy.remove(name);
+		hosts = Collections.unmodifiableMap(copy);
+		Map<String, String> newRoutes = new HashMap<>(routes);
+		newRoutes.values().removeIf(name::equals);
+		routes = Collections.unmodifiableMap(newRoutes);
+	}
+	
+	/**
+	 * @return Names of all hosts
+	 */
+	public Set<String> hosts() {
+		return hosts.keySet();
+	}
+	
+	/**
+	 * @param name Name of the host
+	 * @return Connection to the host, null if unknown
+	 */
+	public SinusbotAPI host(String name) {
+		return hosts.get(name);
+	}
+	
+	/**
+	 * @param instanceId uuid of the instance
+	 * @return Name of the host running the instance, null if unknown
+	 */
+	public String hostOf(String instanceId) {
+		String host = routes.get(instanceId);
+		if (host != null)
+			return host;
+		Long missed = unknown.get(instanceId);
+		if (missed != null && System.nanoTime() - missed < UNKNOWN_TTL)
+			return null;
+		if (refreshing.get() == null && System.nanoTime() - lastRefresh < MIN_REFRESH_INTERVAL)
+			return null;
+		refresh();
+		host = routes.get(instanceId);
+		if (host == null)
+			unknown.put(instanceId, lastRefresh);
+		return host;
 	}
+	
+	/**
+	 * @param instanceId uuid of the instance
+	 * @return Connection to the host running the instance, null if unknown
+	 */
+	public SinusbotAPI api(String instanceId) {
+		String host = hostOf(instanceId);
+		return host == null ? null : hosts.get(host);
+	}
+	
+	/**
+	 * Loads the instance lists of all hosts in parallel and rebuilds the routing table.
+	 * Hosts that fail or time out keep their previous routes. A reload already in progress is waited for instead.
+	 * @return Number of routed instances
+	 */
+	public int refreshRoutes() {
+		return refresh();
+	}
+	
+	private int refresh() {
+		CompletableFuture<Integer> own = new CompletableFuture<>();
+		CompletableFuture<Integer> running = refreshing.compareAndExchange(null, own);
+		if (running != null)
+			return running.join();
+		try {
+			// The hosts are asked without holding the lock, lookups of known instances are not held up
+			Map<String, List<SinusbotAPI.Instance>> instances = gather(SinusbotAPI::getInstancesTyped);
+			own.complete(applyRoutes(instances));
+		} catch (RuntimeException | Error e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			refreshing.set(null);
+		}
+		return own.join();
+	}
+	
+	private synchronized int applyRoutes(Map<String, List<SinusbotAPI.Instance>> instances) {
+		Map<String, String> newRoutes = new HashMap<>();
+		for (Map.Entry<String, String> route : routes.entrySet())
+			if (hosts.containsKey(route.getValue()) && !instances.containsKey(route.getValue()))
+				newRoutes.put(route.getKey(), route.getValue());
+		for (Map.Entry<String, List<SinusbotAPI.Instance>> host : instances.entrySet())
+			if (hosts.containsKey(host.getKey()))
+				for (SinusbotAPI.Instance instance : host.getValue())
+					newRoutes.put(instance.uuid(), host.getKey());
+		routes = Collections.unmodifiableMap(newRoutes);
+		long now = System.nanoTime();
+		lastRefresh = now;
+		unknown.keySet().removeAll(newRoutes.keySet());
+		unknown.values().removeIf(missed -> now - missed >= UNKNOWN_TTL);
+		return newRoutes.size();
+	}
+	
+	/**
+	 * Calls a function on all hosts in parallel
+	 * @param call Function to call, e.g. SinusbotAPI::getFilesTyped
+	 * @return Results by host name, hosts that failed or did not respond in time are missing
+	 */
+	public <T> Map<String, T> gather(Function<SinusbotAPI, T> call) {
+		return gather(call, timeout);
+	}
+	
+	/**
+	 * Calls a function on all hosts in parallel
+	 * @param call Function to call, e.g. SinusbotAPI::getFilesTyped
+	 * @param timeout Time to wait for the hosts
+	 * @return Results by host name, hosts that failed or did not respond in time are missing
+	 */
+	public <T> Map<String, T> gather(Function<SinusbotAPI, T> call, Duration timeout) {
+		Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+		for (Map.Entry<String, SinusbotAPI> host : hosts.entrySet()) {
+			SinusbotAPI api = host.getValue();
+			futures.put(host.getKey(), CompletableFuture.supplyAsync(() -> call.apply(api), api.executor()));
+		}
+		long deadline = System.nanoTime() + timeout.toNanos();
+		Map<String, T> results = new LinkedHashMap<>();
+		for (Map.Entry<String, CompletableFuture<T>> future : futures.entrySet()) {
+			try {
+				T result = future.getValue().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+				if (result != null)
+					results.put(future.getKey(), result);
+			} catch (TimeoutException e) {
+				// Left out, the request completes in the background
+			} catch (ExecutionException e) {
+				e.getCause().printStackTrace();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return results;
+	}
+	
+	/**
+	 * @return Instances of all hosts by host name
+	 */
+	public Map<String, List<SinusbotAPI.Instance>> getInstances() {
+		return gather(SinusbotAPI::getInstancesTyped);
+	}
+	
+	/**
+	 * @return Files of all hosts by host name
+	 */
+	public Map<String, List<SinusbotAPI.Track>> getFiles() {
+		return gather(SinusbotAPI::getFilesTyped);
+	}
+[api]}
+"""
+
+stubRoutesFrame = """package sinusbot.stub;
+
+/**
+ * Routes of the Sinusbot API, generated by parser.py from the API documentation
+ */
+final class StubRoutes {
+	static final Route[] ROUTES = {[routes]
+	};
+
+	private StubRoutes() {
+	}
+}
 """
 
-putFrame = """			put("[paramName]", [paramName].toString());"""
+endpointsFrame = """package sinusbot;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import sinusbot.ConcurrencyLimiter.Priority;
+
+/**
+ * Metadata of every API function, generated by parser.py from the API documentation.
+ * Caching, coalescing, retries, the concurrency limiter and metrics are driven by this table, so a regenerated client
+ * applies them to new endpoints as well.
+ */
+public final class Endpoints {
+	private static final Map<String, Endpoint> ENDPOINTS = Stream.of([endpoints]
+	).collect(Collectors.toUnmodifiableMap(Endpoint::name, Function.identity()));
+
+	/**
+	 * Shape of the response body
+	 */
+	public enum Shape {
+		OBJECT,
+		ARRAY,
+		/** Not JSON, e.g. the audio stream */
+		RAW
+	}
+
+	/**
+	 * @param name Name of the API function, e.g. getFiles
+	 * @param method HTTP method
+	 * @param path Path template below the API url without the query, e.g. /bot/i/:instanceId/status
+	 * @param read True if the function only reads, identical concurrent calls are coalesced into one request
+	 * @param idempotent True if sending the request twice has the same effect as sending it once, it is repeated after a connection failure
+	 * @param cacheable True if responses may be cached by a {@link ResponseCache}
+	 * @param invalidates Cacheable functions whose responses become stale when this function is called
+	 * @param shape Shape of the response
+	 * @param priority Queue of the {@link ConcurrencyLimiter}
+	 */
+	public record Endpoint(String name, String method, String path, boolean read, boolean idempotent, boolean cacheable,
+			List<String> invalidates, Shape shape, Priority priority) {
+		/**
+		 * @return Method and path template, e.g. "GET /bot/i/:instanceId/status", metrics are recorded per template
+		 */
+		public String template() {
+			return method + " " + path;
+		}
+
+		/**
+		 * @return True for long-lived responses like the audio stream, they do not count against the concurrency limit
+		 */
+		public boolean streaming() {
+			return shape == Shape.RAW;
+		}
+	}
+
+	private Endpoints() {
+	}
+
+	/**
+	 * @param name Name of the API function, e.g. getFiles
+	 * @return Metadata of the function, a function not in the documentation is treated as a mutation with normal priority
+	 */
+	public static Endpoint of(String name) {
+		Endpoint endpoint = ENDPOINTS.get(name);
+		return endpoint != null ? endpoint : new Endpoint(name, "POST", name, false, false, false, List.of(), Shape.OBJECT, Priority.NORMAL);
+	}
+
+	/**
+	 * @return Metadata of all API functions
+	 */
+	public static Collection<Endpoint> all() {
+		return ENDPOINTS.values();
+	}
+}
+"""
+
+endpointFrame = """
+			new Endpoint("[name]", "[type]", "[path]", [read], [idempotent], [cacheable], List.of([invalidates]), Shape.[shape], Priority.[priority]),"""
+
+stubRouteFrame = """
+		new Route("[name]", "[type]", "[url]", [response]),"""
+
 descFrame = """	 * @param [paramName] [description]"""
 retFrame = """	 * [ret]"""
 
@@ -138,29 +1007,298 @@ def typeStrToJavaType(typestr):
     }
     return conv.get(typestr, "unknown")
 
+# Names of the generated records, keyed by response field path or function name
+recordNames = {
+    "mediainfo": "Track",
+    "instances": "Instance",
+    "getStatus": "InstanceStatus",
+    "currentTrack": "CurrentTrack",
+    "entries": "LogEntry",
+    "scriptname": "Script",
+    "channel": "Channel",
+    "channel.clients": "ChannelClient",
+    "jobs": "Job",
+    "users": "User"
+}
+
+# Objects documented without fields that have the fields of another response, plus fields of their own
+sameFieldsAs = {
+    ("getStatus", "currentTrack"): ("getFiles", "mediainfo", {"url": ("string", "url of a stream, tracks of the library are identified by uuid")}),
+}
+
+javaKeywords = {"abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const", "continue",
+    "default", "do", "double", "else", "enum", "extends", "final", "finally", "float", "for", "goto", "if", "implements",
+    "import", "instanceof", "int", "interface", "long", "native", "new", "package", "private", "protected", "public",
+    "return", "short", "static", "strictfp", "super", "switch", "synchronized", "this", "throw", "throws", "transient",
+    "try", "void", "volatile", "while", "true", "false", "null", "record", "var", "yield"}
+
+recordsBySignature = {}
+recordsByKey = {}
+recordStrs = []
+
+def cleanDescription(desc):
+    return desc.replace("<p>","").replace("</p>","").strip()
+
+def typeStr(typestr):
+    m = re.search('<p>(.*?)</p>', typestr)
+    return (m.group(1) if m else typestr).strip().lower()
+
+def javaIdentifier(name):
+    name = re.sub('[^A-Za-z0-9_]', '_', name)
+    if name[0].isdigit() or name in javaKeywords:
+        name += "_"
+    return name
+
+def capitalize(name):
+    name = javaIdentifier(name).strip("_")
+    return name[0].upper() + name[1:]
+
+def successFieldTree(fields):
+    # Nests "a.b" fields below their parent "a", fields without a documented parent are dropped
+    root = {}
+    for field in fields:
+        parts = field["field"].split(".")
+        children = root
+        for part in parts[:-1]:
+            if part not in children:
+                children = None
+                break
+            children = children[part]["children"]
+        if children is not None:
+            children[parts[-1]] = {"type": typeStr(field["type"]), "desc": cleanDescription(field["description"]), "children": {}}
+    return root
+
+def componentFor(key, node, recordName, funName):
+    # Returns (java type, decoding expression) of a record component
+    if node["children"]:
+        nested = recordFor(key, node["children"], recordNames.get(key, recordName + capitalize(key.split(".")[-1])), funName, True)
+        if node["type"] == "object[]":
+            return "List<" + nested + ">", "reader.readList(" + nested + "::read)"
+        return nested, nested + ".read(reader)"
+    conv = {
+        "string": ("String", "reader.nextString()"),
+        "number": ("long", "reader.nextLong()"),
+        "bool": ("boolean", "reader.nextBoolean()"),
+        "boolean": ("boolean", "reader.nextBoolean()")
+    }
+    return conv.get(node["type"], ("Object", "reader.nextUnmodifiableValue()"))
+
+def recordFor(key, children, name, funName, nested=False):
+    components = []
+    for field, node in children.items():
+        javaType, read = componentFor(key + "." + field if key else field, node, name, funName)
+        components.append((field, javaIdentifier(field), javaType, read, node["desc"]))
+    signature = tuple((c[1], c[2]) for c in components)
+    if signature in recordsBySignature:
+        recordsByKey[key] = recordsBySignature[signature]
+        return recordsBySignature[signature]
+    while name in recordsBySignature.values():
+        name += "_"
+    recordsBySignature[signature] = name
+    recordsByKey[key] = name
+
+    defaults = {"long": "0", "boolean": "false"}
+    doc = ("Part of the typed response of {@link #" if nested else "Typed response of {@link #") + funName + "}"
+    recordStr = recordFrame.replace("[record]", name).replace("[doc]", doc)
+    recordStr = recordStr.replace("[components]", ", ".join(c[2] + " " + c[1] for c in components))
+    recordStr = recordStr.replace("[names]", ", ".join(c[1] for c in components))
+    for field, javaName, javaType, read, desc in components:
+        recordStr = recordStr.replace("[params]", "\n	 * @param " + javaName + (" " + desc if desc else "") + "[params]")
+        recordStr = recordStr.replace("[locals]", "\n			" + javaType + " " + javaName + " = " + defaults.get(javaType, "null") + ";[locals]")
+        caseStr = caseFrame.replace("[field]", field).replace("[component]", javaName).replace("[read]", read)
+        recordStr = recordStr.replace("[cases]", caseStr + "[cases]")
+    recordStr = recordStr.replace("[params]", "").replace("[locals]", "").replace("[cases]", "")
+    recordStrs.append(recordStr)
+    return name
+
+def typedReturn(fun):
+    # Returns (java type, decoder) of the typed variant or None if the response is not worth a record
+    if 'success' not in fun:
+        return None
+    tree = successFieldTree(fun["success"]["fields"]["Success 200"])
+    for (funName, field), (source, key, extra) in sameFieldsAs.items():
+        if funName == fun["name"] and field in tree:
+            sourceFun = next(other for other in api if other["name"] == source)
+            children = dict(successFieldTree(sourceFun["success"]["fields"]["Success 200"])[key]["children"])
+            children.update({name: {"type": fieldType, "desc": desc, "children": {}} for name, (fieldType, desc) in extra.items()})
+            tree[field] = dict(tree[field], children=children)
+    if returnsArray(fun):
+        key, node = next(iter(tree.items()))
+        if node["children"]:
+            record = recordFor(key, node["children"], recordNames.get(key, capitalize(key)), fun["name"])
+        elif key in recordsByKey:
+            record = recordsByKey[key]
+        else:
+            return None
+        return "List<" + record + ">", "reader -> reader.readList(" + record + "::read)"
+    if len([field for field in tree if field != "success"]) < 2:
+        return None
+    name = fun["name"][3:] if fun["name"].startswith("get") else fun["name"]
+    record = recordFor("", tree, recordNames.get(fun["name"], capitalize(name)), fun["name"])
+    return record, record + "::read"
+
+def compileUrl(url, pathParams):
+    # Splits the url at its :placeholders into a Java concatenation that builds the request url in one pass
+    parts = []
+    literal = ""
+    query = False
+    pos = 0
+    for m in re.finditer(":([A-Za-z0-9_]+)", url):
+        literal += url[pos:m.start()]
+        pos = m.end()
+        query = query or "?" in literal
+        if m.group(1) not in pathParams:
+            literal += m.group(0)
+            continue
+        if literal:
+            parts.append('"' + literal + '"')
+            literal = ""
+        paramName = m.group(1)
+        if pathParams[paramName] != "String":
+            parts.append(paramName)
+        elif query:
+            parts.append("queryValue(" + paramName + ")")
+        else:
+            parts.append("pathSegment(" + paramName + ")")
+    literal += url[pos:]
+    if literal:
+        parts.append('"' + literal + '"')
+    return " + ".join(["baseUrl"] + parts)
+
+def returnsArray(fun):
+    if 'success' not in fun:
+        return False
+    return typeStrToJavaType(fun["success"]["fields"]["Success 200"][0]["type"]) == "Object[]"
+
+def sampleValue(field, node):
+    # Documented field with an empty value, success flags are set
+    if node["type"] == "object[]":
+        return []
+    if node["children"]:
+        return {key: sampleValue(key, child) for key, child in node["children"].items()}
+    return {"string": "", "number": 0, "bool": field == "success", "boolean": field == "success"}.get(node["type"])
+
+def parseJsonAPIFunToStubRoute(fun):
+    # Default response of the stub server: the documented fields with empty values
+    if 'success' not in fun:
+        response = "null"
+    elif returnsArray(fun):
+        response = '"[]"'
+    else:
+        tree = successFieldTree(fun["success"]["fields"]["Success 200"])
+        response = json.dumps(json.dumps({key: sampleValue(key, node) for key, node in tree.items()}, separators=(",", ":")))
+    routeStr = stubRouteFrame.replace("[name]", fun["name"]).replace("[type]", fun["type"].upper())
+    return routeStr.replace("[url]", fun["url"]).replace("[response]", response)
+
+# Endpoint policies the documented methods and urls do not show
+# Reads documented with another method than GET
+readOnly = {"getStatus", "getRadioStations"}
+# Mutations besides DELETE and PATCH that have the same effect when repeated
+idempotent = {"setVolume", "seek", "setMute", "setRepeat", "setShuffle", "stop"}
+# DELETE and PATCH requests with a different effect each time, e.g. removing by queue position
+notIdempotent = {"removeFromQueue"}
+# Reads a mutation changes without sharing its path
+affects = {
+    "addUrl": ["getFiles"],
+    "createFolder": ["getFiles"],
+    "uploadFile": ["getFiles"],
+    "deleteFile": ["getQueue"],
+    "updateFile": ["getQueue"],
+    "getSettings": ["getInstances"],
+    "spawn": ["getInstances"],
+    "kill": ["getInstances"],
+    "respawn": ["getInstances"],
+    "updateInstanceUserPrivileges": ["getUsers"],
+    "saveSettings": ["getScripts"],
+    "playById": ["getQueue", "recentTracks"],
+    "playByList": ["getQueue", "recentTracks"],
+    "playUrl": ["getQueue", "recentTracks"],
+    "playNext": ["getQueue", "recentTracks"],
+    "playPrevious": ["getQueue", "recentTracks"],
+    "stop": ["getQueue"],
+}
+# Playback control goes ahead of other requests, bulk reads and uploads wait behind them
+priorities = {name: "HIGH" for name in ["pause", "stop", "playNext", "playPrevious", "playById", "playByList", "playUrl", "seek",
+                                        "setVolume", "increaseVolume", "decreaseVolume"]}
+priorities.update({name: "LOW" for name in ["getFiles", "getBotLog", "getInstanceLog", "recentTracks", "uploadFile", "avatarUpload"]})
+
+def isRead(fun):
+    return fun["type"].upper() == "GET" or fun["name"] in readOnly
+
+def pathSegments(fun):
+    return fun["url"].split("?")[0].strip("/").split("/")
+
+def pathPrefix(prefix, path):
+    # Path parameters match any segment
+    return len(prefix) <= len(path) and all(a == b or (a.startswith(":") and b.startswith(":")) for a, b in zip(prefix, path))
+
+def parseJsonAPIFunToEndpoint(fun, funs):
+    shape = "RAW" if 'success' not in fun else "ARRAY" if returnsArray(fun) else "OBJECT"
+    read = isRead(fun)
+    method = fun["type"].upper()
+    invalidates = []
+    if not read:
+        path = pathSegments(fun)
+        # Reads of the collection the mutation changes, e.g. getFiles for DELETE /bot/files/:id
+        reads = [other for other in funs if isRead(other) and 'success' in other and pathPrefix(pathSegments(other), path)]
+        invalidates = [other["name"] for other in reads] + affects.get(fun["name"], [])
+        # The status of an instance reflects every change made to it
+        if path[:3] == ["bot", "i", ":instanceId"]:
+            invalidates.append("getStatus")
+        invalidates = sorted(set(invalidates))
+    endpointStr = endpointFrame.replace("[name]", fun["name"]).replace("[type]", method).replace("[path]", fun["url"].split("?")[0])
+    endpointStr = endpointStr.replace("[read]", str(read).lower())
+    endpointStr = endpointStr.replace("[idempotent]", str(read or (method in ("DELETE", "PATCH", "PUT") and fun["name"] not in notIdempotent)
+                                                         or fun["name"] in idempotent).lower())
+    endpointStr = endpointStr.replace("[cacheable]", str(read and shape != "RAW").lower())
+    endpointStr = endpointStr.replace("[invalidates]", ", ".join('"' + name + '"' for name in invalidates))
+    return endpointStr.replace("[shape]", shape).replace("[priority]", priorities.get(fun["name"], "NORMAL"))
+
 def parseJsonAPIFunToJavaMethod(fun):
-    funStr = funFrame.replace("[title]", fun["group"] + " - " + fun["title"])
+    if 'parameter' in fun:
+        for param in fun["parameter"]["fields"]["Parameter"]:
+            if typeStrToJavaType(param["type"]) == "unknown":
+                return "", ""
+    # Functions without a documented JSON response (e.g. the audio stream) return the raw response body
+    funStr = funFrame if 'success' in fun else rawFrame
+    if returnsArray(fun):
+        funStr += streamFrame
+    typed = typedReturn(fun)
+    if typed is not None:
+        funStr += typedFrame.replace("[typedret]", typed[0]).replace("[decoder]", typed[1])
+    if 'success' in fun and 'parameter' in fun and re.search(":instanceId(?![A-Za-z0-9_])", fun["url"]) and \
+            any(param["field"] == "instanceId" for param in fun["parameter"]["fields"]["Parameter"]):
+        funStr += "[cluster]" + clusterFunFrame
+    funStr = funStr.replace("[title]", fun["group"] + " - " + fun["title"])
     funStr = funStr.replace("[name]", fun["name"])
-    funStr = funStr.replace("[url]", fun["url"])
     funStr = funStr.replace("[type]", fun["type"].upper())
+    pathParams = {}
+    fields = ""
     if 'parameter' in fun:
         params = fun["parameter"]["fields"]["Parameter"]
-        puts = ""
-        args = ""
         for i,param in enumerate(params):
             paramType = typeStrToJavaType(param["type"])
-            if paramType == "unknown":
-                return ""
             paramName = param["field"].replace(".", "_")
             if i < len(params) - 1:
                 funStr = funStr.replace("[args]", paramType + " " + paramName + ", [args]")
+                funStr = funStr.replace("[argnames]", paramName + ", [argnames]")
             else:
                 funStr = funStr.replace("[args]", paramType + " " + paramName + "[args]")
-            putStr = putFrame.replace("[paramName]", paramName)
-            funStr = funStr.replace("[puts]", "\n" + putStr + "[puts]")
+                funStr = funStr.replace("[argnames]", paramName + "[argnames]")
+            if re.search(":" + re.escape(paramName) + "(?![A-Za-z0-9_])", fun["url"]):
+                pathParams[paramName] = paramType
+            else:
+                fields += fieldFrame.replace("[paramName]", paramName)
             descStr = descFrame.replace("[paramName]", paramName)
             descStr = descStr.replace("[description]", param["description"].replace("<p>","").replace("</p>",""))
             funStr = funStr.replace("[description]", "\n" + descStr + "[description]")
+    funStr = funStr.replace("[url]", compileUrl(fun["url"], pathParams))
+    if fields:
+        funStr = funStr.replace("[body]", bodyFrame.replace("[fields]", fields))
+        funStr = funStr.replace("[bodyarg]", "body")
+    else:
+        funStr = funStr.replace("[body]", "")
+        funStr = funStr.replace("[bodyarg]", "null")
     if 'success' in fun:
         success = fun["success"]["fields"]["Success 200"]
         funStr = funStr.replace("[ret]", "JSONObject with fields <br>[ret]")
@@ -177,12 +1315,14 @@ def parseJsonAPIFunToJavaMethod(fun):
                 funStr = funStr.replace("[ret]", "\n" + retStr + "<br>[ret]")
             else:
                 funStr = funStr.replace("[ret]", "\n" + retStr + "[ret]")
-    funStr = funStr.replace("[puts]", "")
     funStr = funStr.replace("[args]", "")
+    funStr = funStr.replace("[argnames]", "")
     funStr = funStr.replace("[description]", "")
     funStr = funStr.replace("[ret]", "")
     funStr = funStr.replace("[rettype]", "Object")
-    return funStr
+    # Methods of the cluster client are appended after a marker so they share the substitutions above
+    funStr, _, clusterStr = funStr.partition("[cluster]")
+    return funStr, clusterStr
 
 # Get raw API json file
 req = urllib.request.Request(apiJsonUrl, data=None, headers={'User-Agent': 'Mozilla/5.0 (Hi)'})
@@ -197,15 +1337,39 @@ api = json.loads(apistr)["api"]
 
 # Parse every API function into a Java method
 funNames = []
+funs = []
 for fun in api:
     if fun["name"] in funNames:
         continue
     funNames.append(fun["name"])
-    funStr = parseJsonAPIFunToJavaMethod(fun)
+    funs.append(fun)
+    funStr, clusterStr = parseJsonAPIFunToJavaMethod(fun)
     classFrame = classFrame.replace("[api]", funStr + "[api]")
+    clusterFrame = clusterFrame.replace("[api]", clusterStr + "[api]")
+    stubRoutesFrame = stubRoutesFrame.replace("[routes]", parseJsonAPIFunToStubRoute(fun) + "[routes]")
+
+endpointStrs = [parseJsonAPIFunToEndpoint(fun, funs) for fun in funs]
+endpointsFrame = endpointsFrame.replace("[endpoints]", "".join(endpointStrs).rstrip(","))
 
 classFrame = classFrame.replace("[api]", "")
+clusterFrame = clusterFrame.replace("[api]", "")
+stubRoutesFrame = stubRoutesFrame.replace("[routes]", "")
+classFrame = classFrame.replace("[records]", "".join(recordStrs))
+
+rootDir = os.path.dirname(os.path.abspath(__file__))
+outDir = os.path.join(rootDir, "client", "src", "main", "java", "sinusbot")
+stubDir = os.path.join(rootDir, "stub", "src", "main", "java", "sinusbot", "stub")
+os.makedirs(outDir, exist_ok=True)
+os.makedirs(stubDir, exist_ok=True)
 
-with open("SinusbotAPI.java", "w") as file:
+with open(os.path.join(outDir, "SinusbotAPI.java"), "w") as file:
     file.write(classFrame)
-    
\ No newline at end of file
+
+with open(os.path.join(outDir, "SinusbotCluster.java"), "w") as file:
+    file.write(clusterFrame)
+
+with open(os.path.join(outDir, "Endpoints.java"), "w") as file:
+    file.write(endpointsFrame)
+
+with open(os.path.join(stubDir, "StubRoutes.java"), "w") as file:
+    file.write(stubRoutesFrame)
@@ -0,0 +1,88 @@
+package sinusbot.stub;
+
+import java.util.Random;
+
+/**
+ * Faults the stub injects into the responses of a route, see {@link SinusbotStub#faults(String)}.
+ * Changes apply to the following requests right away.
+ */
+public class Faults {
+	private volatile Latency latency;
+	private volatile double errorRate;
+	private volatile int errorStatus = 500;
+	private volatile double disconnectRate;
+	private volatile int bytesPerSecond;
+
+	Faults() {
+	}
+
+	/**
+	 * @param latency Delay added before the response, null for none
+	 * @return This for chaining
+	 */
+	public Faults latency(Latency latency) {
+		this.latency = latency;
+		return this;
+	}
+
+	/**
+	 * @param rate Share of requests answered with an error, between 0 and 1
+	 * @param status HTTP status of the error responses, e.g. 500 or 503
+	 * @return This for chaining
+	 */
+	public Faults errors(double rate, int status) {
+		this.errorStatus = status;
+		this.errorRate = rate;
+		return this;
+	}
+
+	/**
+	 * @param rate Share of requests whose connection is closed without a response, between 0 and 1
+	 * @return This for chaining
+	 */
+	public Faults disconnects(double rate) {
+		this.disconnectRate = rate;
+		return this;
+	}
+
+	/**
+	 * @param bytesPerSecond Rate the response body is sent at, 0 to send it at once
+	 * @return This for chaining
+	 */
+	public Faults slowBody(int bytesPerSecond) {
+		this.bytesPerSecond = bytesPerSecond;
+		return this;
+	}
+
+	/**
+	 * Removes all faults
+	 * @return This for chaining
+	 */
+	public Faults clear() {
+		latency = null;
+		errorRate = 0;
+		disconnectRate = 0;
+		bytesPerSecond = 0;
+		return this;
+	}
+
+	long delayNanos(Random random) {
+		Latency latency = this.latency;
+		return latency == null ? 0 : Math.max(0, latency.nanos(random));
+	}
+
+	/**
+	 * @return HTTP status to answer with, 0 for a regular response, -1 to drop the connection
+	 */
+	int failure(Random random) {
+		if (disconnectRate > 0 && random.nextDouble() < disconnectRate)
+			return -1;
+		if (errorRate > 0 && random.nextDouble() < errorRate)
+			return errorStatus;
+		return 0;
+	}
+
+	int bytesPerSecond() {
+		return bytesPerSecond;
+	}
+}
@@ -0,0 +1,47 @@
+package sinusbot.stub;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Distribution of the delay the stub adds before answering, see {@link Faults#latency(Latency)}
+ */
+@FunctionalInterface
+public interface Latency {
+
+	/**
+	 * @param random Random source of the calling thread
+	 * @return Delay of the next response in nanoseconds
+	 */
+	long nanos(Random random);
+
+	/**
+	 * @param delay Delay of every response
+	 */
+	static Latency fixed(Duration delay) {
+		long nanos = delay.toNanos();
+		return random -> nanos;
+	}
+
+	/**
+	 * @param min Shortest delay
+	 * @param max Longest delay
+	 */
+	static Latency uniform(Duration min, Duration max) {
+		long from = min.toNanos();
+		long range = max.toNanos() - from;
+		return random -> from + (long) (random.nextDouble() * range);
+	}
+
+	/**
+	 * Log-normal delays, a few requests take much longer than the median like on a busy host
+	 * @param median Delay half of the responses stay below
+	 * @param p99 Delay 99% of the responses stay below
+	 */
+	static Latency logNormal(Duration median, Duration p99) {
+		double mu = Math.log(median.toNanos());
+		// 2.326 is the 99th percentile of the standard normal distribution
+		double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / 2.326;
+		return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+	}
+}
@@ -0,0 +1,63 @@
+package sinusbot.stub;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongConsumer;
+
+import sinusbot.SinusbotTransport;
+
+/**
+ * Transport that records the responses of a real Sinusbot as fixtures for {@link SinusbotStub#fixtures(Path)}.
+ * The last response of each route is written to &lt;route&gt;.json, login responses and raw streams are not recorded.
+ */
+public class RecordingTransport implements SinusbotTransport {
+	private final SinusbotTransport transport;
+	private final Path dir;
+
+	/**
+	 * @param transport Transport sending the requests to the real Sinusbot
+	 * @param dir Directory the fixtures are written to
+	 */
+	public RecordingTransport(SinusbotTransport transport, Path dir) throws IOException {
+		this.transport = transport;
+		this.dir = Files.createDirectories(dir);
+	}
+
+	@Override
+	public InputStream send(String requestMethod, String url, String token, byte[] body) throws IOException {
+		return record(requestMethod, url, transport.send(requestMethod, url, token, body));
+	}
+
+	@Override
+	public InputStream send(String requestMethod, String url, String token, Path file, LongConsumer progress) throws IOException {
+		return record(requestMethod, url, transport.send(requestMethod, url, token, file, progress));
+	}
+
+	private InputStream record(String requestMethod, String url, InputStream in) throws IOException {
+		Route route = route(requestMethod, url);
+		if (route == null || route.response == null || route.name.equals("login"))
+			return in;
+		byte[] response;
+		try (InputStream stream = in) {
+			response = stream.readAllBytes();
+		}
+		Files.write(dir.resolve(route.name + ".json"), response);
+		return new ByteArrayInputStream(response);
+	}
+
+	private static Route route(String method, String url) {
+		URI uri = URI.create(url);
+		int api = uri.getRawPath().indexOf("/api/v1/");
+		if (api < 0)
+			return null;
+		String path = uri.getRawPath().substring(api + 7);
+		for (Route route : StubRoutes.ROUTES)
+			if (route.match(method, path, uri.getRawQuery()) != null)
+				return route;
+		return null;
+	}
+}
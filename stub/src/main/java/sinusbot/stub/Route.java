@@ -0,0 +1,93 @@
+package sinusbot.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An endpoint of the Sinusbot API as documented, e.g. POST /bot/i/:instanceId/volume/set/:volume
+ */
+final class Route {
+	final String name;
+	final String method;
+	final String template;
+	/** Response with the documented fields set to empty values, null if the documentation has none */
+	final String response;
+	private final String[] segments;
+	private final Map<String, String> queryParams = new HashMap<>();
+
+	Route(String name, String method, String template, String response) {
+		this.name = name;
+		this.method = method;
+		this.template = template;
+		this.response = response;
+		int query = template.indexOf('?');
+		this.segments = (query < 0 ? template : template.substring(0, query)).substring(1).split("/");
+		if (query >= 0) {
+			for (String pair : template.substring(query + 1).split("&")) {
+				int eq = pair.indexOf('=');
+				if (eq > 0 && pair.startsWith(":", eq + 1))
+					queryParams.put(pair.substring(0, eq), pair.substring(eq + 2));
+			}
+		}
+	}
+
+	/**
+	 * @param method HTTP method of the request
+	 * @param path Request path below /api/v1
+	 * @param query Raw query string, may be null
+	 * @return Path and query parameters by their name in the template, null if the request is not for this route
+	 */
+	Map<String, String> match(String method, String path, String query) {
+		if (!this.method.equals(method))
+			return null;
+		String[] parts = path.substring(1).split("/");
+		if (parts.length != segments.length)
+			return null;
+		Map<String, String> params = new HashMap<>();
+		for (int i = 0; i < parts.length; i++) {
+			if (segments[i].startsWith(":"))
+				params.put(segments[i].substring(1), decodeSegment(parts[i]));
+			else if (!segments[i].equals(parts[i]))
+				return null;
+		}
+		if (query != null) {
+			for (String pair : query.split("&")) {
+				int eq = pair.indexOf('=');
+				String key = decode(eq < 0 ? pair : pair.substring(0, eq));
+				params.putIfAbsent(queryParams.getOrDefault(key, key), eq < 0 ? "" : decode(pair.substring(eq + 1)));
+			}
+		}
+		return params;
+	}
+
+	private static String decode(String s) {
+		return URLDecoder.decode(s, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Percent decoding of a path segment, unlike in a query a + is no space there
+	 */
+	private static String decodeSegment(String s) {
+		if (s.indexOf('%') < 0)
+			return s;
+		ByteArrayOutputStream out = new ByteArrayOutputStream(s.length());
+		int start = 0;
+		for (int i = s.indexOf('%'); i >= 0 && i + 2 < s.length(); i = s.indexOf('%', start)) {
+			int hi = Character.digit(s.charAt(i + 1), 16);
+			int lo = Character.digit(s.charAt(i + 2), 16);
+			if (hi < 0 || lo < 0) {
+				out.writeBytes(s.substring(start, i + 1).getBytes(StandardCharsets.UTF_8));
+				start = i + 1;
+				continue;
+			}
+			out.writeBytes(s.substring(start, i).getBytes(StandardCharsets.UTF_8));
+			out.write(hi << 4 | lo);
+			start = i + 3;
+		}
+		out.writeBytes(s.substring(start).getBytes(StandardCharsets.UTF_8));
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
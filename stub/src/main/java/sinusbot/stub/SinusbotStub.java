@@ -0,0 +1,366 @@
+package sinusbot.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stand-in for a Sinusbot that serves the /api/v1 routes of the API documentation, for load tests without a real bot.
+ * Files, instances, playback, volume and the queue keep state, every other route answers with its fixture or with
+ * the documented response fields set to empty values. Latency, errors, dropped connections and slow bodies can be
+ * injected per route.
+ */
+public class SinusbotStub implements Closeable {
+	private static final String JSON = "application/json";
+	private static final int MIN_COMPRESSED = 1024;
+	private static final byte[] FAILURE = "{\"success\":false}".getBytes(StandardCharsets.UTF_8);
+
+	private final StubState state = new StubState();
+	private final Map<String, byte[]> fixtures = new ConcurrentHashMap<>();
+	private final Map<byte[], byte[]> gzippedFixtures = new ConcurrentHashMap<>();
+	private final Map<String, Faults> faults = new ConcurrentHashMap<>();
+	private final Faults allFaults = new Faults();
+	private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+	private final Map<String, Long> tokens = new ConcurrentHashMap<>();
+	private volatile long tokenLifetime;
+	private volatile boolean compression;
+	private HttpServer server;
+	private ExecutorService threads;
+
+	/**
+	 * Starts on a free port of the loopback interface
+	 * @return This for chaining
+	 */
+	public SinusbotStub start() throws IOException {
+		return start(new InetSocketAddress("127.0.0.1", 0));
+	}
+
+	/**
+	 * @param address Address to listen on
+	 * @return This for chaining
+	 */
+	public synchronized SinusbotStub start(InetSocketAddress address) throws IOException {
+		if (server != null)
+			throw new IllegalStateException("Already started");
+		// Without TCP_NODELAY delayed ACKs add up to 40ms to small responses, read once when the first server is created
+		if (System.getProperty("sun.net.httpserver.nodelay") == null)
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(address, 1024);
+		server.createContext("/api/v1/", this::handle);
+		threads = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "sinusbot-stub");
+			t.setDaemon(true);
+			return t;
+		});
+		server.setExecutor(threads);
+		server.start();
+		return this;
+	}
+
+	/**
+	 * @return Port the stub listens on
+	 */
+	public int port() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Answers a route with a fixed response, also routes that keep state
+	 * @param route Name of the route as in the API documentation, e.g. getFiles
+	 * @param body JSON response body, null to remove the fixture
+	 * @return This for chaining
+	 */
+	public SinusbotStub fixture(String route, String body) {
+		byte[] old = body == null ? fixtures.remove(route) : fixtures.put(route, body.getBytes(StandardCharsets.UTF_8));
+		if (old != null)
+			gzippedFixtures.remove(old);
+		return this;
+	}
+
+	/**
+	 * Loads every &lt;route&gt;.json file of a directory as fixture, e.g. the files written by a {@link RecordingTransport}
+	 * @param dir Directory with the fixture files
+	 * @return This for chaining
+	 */
+	public SinusbotStub fixtures(Path dir) throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				byte[] old = fixtures.put(name.substring(0, name.length() - 5), Files.readAllBytes(file));
+				if (old != null)
+					gzippedFixtures.remove(old);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * @return Faults of all routes without faults of their own
+	 */
+	public Faults faults() {
+		return allFaults;
+	}
+
+	/**
+	 * @param route Name of the route, e.g. getStatus
+	 * @return Faults of the route, these replace the faults of all routes
+	 */
+	public Faults faults(String route) {
+		return faults.computeIfAbsent(route, r -> new Faults());
+	}
+
+	/**
+	 * @param lifetime Time until issued tokens expire, they are JWTs with an exp claim then. Zero for tokens that never expire
+	 * @return This for chaining
+	 */
+	public SinusbotStub tokenLifetime(Duration lifetime) {
+		this.tokenLifetime = lifetime.toMillis();
+		return this;
+	}
+
+	/**
+	 * @param compression Whether JSON responses of at least 1 KiB are gzip compressed for clients accepting it, disabled by default
+	 * @return This for chaining
+	 */
+	public SinusbotStub compression(boolean compression) {
+		this.compression = compression;
+		return this;
+	}
+
+	/**
+	 * @param uuid Id of the instance
+	 * @param nick Nickname of the instance
+	 * @return This for chaining
+	 */
+	public SinusbotStub addInstance(String uuid, String nick) {
+		state.addInstance(uuid, nick);
+		return this;
+	}
+
+	/**
+	 * @param uuid Id of the instance
+	 * @return True if the instance existed
+	 */
+	public boolean removeInstance(String uuid) {
+		return state.removeInstance(uuid);
+	}
+
+	/**
+	 * @param file File as returned by getFiles, must have an uuid
+	 * @return This for chaining
+	 */
+	public SinusbotStub addFile(JSONObject file) {
+		state.addFile(file);
+		return this;
+	}
+
+	/**
+	 * Adds generated instances and files, the same numbers always generate the same ids
+	 * @param instances Number of instances
+	 * @param files Number of files, every 20th is a folder
+	 * @return This for chaining
+	 */
+	public SinusbotStub seed(int instances, int files) {
+		state.seed(instances, files, 31L * instances + files);
+		return this;
+	}
+
+	/**
+	 * @return Ids of all instances
+	 */
+	public List<String> instanceIds() {
+		return state.instanceIds();
+	}
+
+	/**
+	 * @param route Name of the route, e.g. getStatus
+	 * @return Number of requests received for the route
+	 */
+	public long requests(String route) {
+		LongAdder count = requests.get(route);
+		return count == null ? 0 : count.sum();
+	}
+
+	@Override
+	public synchronized void close() {
+		if (server == null)
+			return;
+		server.stop(0);
+		threads.shutdownNow();
+		server = null;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			byte[] body;
+			try (InputStream in = exchange.getRequestBody()) {
+				body = in.readAllBytes();
+			}
+			String path = exchange.getRequestURI().getRawPath().substring("/api/v1".length());
+			Route route = null;
+			Map<String, String> params = null;
+			for (Route r : StubRoutes.ROUTES) {
+				params = r.match(exchange.getRequestMethod(), path, exchange.getRequestURI().getRawQuery());
+				if (params != null) {
+					route = r;
+					break;
+				}
+			}
+			if (route == null) {
+				send(exchange, 404, FAILURE, JSON, 0);
+				return;
+			}
+			requests.computeIfAbsent(route.name, r -> new LongAdder()).increment();
+			Faults faults = this.faults.getOrDefault(route.name, allFaults);
+			Random random = ThreadLocalRandom.current();
+			long delay = faults.delayNanos(random);
+			if (delay > 0)
+				TimeUnit.NANOSECONDS.sleep(delay);
+			int failure = faults.failure(random);
+			if (failure < 0)
+				return; // closing the exchange before the headers are sent drops the connection
+			if (failure > 0) {
+				send(exchange, failure, FAILURE, JSON, faults.bytesPerSecond());
+				return;
+			}
+			if (!route.name.equals("login") && !authorized(exchange.getRequestHeaders().getFirst("Authorization"))) {
+				send(exchange, 401, FAILURE, JSON, 0);
+				return;
+			}
+			byte[] fixture = fixtures.get(route.name);
+			byte[] response = fixture == null ? respond(route, params, body) : fixture;
+			if (compression && route.response != null && response.length >= MIN_COMPRESSED && acceptsGzip(exchange)) {
+				exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+				// Fixtures are compressed once so that the stub does not slow down benchmarks of large responses
+				response = fixture == null ? gzip(response) : gzippedFixtures.computeIfAbsent(fixture, SinusbotStub::gzip);
+			}
+			send(exchange, 200, response, route.response == null ? "application/octet-stream" : JSON, faults.bytesPerSecond());
+		} catch (StubState.NotFoundException e) {
+			send(exchange, 404, FAILURE, JSON, 0);
+		} catch (JSONException | NumberFormatException e) {
+			send(exchange, 400, FAILURE, JSON, 0);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private byte[] respond(Route route, Map<String, String> params, byte[] body) {
+		if (route.name.equals("login"))
+			return login().getBytes(StandardCharsets.UTF_8);
+		JSONObject json = body.length > 0 && body[0] == '{' ? new JSONObject(new String(body, StandardCharsets.UTF_8)) : new JSONObject();
+		String response = state.handle(route.name, params, json, body.length);
+		if (response == null)
+			response = route.response == null ? "" : route.response;
+		return response.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private String login() {
+		long now = System.currentTimeMillis();
+		tokens.values().removeIf(expiry -> expiry < now);
+		long lifetime = tokenLifetime;
+		String token = UUID.randomUUID().toString();
+		if (lifetime > 0) {
+			Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+			token = base64.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+					+ base64.encodeToString(("{\"exp\":" + (now + lifetime) / 1000 + "}").getBytes(StandardCharsets.UTF_8)) + "."
+					+ base64.encodeToString(token.getBytes(StandardCharsets.UTF_8));
+		}
+		tokens.put(token, lifetime > 0 ? now + lifetime : Long.MAX_VALUE);
+		JSONObject response = new JSONObject();
+		response.put("token", token);
+		response.put("botId", "stub");
+		response.put("success", true);
+		return response.toString();
+	}
+
+	private boolean authorized(String header) {
+		if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7))
+			return false;
+		Long expiry = tokens.get(header.substring(7));
+		return expiry != null && expiry >= System.currentTimeMillis();
+	}
+
+	private static boolean acceptsGzip(HttpExchange exchange) {
+		List<String> accept = exchange.getRequestHeaders().get("Accept-Encoding");
+		return accept != null && accept.stream().anyMatch(value -> value.toLowerCase().contains("gzip"));
+	}
+
+	private static byte[] gzip(byte[] body) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed, 8192)) {
+			out.write(body);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return compressed.toByteArray();
+	}
+
+	private static void send(HttpExchange exchange, int status, byte[] body, String contentType, int bytesPerSecond) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		if (bytesPerSecond <= 0 || body.length == 0) {
+			exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+			return;
+		}
+		// Chunked, about ten writes per second so the client sees the body arrive piece by piece
+		exchange.sendResponseHeaders(status, 0);
+		int chunk = Math.max(1, bytesPerSecond / 10);
+		long start = System.nanoTime();
+		try (OutputStream out = exchange.getResponseBody()) {
+			for (int off = 0; off < body.length; off += chunk) {
+				int len = Math.min(chunk, body.length - off);
+				out.write(body, off, len);
+				out.flush();
+				long wait = start + (off + len) * 1_000_000_000L / bytesPerSecond - System.nanoTime();
+				if (wait > 0)
+					TimeUnit.NANOSECONDS.sleep(wait);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Runs a stub with 4 instances and 1000 files
+	 * @param args Port to listen on (default 8087) and optionally a directory with fixture files
+	 */
+	public static void main(String[] args) throws IOException {
+		SinusbotStub stub = new SinusbotStub().seed(4, 1000);
+		if (args.length > 1)
+			stub.fixtures(Paths.get(args[1]));
+		stub.start(new InetSocketAddress(args.length > 0 ? Integer.parseInt(args[0]) : 8087));
+		System.out.println("Sinusbot stub listening on port " + stub.port() + ", instances " + stub.instanceIds());
+	}
+}
@@ -0,0 +1,68 @@
+package sinusbot.stub;
+
+/**
+ * Routes of the Sinusbot API, generated by parser.py from the API documentation
+ */
+final class StubRoutes {
+	static final Route[] ROUTES = {
+		new Route("avatarDelete", "DELETE", "/bot/i/:instanceId/avatar", "{\"success\":true}"),
+		new Route("avatarUpload", "POST", "/bot/i/:instanceId/avatar", "{\"success\":true}"),
+		new Route("addUrl", "POST", "/bot/url", "{\"success\":true}"),
+		new Route("createFolder", "POST", "/bot/folders", "{\"success\":true}"),
+		new Route("deleteFile", "DELETE", "/bot/files/:id", "{\"success\":true}"),
+		new Route("getFiles", "GET", "/bot/files", "[]"),
+		new Route("updateFile", "PATCH", "/bot/files/:id", "{\"success\":true}"),
+		new Route("uploadFile", "POST", "/bot/upload", "{\"uuid\":\"\",\"parent\":\"\",\"type\":\"\",\"mimeType\":\"\",\"title\":\"\",\"artist\":\"\",\"tempTitle\":\"\",\"tempArtist\":\"\",\"album\":\"\",\"albumArtist\":\"\",\"track\":0,\"totalTracks\":0,\"copyright\":\"\",\"genre\":\"\",\"thumbnail\":\"\",\"codec\":\"\",\"duration\":0,\"bitrate\":0,\"channels\":0,\"samplerate\":0,\"filesize\":0}"),
+		new Route("uploadInfo", "GET", "/bot/uploadInfo", "{\"maxSize\":0}"),
+		new Route("botInfo", "GET", "/bot/info", "{\"bot\":null,\"system\":{\"codecs\":null,\"formats\":null},\"usageMemory\":0}"),
+		new Route("login", "POST", "/bot/login", "{\"token\":\"\",\"botId\":\"\"}"),
+		new Route("createInstance", "POST", "/bot/instances", "{\"success\":true,\"uuid\":\"\"}"),
+		new Route("deleteInstance", "DELETE", "/bot/instances", "{\"success\":true}"),
+		new Route("getInstances", "GET", "/bot/instances", "[]"),
+		new Route("getSettings", "POST", "/bot/i/:instanceId/settings", "{\"success\":true}"),
+		new Route("getStatus", "POST", "/bot/i/:instanceId/status", "{\"v\":\"\",\"currentTrack\":null,\"position\":0,\"running\":false,\"playing\":false,\"shuffle\":false,\"repeat\":false,\"volume\":0,\"needsRestart\":false,\"playlist\":\"\",\"playlistTrack\":0,\"queueLen\":0,\"queueVersion\":0,\"modes\":0,\"downloaded\":0,\"serverUID\":\"\",\"flags\":0,\"muted\":false}"),
+		new Route("kill", "POST", "/bot/i/:instanceId/kill", "{\"success\":true}"),
+		new Route("respawn", "POST", "/bot/i/:instanceId/respawn", "{\"success\":true}"),
+		new Route("spawn", "POST", "/bot/i/:instanceId/spawn", "{\"success\":true}"),
+		new Route("getBotLog", "GET", "/bot/log", "[]"),
+		new Route("getInstanceLog", "GET", "/bot/i/:instanceId/log", "[]"),
+		new Route("decreaseVolume", "POST", "/bot/i/:instanceId/volume/down", "{\"success\":true}"),
+		new Route("increaseVolume", "POST", "/bot/i/:instanceId/volume/up", "{\"success\":true}"),
+		new Route("pause", "POST", "/bot/i/:instanceId/pause", "{\"success\":true}"),
+		new Route("playById", "POST", "/bot/i/:instanceId/play/byId/:id", "{\"success\":true}"),
+		new Route("playByList", "POST", "/bot/i/:instanceId/play/byList/:playlistId/:index", "{\"success\":true}"),
+		new Route("playUrl", "POST", "/bot/i/:instanceId/playUrl?url=:url&plugin=:plugin", "{\"success\":true}"),
+		new Route("recentTracks", "GET", "/bot/i/:instanceId/recent", "{\"body\":null}"),
+		new Route("say", "POST", "/bot/i/:instanceId/say", "{\"success\":true}"),
+		new Route("seek", "POST", "/bot/i/:instanceId/seek/:val", "{\"success\":true}"),
+		new Route("setMute", "POST", "/bot/i/:instanceId/mute/:val", "{\"success\":true}"),
+		new Route("setVolume", "POST", "/bot/i/:instanceId/volume/set/:volume", "{\"success\":true}"),
+		new Route("stop", "POST", "/bot/i/:instanceId/stop", "{\"success\":true}"),
+		new Route("playNext", "POST", "/bot/i/:instanceId/playNext", "{\"success\":true}"),
+		new Route("playPrevious", "POST", "/bot/i/:instanceId/playPrevious", "{\"success\":true}"),
+		new Route("setRepeat", "POST", "/bot/i/:instanceId/repeat/:val", "{\"success\":true}"),
+		new Route("setShuffle", "POST", "/bot/i/:instanceId/shuffle/:val", "{\"success\":true}"),
+		new Route("appendQueue", "POST", "/bot/i/:instanceId/queue/append/:uuid", "{\"success\":true}"),
+		new Route("getQueue", "GET", "/bot/i/:instanceId/queue", "[]"),
+		new Route("prependQueue", "POST", "/bot/i/:instanceId/queue/prepend/:uuid", "{\"success\":true}"),
+		new Route("removeFromQueue", "DELETE", "/bot/i/:instanceId/queue/:queuePos", "{\"success\":true}"),
+		new Route("getRadioStations", "PATCH", "/bot/stations?q=:search", "[]"),
+		new Route("getScripts", "GET", "/bot/scripts", "[]"),
+		new Route("saveSettings", "POST", "/bot/i/:instanceId/scriptSettings", "{\"success\":true}"),
+		new Route("getStream", "GET", "/bot/i/:instanceId/stream/:token", null),
+		new Route("getStreamToken", "POST", "/bot/i/:instanceId/streamToken", "{\"success\":true,\"token\":\"\"}"),
+		new Route("getChannels", "GET", "/bot/i/:instanceId/channels", "[]"),
+		new Route("addJob", "POST", "/bot/jobs", "{\"success\":true,\"uuid\":\"\"}"),
+		new Route("cancelJob", "DELETE", "/bot/jobs/:jobId", "{\"success\":true}"),
+		new Route("clearJobs", "DELETE", "/bot/jobs", "{\"success\":true}"),
+		new Route("getJobs", "GET", "/bot/jobs", "[]"),
+		new Route("createUser", "POST", "/bot/users", "{\"success\":true}"),
+		new Route("deleteUser", "DELETE", "/bot/users/:userId", "{\"success\":true}"),
+		new Route("getUsers", "GET", "/bot/users", "[]"),
+		new Route("updateInstanceUserPrivileges", "PATCH", "/bot/i/:instanceId/users/:userId", "{\"success\":true}"),
+		new Route("updateUser", "PATCH", "/bot/users/:userId", "{\"success\":true}"),
+	};
+
+	private StubRoutes() {
+	}
+}
@@ -0,0 +1,332 @@
+package sinusbot.stub;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Files, instances and their playback state as far as the stub keeps them.
+ * Covers the file library, playback, volume and the queue, every other route is answered from fixtures.
+ * Only the changes of the state hold the lock, responses are serialized outside of it. Files and instance infos are
+ * never changed once they are in the state, an update replaces the file.
+ */
+final class StubState {
+	private static final String SUCCESS = "{\"success\":true}";
+	private static final String[] WORDS = { "never", "gonna", "give", "you", "up", "let", "down", "run", "around", "desert", "night", "city", "lights", "summer", "remix", "live", "radio", "edit" };
+
+	private final Map<String, JSONObject> files = new LinkedHashMap<>();
+	private final Map<String, Instance> instances = new LinkedHashMap<>();
+
+	private static final class Instance {
+		final JSONObject info;
+		final List<String> queue = new ArrayList<>();
+		final List<String> recent = new ArrayList<>();
+		String track;
+		long startedAt;
+		long pausedAt;
+		boolean playing;
+		long volume = 50;
+		boolean muted;
+		boolean repeat;
+		boolean shuffle;
+		long queueVersion;
+
+		Instance(JSONObject info) {
+			this.info = info;
+		}
+	}
+
+	static final class NotFoundException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		NotFoundException(String what) {
+			super(what + " not found");
+		}
+	}
+
+	synchronized void addFile(JSONObject file) {
+		files.put(file.getString("uuid"), file);
+	}
+
+	synchronized void addInstance(String uuid, String nick) {
+		JSONObject info = new JSONObject();
+		info.put("uuid", uuid);
+		info.put("nick", nick);
+		info.put("name", nick);
+		info.put("running", true);
+		info.put("mainInstance", instances.isEmpty());
+		instances.put(uuid, new Instance(info));
+	}
+
+	synchronized boolean removeInstance(String uuid) {
+		return instances.remove(uuid) != null;
+	}
+
+	/**
+	 * Adds generated instances and tracks, the same seed always generates the same data
+	 */
+	synchronized void seed(int instanceCount, int trackCount, long seed) {
+		Random random = new Random(seed);
+		for (int i = 0; i < instanceCount; i++)
+			addInstance(new UUID(random.nextLong(), random.nextLong()).toString(), words(random, 1) + " " + i);
+		String parent = "";
+		for (int i = 0; i < trackCount; i++) {
+			String uuid = new UUID(random.nextLong(), random.nextLong()).toString();
+			if (i % 20 == 0) {
+				addFile(folder(uuid, parent, words(random, 2)));
+				parent = uuid;
+				continue;
+			}
+			JSONObject file = track(uuid, parent, words(random, 3), 120000 + random.nextInt(180000), 2000000 + random.nextInt(10000000));
+			file.put("artist", words(random, 2));
+			file.put("album", words(random, 2));
+			addFile(file);
+		}
+	}
+
+	synchronized List<String> instanceIds() {
+		return new ArrayList<>(instances.keySet());
+	}
+
+	/**
+	 * @param route Name of the route, e.g. getStatus
+	 * @param params Path and query parameters
+	 * @param body JSON request body, empty if there is none
+	 * @param length Length of the request body
+	 * @return Response body, null if the route has no state
+	 */
+	String handle(String route, Map<String, String> params, JSONObject body, long length) {
+		Object response;
+		synchronized (this) {
+			response = apply(route, params, body, length);
+		}
+		if (response instanceof Collection<?> c)
+			return new JSONArray(c).toString();
+		return response == null ? null : response.toString();
+	}
+
+	/**
+	 * @return String, JSONObject or a copied Collection of unchanging JSONObjects to serialize, null if the route has no state
+	 */
+	private Object apply(String route, Map<String, String> params, JSONObject body, long length) {
+		switch (route) {
+		case "getFiles":
+			return new ArrayList<>(files.values());
+		case "addUrl":
+			add(track(UUID.randomUUID().toString(), body.optString("parent"), body.optString("title", body.optString("url")), 0, 0).put("type", "url"));
+			return SUCCESS;
+		case "createFolder":
+			add(folder(UUID.randomUUID().toString(), body.optString("parent"), body.optString("name")));
+			return SUCCESS;
+		case "uploadFile":
+			return add(track(UUID.randomUUID().toString(), params.getOrDefault("folder", ""), params.getOrDefault("filename", "upload"), 0, length));
+		case "updateFile": {
+			JSONObject file = new JSONObject(file(params.get("id")).toString());
+			for (String field : new String[] { "title", "artist", "album", "parent" })
+				if (body.has(field))
+					file.put(field, body.get(field));
+			add(file);
+			return SUCCESS;
+		}
+		case "deleteFile":
+			if (files.remove(params.get("id")) == null)
+				throw new NotFoundException("File");
+			for (Instance instance : instances.values())
+				if (instance.queue.removeIf(params.get("id")::equals))
+					instance.queueVersion++;
+			return SUCCESS;
+		case "getInstances": {
+			List<JSONObject> result = new ArrayList<>();
+			for (Instance instance : instances.values())
+				result.add(instance.info);
+			return result;
+		}
+		default:
+		}
+		if (!params.containsKey("instanceId"))
+			return null;
+		Instance instance = instances.get(params.get("instanceId"));
+		if (instance == null)
+			throw new NotFoundException("Instance");
+		return apply(route, instance, params);
+	}
+
+	private Object apply(String route, Instance instance, Map<String, String> params) {
+		long now = System.currentTimeMillis();
+		switch (route) {
+		case "getStatus":
+			return status(instance, now);
+		case "playById":
+			play(instance, file(params.get("id")).getString("uuid"), now);
+			return SUCCESS;
+		case "playNext":
+			if (!instance.queue.isEmpty()) {
+				play(instance, instance.queue.remove(0), now);
+				instance.queueVersion++;
+			} else {
+				instance.playing = false;
+			}
+			return SUCCESS;
+		case "playPrevious":
+			if (instance.recent.size() > 1)
+				play(instance, instance.recent.get(instance.recent.size() - 2), now);
+			return SUCCESS;
+		case "pause":
+			if (instance.playing) {
+				instance.playing = false;
+				instance.pausedAt = now;
+			} else if (instance.track != null) {
+				instance.playing = true;
+				instance.startedAt += now - instance.pausedAt;
+			}
+			return SUCCESS;
+		case "stop":
+			instance.playing = false;
+			instance.track = null;
+			return SUCCESS;
+		case "seek":
+			instance.startedAt = (instance.playing ? now : instance.pausedAt) - Long.parseLong(params.get("val"));
+			return SUCCESS;
+		case "setVolume":
+			instance.volume = Math.max(0, Math.min(100, Long.parseLong(params.get("volume"))));
+			return SUCCESS;
+		case "increaseVolume":
+			instance.volume = Math.min(100, instance.volume + 5);
+			return SUCCESS;
+		case "decreaseVolume":
+			instance.volume = Math.max(0, instance.volume - 5);
+			return SUCCESS;
+		case "setMute":
+			instance.muted = Boolean.parseBoolean(params.get("val")) || "1".equals(params.get("val"));
+			return SUCCESS;
+		case "setRepeat":
+			instance.repeat = Boolean.parseBoolean(params.get("val")) || "1".equals(params.get("val"));
+			return SUCCESS;
+		case "setShuffle":
+			instance.shuffle = Boolean.parseBoolean(params.get("val")) || "1".equals(params.get("val"));
+			return SUCCESS;
+		case "getQueue": {
+			List<JSONObject> result = new ArrayList<>();
+			for (String uuid : instance.queue)
+				result.add(files.get(uuid));
+			return result;
+		}
+		case "appendQueue":
+			instance.queue.add(file(params.get("uuid")).getString("uuid"));
+			instance.queueVersion++;
+			return SUCCESS;
+		case "prependQueue":
+			instance.queue.add(0, file(params.get("uuid")).getString("uuid"));
+			instance.queueVersion++;
+			return SUCCESS;
+		case "removeFromQueue": {
+			int pos = Integer.parseInt(params.get("queuePos"));
+			if (pos < 0 || pos >= instance.queue.size())
+				throw new NotFoundException("Queue position");
+			instance.queue.remove(pos);
+			instance.queueVersion++;
+			return SUCCESS;
+		}
+		default:
+			return null;
+		}
+	}
+
+	private JSONObject status(Instance instance, long now) {
+		JSONObject track = instance.track == null ? null : files.get(instance.track);
+		long position = 0;
+		if (track != null) {
+			position = (instance.playing ? now : instance.pausedAt) - instance.startedAt;
+			if (track.optLong("duration") > 0 && position >= track.optLong("duration")) {
+				instance.playing = false;
+				position = track.optLong("duration");
+			}
+		}
+		JSONObject status = new JSONObject();
+		status.put("v", "stub");
+		status.put("currentTrack", track == null ? JSONObject.NULL : track);
+		status.put("position", position);
+		status.put("running", instance.info.getBoolean("running"));
+		status.put("playing", instance.playing);
+		status.put("shuffle", instance.shuffle);
+		status.put("repeat", instance.repeat);
+		status.put("volume", instance.volume);
+		status.put("needsRestart", false);
+		status.put("playlist", "");
+		status.put("playlistTrack", -1);
+		status.put("queueLen", instance.queue.size());
+		status.put("queueVersion", instance.queueVersion);
+		status.put("modes", 0);
+		status.put("downloaded", 0);
+		status.put("serverUID", "");
+		status.put("flags", 0);
+		status.put("muted", instance.muted);
+		return status;
+	}
+
+	private void play(Instance instance, String uuid, long now) {
+		instance.track = uuid;
+		instance.playing = true;
+		instance.startedAt = now;
+		instance.recent.remove(uuid);
+		instance.recent.add(uuid);
+		if (instance.recent.size() > 20)
+			instance.recent.remove(0);
+	}
+
+	private JSONObject file(String uuid) {
+		JSONObject file = uuid == null ? null : files.get(uuid);
+		if (file == null)
+			throw new NotFoundException("File");
+		return file;
+	}
+
+	private JSONObject add(JSONObject file) {
+		files.put(file.getString("uuid"), file);
+		return file;
+	}
+
+	private static JSONObject track(String uuid, String parent, String title, long duration, long filesize) {
+		JSONObject file = new JSONObject();
+		file.put("uuid", uuid);
+		file.put("parent", parent);
+		file.put("type", "");
+		file.put("mimeType", "audio/mpeg");
+		file.put("title", title);
+		file.put("artist", "");
+		file.put("album", "");
+		file.put("codec", "mp3");
+		file.put("duration", duration);
+		file.put("bitrate", 320000);
+		file.put("channels", 2);
+		file.put("samplerate", 44100);
+		file.put("filesize", filesize);
+		return file;
+	}
+
+	private static JSONObject folder(String uuid, String parent, String title) {
+		JSONObject folder = new JSONObject();
+		folder.put("uuid", uuid);
+		folder.put("parent", parent);
+		folder.put("type", "folder");
+		folder.put("title", title);
+		return folder;
+	}
+
+	private static String words(Random random, int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0)
+				sb.append(' ');
+			sb.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return sb.toString();
+	}
+}